@@ -0,0 +1,155 @@
+package com.example.workflow.admission;
+
+import com.example.workflow.config.WorkflowProperties;
+import com.example.workflow.dto.AdmissionStats;
+import lombok.extern.slf4j.Slf4j;
+import org.flowable.engine.ManagementService;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Admission control for process starts and task completions.
+ * <p>
+ * The number of calls running at once is capped by a limit that adapts AIMD-style: it grows by about one for every
+ * {@code limit} calls finishing within {@code workflow.admission.target-latency} while the limit is in use, and
+ * shrinks by {@code backoff-ratio} when calls get slower than that or the async job backlog exceeds
+ * {@code max-job-backlog}, at most once per target latency. Over the backlog, process starts are refused outright
+ * so the executors can drain, while completions keep flowing. Process keys can get their own concurrency quota.
+ */
+@Slf4j
+@Component
+public class AdaptiveConcurrencyLimiter {
+    private final ManagementService managementService;
+    private final WorkflowProperties workflowProperties;
+
+    private final Map<String, Integer> inFlightByProcessKey = new HashMap<>();
+    private final Map<AdmissionRejectedException.Reason, LongAdder> rejections = new EnumMap<>(AdmissionRejectedException.Reason.class);
+    private double limit;
+    private int inFlight;
+    private long lastDecrease;
+    private volatile long jobBacklog;
+
+    /**
+     * An admitted call; {@link #close()} it when the call is done.
+     */
+    public final class Permit implements AutoCloseable {
+        private final String processKey;
+        private final boolean measured;
+        private final long start = System.nanoTime();
+
+        private Permit(String processKey, boolean measured) {
+            this.processKey = processKey;
+            this.measured = measured;
+        }
+
+        @Override
+        public void close() {
+            release(this);
+        }
+    }
+
+    public AdaptiveConcurrencyLimiter(ManagementService managementService, WorkflowProperties workflowProperties) {
+        this.managementService = managementService;
+        this.workflowProperties = workflowProperties;
+        this.limit = workflowProperties.getAdmission().getInitialLimit();
+        for (AdmissionRejectedException.Reason reason : AdmissionRejectedException.Reason.values()) {
+            rejections.put(reason, new LongAdder());
+        }
+    }
+
+    /**
+     * Admits a call or rejects it right away; never blocks.
+     *
+     * @param processKey the process key the call works on, or null if unknown
+     * @param start      whether the call starts new process instances
+     * @param measured   whether the call's latency adapts the limit; false for batches, which take longer the larger they are
+     * @return the permit to close once the call is done
+     * @throws AdmissionRejectedException if the call must not run now
+     */
+    public Permit acquire(String processKey, boolean start, boolean measured) {
+        WorkflowProperties.Admission config = workflowProperties.getAdmission();
+        Integer quota = processKey != null ? config.getProcessQuotas().get(processKey) : null;
+        synchronized (this) {
+            if (start && jobBacklog > config.getMaxJobBacklog()) {
+                throw reject(AdmissionRejectedException.Reason.JOB_BACKLOG, config,
+                        "Async job backlog of " + jobBacklog + " exceeds " + config.getMaxJobBacklog());
+            }
+            if (inFlight >= (int) limit) {
+                throw reject(AdmissionRejectedException.Reason.CONCURRENCY, config, "Concurrency limit of " + (int) limit + " reached");
+            }
+            if (quota != null) {
+                int used = inFlightByProcessKey.getOrDefault(processKey, 0);
+                if (used >= quota) {
+                    throw reject(AdmissionRejectedException.Reason.QUOTA, config, "Quota of " + quota + " concurrent calls for process " + processKey + " reached");
+                }
+                inFlightByProcessKey.put(processKey, used + 1);
+            }
+            inFlight++;
+        }
+        return new Permit(quota != null ? processKey : null, measured);
+    }
+
+    private synchronized void release(Permit permit) {
+        WorkflowProperties.Admission config = workflowProperties.getAdmission();
+        long now = System.nanoTime();
+        inFlight--;
+        if (permit.processKey != null) {
+            inFlightByProcessKey.computeIfPresent(permit.processKey, (key, used) -> used > 1 ? used - 1 : null);
+        }
+        if (!permit.measured) {
+            return;
+        }
+        if (now - permit.start > config.getTargetLatency().toNanos()) {
+            decrease(config, now);
+        } else if (inFlight * 2 >= limit) {
+            limit = Math.min(config.getMaxLimit(), limit + 1 / limit);
+        }
+    }
+
+    /**
+     * Samples the number of async and external worker jobs waiting in the engine.
+     */
+    @Scheduled(fixedDelayString = "${workflow.admission.backlog-sample-interval:PT2S}")
+    public void sampleJobBacklog() {
+        WorkflowProperties.Admission config = workflowProperties.getAdmission();
+        if (!config.isEnabled()) {
+            return;
+        }
+        jobBacklog = managementService.createJobQuery().count() + managementService.createExternalWorkerJobQuery().count();
+        if (jobBacklog > config.getMaxJobBacklog()) {
+            synchronized (this) {
+                decrease(config, System.nanoTime());
+            }
+        }
+    }
+
+    public synchronized AdmissionStats stats() {
+        return new AdmissionStats((int) limit, inFlight, jobBacklog, Map.copyOf(inFlightByProcessKey),
+                rejections.get(AdmissionRejectedException.Reason.CONCURRENCY).sum(),
+                rejections.get(AdmissionRejectedException.Reason.QUOTA).sum(),
+                rejections.get(AdmissionRejectedException.Reason.JOB_BACKLOG).sum());
+    }
+
+    private void decrease(WorkflowProperties.Admission config, long now) {
+        if (now - lastDecrease < config.getTargetLatency().toNanos()) {
+            return;
+        }
+        lastDecrease = now;
+        double previous = limit;
+        limit = Math.max(config.getMinLimit(), limit * config.getBackoffRatio());
+        if ((int) previous != (int) limit) {
+            log.debug("Admission limit lowered from [{}] to [{}]", (int) previous, (int) limit);
+        }
+    }
+
+    private AdmissionRejectedException reject(AdmissionRejectedException.Reason reason, WorkflowProperties.Admission config, String message) {
+        rejections.get(reason).increment();
+        return new AdmissionRejectedException(reason,
+                reason == AdmissionRejectedException.Reason.JOB_BACKLOG ? config.getBacklogRetryAfter() : config.getRetryAfter(), message);
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.workflow.admission;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+
+/**
+ * Puts the {@link AdaptiveConcurrencyLimiter} in front of the {@link com.example.workflow.service.WorkflowService}
+ * methods that start processes or complete tasks. Ordered first, so rejected calls cost neither a DB round trip
+ * nor a sample in the service metrics.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "workflow.admission", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class AdmissionAspect {
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    @Around("execution(* com.example.workflow.service.WorkflowService.startProcess(..))")
+    public Object admitStart(ProceedingJoinPoint joinPoint) throws Throwable {
+        try (AdaptiveConcurrencyLimiter.Permit permit = limiter.acquire(processKeyOf(joinPoint), true, true)) {
+            return joinPoint.proceed();
+        }
+    }
+
+    @Around("execution(* com.example.workflow.service.WorkflowService.completeTask(..))")
+    public Object admitCompletion(ProceedingJoinPoint joinPoint) throws Throwable {
+        try (AdaptiveConcurrencyLimiter.Permit permit = limiter.acquire(null, false, true)) {
+            return joinPoint.proceed();
+        }
+    }
+
+    /**
+     * Batches take a slot like a single call, but their duration grows with their size, so it does not move the limit.
+     */
+    @Around("execution(* com.example.workflow.service.WorkflowService.startProcesses(..))")
+    public Object admitStartBatch(ProceedingJoinPoint joinPoint) throws Throwable {
+        try (AdaptiveConcurrencyLimiter.Permit permit = limiter.acquire(processKeyOf(joinPoint), true, false)) {
+            return joinPoint.proceed();
+        }
+    }
+
+    @Around("execution(* com.example.workflow.service.WorkflowService.completeTasks(..))")
+    public Object admitCompletionBatch(ProceedingJoinPoint joinPoint) throws Throwable {
+        try (AdaptiveConcurrencyLimiter.Permit permit = limiter.acquire(null, false, false)) {
+            return joinPoint.proceed();
+        }
+    }
+
+    private static String processKeyOf(ProceedingJoinPoint joinPoint) {
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        int index = Arrays.asList(signature.getParameterNames()).indexOf("processKey");
+        return index >= 0 ? (String) joinPoint.getArgs()[index] : null;
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.workflow.admission;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * Thrown instead of running a call when the engine is saturated; the caller should retry after {@link #getRetryAfter()}.
+ */
+@Getter
+public class AdmissionRejectedException extends RuntimeException {
+    private final Reason reason;
+    private final Duration retryAfter;
+
+    public enum Reason {
+        /**
+         * The adaptive concurrency limit is reached.
+         */
+        CONCURRENCY,
+        /**
+         * The process key's own concurrency quota is reached.
+         */
+        QUOTA,
+        /**
+         * The async job backlog is too deep to take new process starts.
+         */
+        JOB_BACKLOG
+    }
+
+    public AdmissionRejectedException(Reason reason, Duration retryAfter, String message) {
+        super(message);
+        this.reason = reason;
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * Returns the retry delay in whole seconds, rounded up, as sent in a {@code Retry-After} header.
+     */
+    public long getRetryAfterSeconds() {
+        return Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+    }
+}
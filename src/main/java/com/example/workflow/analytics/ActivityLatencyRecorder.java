@@ -0,0 +1,427 @@
+package com.example.workflow.analytics;
+
+import com.example.workflow.config.WorkflowProperties;
+import com.example.workflow.dto.ActivityLatency;
+import com.example.workflow.dto.LatencySummary;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.AbstractHistogram;
+import org.HdrHistogram.IntCountsHistogram;
+import org.flowable.common.engine.api.delegate.event.FlowableEngineEventType;
+import org.flowable.common.engine.api.delegate.event.FlowableEntityEvent;
+import org.flowable.common.engine.api.delegate.event.FlowableEvent;
+import org.flowable.common.engine.api.delegate.event.FlowableEventListener;
+import org.flowable.common.engine.impl.cfg.TransactionContext;
+import org.flowable.common.engine.impl.cfg.TransactionState;
+import org.flowable.common.engine.impl.context.Context;
+import org.flowable.common.engine.impl.interceptor.CommandContext;
+import org.flowable.engine.RepositoryService;
+import org.flowable.engine.RuntimeService;
+import org.flowable.engine.delegate.event.FlowableActivityEvent;
+import org.flowable.job.api.Job;
+import org.flowable.task.api.Task;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per activity latency statistics, recorded from engine events into in-memory histograms instead of being
+ * computed from the history tables.
+ * <p>
+ * Each activity of each process definition key keeps a ring of histogram buckets covering the configured retention;
+ * a query merges the buckets of the requested window. Three measures are kept:
+ * <ul>
+ *     <li>duration, from the activity being started to it being completed</li>
+ *     <li>queue wait, from an async job being created to its activity being started, from an external worker job being
+ *     created to a worker acquiring it (reported by the worker) and from a user task being created to it being assigned</li>
+ *     <li>completions and cancellations, from which the throughput is derived</li>
+ * </ul>
+ * Events are timed when they are dispatched but only applied once their transaction has committed, so rolled back
+ * and retried work is not counted. Starts and ends are matched on the node that saw them: an activity started on one
+ * node and completed on another counts as a completion without a duration.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ActivityLatencyRecorder implements FlowableEventListener {
+    private static final String PENDING_ATTRIBUTE = ActivityLatencyRecorder.class.getName() + ".pending";
+    private static final int SIGNIFICANT_DIGITS = 2;
+
+    private final RuntimeService runtimeService;
+    private final RepositoryService repositoryService;
+    private final WorkflowProperties workflowProperties;
+
+    private final Map<String, String> definitionKeys = new ConcurrentHashMap<>();
+    private final Map<SeriesKey, Series> series = new ConcurrentHashMap<>();
+    private final Map<String, Pending> startedActivities = new ConcurrentHashMap<>();
+    private final Map<String, Pending> unassignedTasks = new ConcurrentHashMap<>();
+    private final Map<String, Long> queuedJobs = new ConcurrentHashMap<>();
+    private final long startedAt = System.currentTimeMillis();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!workflowProperties.getActivityAnalytics().isEnabled()) {
+            return;
+        }
+        runtimeService.addEventListener(this,
+                FlowableEngineEventType.ACTIVITY_STARTED, FlowableEngineEventType.ACTIVITY_COMPLETED, FlowableEngineEventType.ACTIVITY_CANCELLED,
+                FlowableEngineEventType.TASK_CREATED, FlowableEngineEventType.TASK_ASSIGNED, FlowableEngineEventType.ENTITY_CREATED);
+        log.info("Activity latency analytics started with bucket [{}] and retention [{}]",
+                workflowProperties.getActivityAnalytics().getBucketDuration(), workflowProperties.getActivityAnalytics().getRetention());
+    }
+
+    /**
+     * Forgets awaited activities, tasks and jobs whose end was never seen on this node, e.g. because their instance was
+     * deleted or moved on elsewhere.
+     */
+    @Scheduled(fixedDelayString = "${workflow.activity-analytics.bucket-duration:PT1M}")
+    public void expirePending() {
+        long cutoff = System.currentTimeMillis() - workflowProperties.getActivityAnalytics().getPendingTimeout().toMillis();
+        startedActivities.entrySet().removeIf(entry -> {
+            if (entry.getValue().at() < cutoff) {
+                entry.getValue().series().ended();
+                return true;
+            }
+            return false;
+        });
+        unassignedTasks.values().removeIf(pending -> pending.at() < cutoff);
+        queuedJobs.values().removeIf(createdAt -> createdAt < cutoff);
+    }
+
+    /**
+     * Records the time a job waited before being acquired by an external worker.
+     *
+     * @param processDefinitionId the process definition of the job
+     * @param activityId          the activity the job belongs to
+     * @param createdAt           when the job was created
+     */
+    public void recordQueueWait(String processDefinitionId, String activityId, Date createdAt) {
+        if (!workflowProperties.getActivityAnalytics().isEnabled() || processDefinitionId == null || createdAt == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        try {
+            seriesOf(processDefinitionId, activityId).recordQueueWait(now, now - createdAt.getTime());
+        } catch (RuntimeException e) {
+            log.warn("Queue wait of activity [{}] could not be recorded", activityId, e);
+        }
+    }
+
+    /**
+     * Retrieves the statistics of every activity seen in the given window.
+     *
+     * @param processDefinitionKey restricts the result to one process definition key, or {@code null} for all
+     * @param window               how far back to look; clamped between one bucket and the retention
+     * @return the activities ordered by process definition key and activity id
+     */
+    public List<ActivityLatency> getActivityLatencies(String processDefinitionKey, Duration window) {
+        WorkflowProperties.ActivityAnalytics config = workflowProperties.getActivityAnalytics();
+        long bucketMillis = config.getBucketDuration().toMillis();
+        int buckets = Math.clamp(divideRoundingUp(window.toMillis(), bucketMillis), 1, bucketCount(config));
+        long now = System.currentTimeMillis();
+        long toSlot = now / bucketMillis;
+        long fromSlot = toSlot - buckets + 1;
+        // The current bucket is only partly elapsed and nothing was recorded before startup
+        long coveredMillis = Math.max(now - Math.max(fromSlot * bucketMillis, startedAt), 1);
+
+        List<ActivityLatency> result = new ArrayList<>();
+        series.forEach((key, activity) -> {
+            if (processDefinitionKey == null || processDefinitionKey.equals(key.processDefinitionKey())) {
+                activity.summarize(key, fromSlot, toSlot, coveredMillis).ifPresent(result::add);
+            }
+        });
+        result.sort(Comparator.comparing(ActivityLatency::processDefinitionKey).thenComparing(ActivityLatency::activityId));
+        return result;
+    }
+
+    @Override
+    public void onEvent(FlowableEvent event) {
+        long now = System.currentTimeMillis();
+        long nanos = System.nanoTime();
+        Runnable change = toChange(event, now, nanos);
+        if (change != null) {
+            applyOnCommit(change);
+        }
+    }
+
+    private Runnable toChange(FlowableEvent event, long now, long nanos) {
+        if (event instanceof FlowableActivityEvent activity) {
+            if (activity.getProcessDefinitionId() == null || activity.getActivityId() == null) {
+                return null;
+            }
+            Series target = seriesOf(activity.getProcessDefinitionId(), activity.getActivityId());
+            target.describe(activity.getActivityName(), activity.getActivityType());
+            String key = activity.getExecutionId() + '|' + activity.getActivityId();
+            if (event.getType() == FlowableEngineEventType.ACTIVITY_STARTED) {
+                String executionId = activity.getExecutionId();
+                return () -> started(key, executionId, target, now, nanos);
+            }
+            boolean completed = event.getType() == FlowableEngineEventType.ACTIVITY_COMPLETED;
+            return () -> ended(key, target, completed, now, nanos);
+        }
+        if (event.getType() == FlowableEngineEventType.TASK_CREATED || event.getType() == FlowableEngineEventType.TASK_ASSIGNED) {
+            if (((FlowableEntityEvent) event).getEntity() instanceof Task task && task.getProcessDefinitionId() != null) {
+                Series target = seriesOf(task.getProcessDefinitionId(), task.getTaskDefinitionKey());
+                String taskId = task.getId();
+                long createdAt = task.getCreateTime() != null ? task.getCreateTime().getTime() : now;
+                boolean assigned = task.getAssignee() != null;
+                boolean created = event.getType() == FlowableEngineEventType.TASK_CREATED;
+                return () -> taskChanged(taskId, target, created, assigned, createdAt, now);
+            }
+            return null;
+        }
+        if (event.getType() == FlowableEngineEventType.ENTITY_CREATED
+                && ((FlowableEntityEvent) event).getEntity() instanceof Job job
+                && Job.JOB_TYPE_MESSAGE.equals(job.getJobType()) && job.getExecutionId() != null) {
+            String executionId = job.getExecutionId();
+            long createdAt = job.getCreateTime() != null ? job.getCreateTime().getTime() : now;
+            return () -> {
+                if (queuedJobs.size() < workflowProperties.getActivityAnalytics().getMaxPending()) {
+                    queuedJobs.put(executionId, createdAt);
+                }
+            };
+        }
+        return null;
+    }
+
+    private void started(String key, String executionId, Series target, long now, long nanos) {
+        Long queuedAt = queuedJobs.remove(executionId);
+        if (queuedAt != null) {
+            target.recordQueueWait(now, now - queuedAt);
+        }
+        if (startedActivities.size() < workflowProperties.getActivityAnalytics().getMaxPending()
+                && startedActivities.put(key, new Pending(now, nanos, target)) == null) {
+            target.started();
+        }
+    }
+
+    private void ended(String key, Series target, boolean completed, long now, long nanos) {
+        Pending start = startedActivities.remove(key);
+        if (start != null) {
+            start.series().ended();
+        }
+        if (completed) {
+            target.recordCompletion(now, start != null ? TimeUnit.NANOSECONDS.toMicros(nanos - start.nanos()) : -1);
+        } else {
+            target.recordCancellation(now);
+        }
+    }
+
+    private void taskChanged(String taskId, Series target, boolean created, boolean assigned, long createdAt, long now) {
+        if (assigned) {
+            // Assigned on creation or claimed later; either way the task stops waiting for someone to pick it up
+            if (created || unassignedTasks.remove(taskId) != null) {
+                target.recordQueueWait(now, now - createdAt);
+            }
+        } else if (created && unassignedTasks.size() < workflowProperties.getActivityAnalytics().getMaxPending()) {
+            unassignedTasks.put(taskId, new Pending(createdAt, 0, target));
+        }
+    }
+
+    /**
+     * Defers a change until the surrounding engine transaction commits, keeping the order in which events were dispatched.
+     */
+    @SuppressWarnings("unchecked")
+    private void applyOnCommit(Runnable change) {
+        CommandContext commandContext = Context.getCommandContext();
+        TransactionContext transactionContext = commandContext != null ? Context.getTransactionContext() : null;
+        if (transactionContext == null) {
+            change.run();
+            return;
+        }
+        List<Runnable> pending = (List<Runnable>) commandContext.getAttribute(PENDING_ATTRIBUTE);
+        if (pending == null) {
+            List<Runnable> changes = new ArrayList<>();
+            commandContext.addAttribute(PENDING_ATTRIBUTE, changes);
+            transactionContext.addTransactionListener(TransactionState.COMMITTED, context -> changes.forEach(this::applySafely));
+            pending = changes;
+        }
+        pending.add(change);
+    }
+
+    private void applySafely(Runnable change) {
+        try {
+            change.run();
+        } catch (RuntimeException e) {
+            log.warn("Activity latency sample could not be recorded", e);
+        }
+    }
+
+    private Series seriesOf(String processDefinitionId, String activityId) {
+        String processDefinitionKey = definitionKeys.computeIfAbsent(processDefinitionId,
+                id -> repositoryService.getProcessDefinition(id).getKey());
+        return series.computeIfAbsent(new SeriesKey(processDefinitionKey, activityId),
+                key -> new Series(workflowProperties.getActivityAnalytics().getBucketDuration().toMillis(),
+                        bucketCount(workflowProperties.getActivityAnalytics())));
+    }
+
+    private static int bucketCount(WorkflowProperties.ActivityAnalytics config) {
+        return (int) Math.max(divideRoundingUp(config.getRetention().toMillis(), config.getBucketDuration().toMillis()), 1);
+    }
+
+    private static long divideRoundingUp(long dividend, long divisor) {
+        return (dividend + divisor - 1) / divisor;
+    }
+
+    @Override
+    public boolean isFailOnException() {
+        // Statistics must never fail the engine operation
+        return false;
+    }
+
+    @Override
+    public boolean isFireOnTransactionLifecycleEvent() {
+        // Dispatched right away to take the timestamps; applying is deferred to the commit by applyOnCommit
+        return false;
+    }
+
+    @Override
+    public String getOnTransaction() {
+        return null;
+    }
+
+    private record SeriesKey(String processDefinitionKey, String activityId) {
+    }
+
+    private record Pending(long at, long nanos, Series series) {
+    }
+
+    /**
+     * Ring of histogram buckets of one activity; bucket {@code slot} covers the {@code slot}-th bucket duration since the epoch.
+     */
+    private static final class Series {
+        private final long bucketMillis;
+        private final Bucket[] buckets;
+        private volatile String name;
+        private volatile String type;
+        private long inProgress;
+
+        Series(long bucketMillis, int bucketCount) {
+            this.bucketMillis = bucketMillis;
+            this.buckets = new Bucket[bucketCount];
+        }
+
+        void describe(String activityName, String activityType) {
+            if (activityName != null) {
+                name = activityName;
+            }
+            if (activityType != null) {
+                type = activityType;
+            }
+        }
+
+        synchronized void started() {
+            inProgress++;
+        }
+
+        synchronized void ended() {
+            inProgress = Math.max(inProgress - 1, 0);
+        }
+
+        synchronized void recordCompletion(long now, long durationMicros) {
+            Bucket bucket = bucketAt(now);
+            bucket.completed++;
+            if (durationMicros >= 0) {
+                bucket.durations().recordValue(durationMicros);
+            }
+        }
+
+        synchronized void recordCancellation(long now) {
+            bucketAt(now).cancelled++;
+        }
+
+        synchronized void recordQueueWait(long now, long waitMillis) {
+            bucketAt(now).queueWaits().recordValue(TimeUnit.MILLISECONDS.toMicros(Math.max(waitMillis, 0)));
+        }
+
+        synchronized Optional<ActivityLatency> summarize(SeriesKey key, long fromSlot, long toSlot, long coveredMillis) {
+            long completed = 0;
+            long cancelled = 0;
+            AbstractHistogram durations = new IntCountsHistogram(SIGNIFICANT_DIGITS);
+            AbstractHistogram queueWaits = new IntCountsHistogram(SIGNIFICANT_DIGITS);
+            for (Bucket bucket : buckets) {
+                if (bucket == null || bucket.slot < fromSlot || bucket.slot > toSlot) {
+                    continue;
+                }
+                completed += bucket.completed;
+                cancelled += bucket.cancelled;
+                if (bucket.durations != null) {
+                    durations.add(bucket.durations);
+                }
+                if (bucket.queueWaits != null) {
+                    queueWaits.add(bucket.queueWaits);
+                }
+            }
+            if (completed == 0 && cancelled == 0 && inProgress == 0 && queueWaits.getTotalCount() == 0) {
+                return Optional.empty();
+            }
+            return Optional.of(new ActivityLatency(key.processDefinitionKey(), key.activityId(), name, type,
+                    completed, cancelled, inProgress, completed * 1000.0 / coveredMillis,
+                    summary(durations), summary(queueWaits)));
+        }
+
+        private Bucket bucketAt(long now) {
+            long slot = now / bucketMillis;
+            int index = (int) (slot % buckets.length);
+            Bucket bucket = buckets[index];
+            if (bucket == null || bucket.slot != slot) {
+                bucket = new Bucket(slot);
+                buckets[index] = bucket;
+            }
+            return bucket;
+        }
+
+        private static LatencySummary summary(AbstractHistogram histogram) {
+            if (histogram.getTotalCount() == 0) {
+                return new LatencySummary(0, 0, 0, 0, 0, 0);
+            }
+            return new LatencySummary(histogram.getTotalCount(), toMillis(histogram.getMean()),
+                    toMillis(histogram.getValueAtPercentile(50)), toMillis(histogram.getValueAtPercentile(90)),
+                    toMillis(histogram.getValueAtPercentile(99)), toMillis(histogram.getMaxValue()));
+        }
+
+        private static double toMillis(double micros) {
+            return Math.round(micros) / 1000.0;
+        }
+    }
+
+    /**
+     * Samples of one bucket duration; histograms are created on the first sample and grow with the largest value seen.
+     */
+    private static final class Bucket {
+        private final long slot;
+        private long completed;
+        private long cancelled;
+        private AbstractHistogram durations;
+        private AbstractHistogram queueWaits;
+
+        Bucket(long slot) {
+            this.slot = slot;
+        }
+
+        AbstractHistogram durations() {
+            if (durations == null) {
+                durations = new IntCountsHistogram(SIGNIFICANT_DIGITS);
+            }
+            return durations;
+        }
+
+        AbstractHistogram queueWaits() {
+            if (queueWaits == null) {
+                queueWaits = new IntCountsHistogram(SIGNIFICANT_DIGITS);
+            }
+            return queueWaits;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.workflow.blob;
+
+import com.example.workflow.cluster.ClusterLock;
+import com.example.workflow.config.WorkflowProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.flowable.common.engine.api.query.NativeQuery;
+import org.flowable.engine.HistoryService;
+import org.flowable.engine.ManagementService;
+import org.flowable.engine.RuntimeService;
+import org.flowable.variable.api.history.HistoricVariableInstance;
+import org.flowable.variable.api.persistence.entity.VariableInstance;
+import org.flowable.variable.service.impl.persistence.entity.HistoricVariableInstanceEntity;
+import org.flowable.variable.service.impl.persistence.entity.VariableInstanceEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Deletes blob files no variable refers to any more, such as those of purged history or overwritten variables.
+ * <p>
+ * Blobs are shared by every variable with the same content, so they cannot be deleted along with one instance.
+ * Instead each run marks the IDs of all blob references in the runtime and history variable tables and then sweeps
+ * the files that are not marked and were last stored more than {@code workflow.large-variables.gc-grace-period}
+ * before the run started, which spares blobs whose variable is still being committed. Runs on one node at a time.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BlobCollector {
+    private static final int PAGE_SIZE = 1000;
+
+    private final BlobStore blobStore;
+    private final RuntimeService runtimeService;
+    private final HistoryService historyService;
+    private final ManagementService managementService;
+    private final ClusterLock clusterLock;
+    private final WorkflowProperties workflowProperties;
+
+    @Scheduled(fixedDelayString = "${workflow.large-variables.gc-interval:PT6H}", initialDelayString = "${workflow.large-variables.gc-interval:PT6H}")
+    public void scheduledCollect() {
+        clusterLock.runExclusively("blob-gc", this::collect);
+    }
+
+    /**
+     * Runs one mark and sweep pass.
+     *
+     * @return the number of deleted files
+     */
+    public int collect() {
+        Instant cutoff = Instant.now().minus(workflowProperties.getLargeVariables().getGcGracePeriod());
+        long start = System.currentTimeMillis();
+        Set<String> referenced = new HashSet<>();
+        mark(referenced, runtimeService::createNativeVariableInstanceQuery, managementService.getTableName(VariableInstanceEntity.class), "TYPE_",
+                VariableInstance::getId, VariableInstance::getValue);
+        mark(referenced, historyService::createNativeHistoricVariableInstanceQuery, managementService.getTableName(HistoricVariableInstanceEntity.class), "VAR_TYPE_",
+                HistoricVariableInstance::getId, HistoricVariableInstance::getValue);
+        int deleted = blobStore.deleteUnreferenced(referenced, cutoff);
+        log.info("Blob collection kept [{}] referenced blobs and deleted [{}] files in [{}] ms",
+                referenced.size(), deleted, System.currentTimeMillis() - start);
+        return deleted;
+    }
+
+    /**
+     * Adds the IDs of all blob references in one variable table, paging by variable ID.
+     */
+    private <T, Q extends NativeQuery<Q, T>> void mark(Set<String> referenced, Supplier<Q> queries, String table, String typeColumn,
+                                                         Function<T, String> idOf, Function<T, Object> valueOf) {
+        String sql = "SELECT RES.* FROM " + table + " RES WHERE RES." + typeColumn + " = #{type} AND RES.ID_ > #{after} ORDER BY RES.ID_";
+        String after = "";
+        List<T> page;
+        do {
+            page = queries.get().sql(sql).parameter("type", BlobReferenceType.TYPE_NAME).parameter("after", after).listPage(0, PAGE_SIZE);
+            for (T variable : page) {
+                if (valueOf.apply(variable) instanceof BlobReference reference) {
+                    referenced.add(reference.id());
+                }
+            }
+            after = page.isEmpty() ? after : idOf.apply(page.getLast());
+        } while (page.size() == PAGE_SIZE);
+    }
+}
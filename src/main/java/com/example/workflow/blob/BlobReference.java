@@ -0,0 +1,11 @@
+package com.example.workflow.blob;
+
+/**
+ * Stand-in for a variable value that was moved to the {@link BlobStore}. Stored by the engine as a
+ * {@value BlobReferenceType#TYPE_NAME} variable, so it costs one small row instead of a byte-array entry.
+ *
+ * @param id     the hex SHA-256 of the content
+ * @param length the content length in bytes
+ */
+public record BlobReference(String id, long length) {
+}
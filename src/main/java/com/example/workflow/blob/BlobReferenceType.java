@@ -0,0 +1,44 @@
+package com.example.workflow.blob;
+
+import org.flowable.variable.api.types.ValueFields;
+import org.flowable.variable.api.types.VariableType;
+
+/**
+ * Engine variable type of {@link BlobReference}: the blob id goes into the text column and the length into the
+ * long column, so reading the variable never touches the blob itself.
+ */
+public class BlobReferenceType implements VariableType {
+    public static final String TYPE_NAME = "blobRef";
+
+    @Override
+    public String getTypeName() {
+        return TYPE_NAME;
+    }
+
+    @Override
+    public boolean isCachable() {
+        return true;
+    }
+
+    @Override
+    public boolean isAbleToStore(Object value) {
+        return value instanceof BlobReference;
+    }
+
+    @Override
+    public void setValue(Object value, ValueFields valueFields) {
+        BlobReference reference = (BlobReference) value;
+        valueFields.setTextValue(reference != null ? reference.id() : null);
+        valueFields.setLongValue(reference != null ? reference.length() : null);
+    }
+
+    @Override
+    public Object getValue(ValueFields valueFields) {
+        String id = valueFields.getTextValue();
+        if (id == null) {
+            return null;
+        }
+        Long length = valueFields.getLongValue();
+        return new BlobReference(id, length != null ? length : -1);
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.workflow.blob;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Content-addressed store of one file per distinct content, named by its SHA-256.
+ * <p>
+ * Identical payloads are written once. Files are immutable once in place, so reads map them into memory
+ * without locking and a read can never observe a partial write. Storing existing content again refreshes its file's
+ * modification time, which {@link #deleteUnreferenced(Set, Instant)} uses to spare blobs whose reference is not
+ * committed yet.
+ */
+@Slf4j
+public class BlobStore {
+    private final Path directory;
+
+    /**
+     * @param directory the root directory of the blob files
+     */
+    public BlobStore(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Stores the content unless an identical one is stored already.
+     *
+     * @param content the content to store
+     * @return the reference to the stored content
+     */
+    public BlobReference put(String content) {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        String id = sha256(bytes);
+        Path file = fileOf(id);
+        if (Files.exists(file)) {
+            log.debug("Blob [{}] already stored", id);
+            try {
+                Files.setLastModifiedTime(file, FileTime.from(Instant.now()));
+                return new BlobReference(id, bytes.length);
+            } catch (NoSuchFileException e) {
+                log.debug("Blob [{}] was collected meanwhile, writing it again", id);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not touch blob " + id, e);
+            }
+        }
+        try {
+            Files.createDirectories(file.getParent());
+            // Write to a temp file and move it into place so readers never see a partial blob
+            Path temp = Files.createTempFile(file.getParent(), id, ".tmp");
+            Files.write(temp, bytes);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write blob " + id, e);
+        }
+        return new BlobReference(id, bytes.length);
+    }
+
+    /**
+     * Reads the content behind a reference.
+     *
+     * @param reference the reference returned by {@link #put(String)}
+     * @return the stored content
+     * @throws UncheckedIOException if the blob is missing or unreadable
+     */
+    public String read(BlobReference reference) {
+        Path file = fileOf(reference.id());
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return StandardCharsets.UTF_8.decode(buffer).toString();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read blob " + reference.id(), e);
+        }
+    }
+
+    /**
+     * Deletes the blobs that are not referenced and were last stored before the given instant, as well as temp files
+     * left behind by interrupted writes.
+     *
+     * @param referenced the IDs of all blobs still referenced
+     * @param olderThan  blobs stored at or after this instant are kept, their reference may not be committed yet
+     * @return the number of deleted files
+     */
+    public int deleteUnreferenced(Set<String> referenced, Instant olderThan) {
+        if (!Files.isDirectory(directory)) {
+            return 0;
+        }
+        int deleted = 0;
+        try (Stream<Path> files = Files.walk(directory, 2)) {
+            for (Path file : (Iterable<Path>) files.filter(Files::isRegularFile)::iterator) {
+                String name = file.getFileName().toString();
+                boolean collectable = isBlobId(name) ? !referenced.contains(name) : name.endsWith(".tmp");
+                if (!collectable || !isOlderThan(file, olderThan)) {
+                    continue;
+                }
+                if (Files.deleteIfExists(file)) {
+                    deleted++;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not collect blobs in " + directory, e);
+        }
+        return deleted;
+    }
+
+    private static boolean isOlderThan(Path file, Instant instant) throws IOException {
+        try {
+            return Files.getLastModifiedTime(file).toInstant().isBefore(instant);
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+    }
+
+    private Path fileOf(String id) {
+        if (!isBlobId(id)) {
+            throw new IllegalArgumentException("Invalid blob id: " + id);
+        }
+        // Shard by the first byte of the hash to keep directories small
+        return directory.resolve(id.substring(0, 2)).resolve(id);
+    }
+
+    private static boolean isBlobId(String id) {
+        if (id == null || id.length() != 64) {
+            return false;
+        }
+        for (int i = 0; i < id.length(); i++) {
+            if (!HexFormat.isHexDigit(id.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.workflow.blob;
+
+import com.example.workflow.config.WorkflowProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Moves string variables above {@code workflow.large-variables.threshold} into the {@link BlobStore} and resolves
+ * the resulting {@link BlobReference}s back to their content on demand.
+ * <p>
+ * Resolution works regardless of {@code workflow.large-variables.enabled}, so references written earlier stay
+ * readable after the feature is switched off.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class LargeVariables {
+    private final BlobStore blobStore;
+    private final WorkflowProperties workflowProperties;
+
+    /**
+     * Replaces every string value above the threshold by a reference to its stored content.
+     *
+     * @param variables the variables to store, may be null
+     * @return the given map if nothing was externalized, otherwise a copy holding references
+     */
+    public Map<String, Object> externalize(Map<String, Object> variables) {
+        if (variables == null || !workflowProperties.getLargeVariables().isEnabled()) {
+            return variables;
+        }
+        Map<String, Object> result = null;
+        for (Map.Entry<String, Object> variable : variables.entrySet()) {
+            Object value = externalize(variable.getValue());
+            if (value != variable.getValue()) {
+                if (result == null) {
+                    result = new LinkedHashMap<>(variables);
+                }
+                result.put(variable.getKey(), value);
+            }
+        }
+        return result != null ? result : variables;
+    }
+
+    /**
+     * Replaces the value by a reference to its stored content if it is a string above the threshold.
+     *
+     * @param value the variable value
+     * @return the reference, or the value itself
+     */
+    public Object externalize(Object value) {
+        WorkflowProperties.LargeVariables config = workflowProperties.getLargeVariables();
+        // A char takes at most three UTF-8 bytes, so only strings close to the threshold need encoding
+        if (!config.isEnabled() || !(value instanceof String text) || text.length() * 3L < config.getThreshold().toBytes()) {
+            return value;
+        }
+        if (text.getBytes(StandardCharsets.UTF_8).length < config.getThreshold().toBytes()) {
+            return value;
+        }
+        BlobReference reference = blobStore.put(text);
+        log.debug("Externalized variable value of [{}] bytes as blob [{}]", reference.length(), reference.id());
+        return reference;
+    }
+
+    /**
+     * Reads the content behind a reference; any other value is returned as is.
+     *
+     * @param value the variable value
+     * @return the resolved value
+     */
+    public Object resolve(Object value) {
+        return value instanceof BlobReference reference ? blobStore.read(reference) : value;
+    }
+
+    /**
+     * Resolves every reference in the given variables.
+     *
+     * @param variables the variables as read from the engine
+     * @return a copy with all references replaced by their content
+     */
+    public Map<String, Object> resolveAll(Map<String, Object> variables) {
+        Map<String, Object> result = new LinkedHashMap<>(variables);
+        result.replaceAll((name, value) -> resolve(value));
+        return result;
+    }
+}
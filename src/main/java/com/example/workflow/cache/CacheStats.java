@@ -0,0 +1,12 @@
+package com.example.workflow.cache;
+
+/**
+ * Counters of a {@link ModelResultCache}.
+ *
+ * @param hits      lookups answered from the cache
+ * @param misses    lookups that had to call the model
+ * @param evictions entries dropped for size or age
+ * @param size      entries currently held in memory
+ */
+public record CacheStats(long hits, long misses, long evictions, long size) {
+}
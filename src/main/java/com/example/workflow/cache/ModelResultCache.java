@@ -0,0 +1,52 @@
+package com.example.workflow.cache;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Cache of model responses keyed by a content hash of the model input.
+ */
+public interface ModelResultCache {
+
+    /**
+     * Looks up a cached response.
+     *
+     * @param key the content key, see {@link ModelResultKeys#of(String, String)}
+     * @return the cached response, or empty on a miss
+     */
+    Optional<String> get(String key);
+
+    /**
+     * Returns the cached response, or computes, stores and returns it on a miss. Implementations may let concurrent
+     * callers missing on the same key wait for a single computation instead of each running their own.
+     *
+     * @param key    the content key
+     * @param loader computes the response on a miss
+     * @return the cached or computed response
+     */
+    default String get(String key, Supplier<String> loader) {
+        return get(key).orElseGet(() -> {
+            String result = loader.get();
+            put(key, result);
+            return result;
+        });
+    }
+
+    /**
+     * Stores a response.
+     *
+     * @param key    the content key
+     * @param result the model response
+     */
+    void put(String key, String result);
+
+    /**
+     * Removes all cached responses.
+     */
+    void clear();
+
+    /**
+     * Returns the hit, miss and eviction counters accumulated since startup.
+     */
+    CacheStats stats();
+}
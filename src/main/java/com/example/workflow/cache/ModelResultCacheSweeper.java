@@ -0,0 +1,24 @@
+package com.example.workflow.cache;
+
+import com.example.workflow.cluster.ClusterLock;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically drops expired on-disk cache entries, which are otherwise only removed when looked up. Nodes sharing the
+ * cache directory take turns through the {@link ClusterLock}.
+ */
+@Component
+@RequiredArgsConstructor
+public class ModelResultCacheSweeper {
+    private final ModelResultCache modelResultCache;
+    private final ClusterLock clusterLock;
+
+    @Scheduled(fixedDelayString = "${workflow.model-call.cache.sweep-interval:PT1H}")
+    public void sweep() {
+        if (modelResultCache instanceof TieredModelResultCache tiered) {
+            clusterLock.runExclusively("model-cache-sweep", tiered::sweepDisk);
+        }
+    }
+}
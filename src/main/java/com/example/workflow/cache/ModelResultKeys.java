@@ -0,0 +1,32 @@
+package com.example.workflow.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+public final class ModelResultKeys {
+
+    private ModelResultKeys() {
+    }
+
+    /**
+     * Builds the content key of a model call: the hex SHA-256 of the model version and the input,
+     * so a new model or prompt version never serves responses of the previous one.
+     *
+     * @param modelVersion the model/prompt version, may be empty
+     * @param input        the model input
+     * @return the content key
+     */
+    public static String of(String modelVersion, String input) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(modelVersion.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(String.valueOf(input).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.workflow.cache;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Used when caching is disabled: every lookup is a miss.
+ */
+public class NoOpModelResultCache implements ModelResultCache {
+    private final LongAdder misses = new LongAdder();
+
+    @Override
+    public Optional<String> get(String key) {
+        misses.increment();
+        return Optional.empty();
+    }
+
+    @Override
+    public void put(String key, String result) {
+    }
+
+    @Override
+    public void clear() {
+    }
+
+    @Override
+    public CacheStats stats() {
+        return new CacheStats(0, misses.sum(), 0, 0);
+    }
+}
@@ -0,0 +1,318 @@
+package com.example.workflow.cache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * LRU in-memory cache with a TTL, optionally backed by a directory of one file per key that survives restarts.
+ * <p>
+ * A disk hit is promoted into memory. Disk entries expire by file age; {@link #sweepDisk()} removes expired files.
+ * Once the files add up to more than the disk limit, the oldest are deleted until they fit again.
+ * <p>
+ * Concurrent {@link #get(String, Supplier)} calls missing on the same key share a single model call: the first one
+ * computes the response while the others wait for it.
+ */
+@Slf4j
+public class TieredModelResultCache implements ModelResultCache {
+    private final int maxEntries;
+    private final Duration ttl;
+    private final Path diskDirectory;
+    private final long maxDiskBytes;
+    private final Clock clock;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LinkedHashMap<String, Entry> memory;
+    private final ConcurrentHashMap<String, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong diskBytes = new AtomicLong();
+    private final Object diskTrim = new Object();
+
+    private record Entry(String result, long expiresAt) {
+    }
+
+    /**
+     * @param maxEntries    maximum number of entries held in memory
+     * @param ttl           how long an entry stays valid
+     * @param diskDirectory directory of the on-disk tier, or null to keep entries in memory only
+     * @param maxDiskBytes  maximum total size of the on-disk entries
+     * @param clock         time source for expiry
+     */
+    public TieredModelResultCache(int maxEntries, Duration ttl, Path diskDirectory, long maxDiskBytes, Clock clock) {
+        this.maxEntries = maxEntries;
+        this.ttl = ttl;
+        this.diskDirectory = diskDirectory;
+        this.maxDiskBytes = maxDiskBytes;
+        this.clock = clock;
+        this.memory = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                boolean evict = size() > TieredModelResultCache.this.maxEntries;
+                if (evict) {
+                    evictions.increment();
+                }
+                return evict;
+            }
+        };
+        if (diskDirectory != null) {
+            // Entries left by an earlier run count against the limit too
+            trimDisk();
+        }
+    }
+
+    @Override
+    public Optional<String> get(String key) {
+        long now = clock.millis();
+        synchronized (memory) {
+            Entry entry = memory.get(key);
+            if (entry != null) {
+                if (entry.expiresAt() > now) {
+                    hits.increment();
+                    return Optional.of(entry.result());
+                }
+                memory.remove(key);
+                evictions.increment();
+            }
+        }
+        Optional<Entry> fromDisk = readDisk(key, now);
+        if (fromDisk.isPresent()) {
+            hits.increment();
+            synchronized (memory) {
+                memory.put(key, fromDisk.get());
+            }
+            return fromDisk.map(Entry::result);
+        }
+        misses.increment();
+        return Optional.empty();
+    }
+
+    @Override
+    public String get(String key, Supplier<String> loader) {
+        Optional<String> cached = get(key);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        CompletableFuture<String> call = new CompletableFuture<>();
+        CompletableFuture<String> running = inFlight.putIfAbsent(key, call);
+        if (running != null) {
+            return await(running);
+        }
+        try {
+            // A call for the same key may have finished between the lookup and the registration
+            String result = fromMemory(key).orElseGet(() -> {
+                String computed = loader.get();
+                put(key, computed);
+                return computed;
+            });
+            call.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    @Override
+    public void put(String key, String result) {
+        Entry entry = new Entry(result, clock.millis() + ttl.toMillis());
+        synchronized (memory) {
+            memory.put(key, entry);
+        }
+        writeDisk(key, result);
+    }
+
+    @Override
+    public void clear() {
+        synchronized (memory) {
+            memory.clear();
+        }
+        if (diskDirectory != null) {
+            synchronized (diskTrim) {
+                forEachDiskFile(TieredModelResultCache::deleteQuietly);
+                diskBytes.set(0);
+            }
+        }
+    }
+
+    @Override
+    public CacheStats stats() {
+        int size;
+        synchronized (memory) {
+            size = memory.size();
+        }
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), size);
+    }
+
+    /**
+     * Deletes on-disk entries older than the TTL, then the oldest remaining ones while they exceed the disk limit.
+     */
+    public void sweepDisk() {
+        if (diskDirectory == null) {
+            return;
+        }
+        trimDisk();
+    }
+
+    /**
+     * Total size of the on-disk entries as last counted, kept up to date by this node's writes.
+     */
+    public long diskBytes() {
+        return diskBytes.get();
+    }
+
+    private Optional<String> fromMemory(String key) {
+        synchronized (memory) {
+            Entry entry = memory.get(key);
+            return entry != null && entry.expiresAt() > clock.millis() ? Optional.of(entry.result()) : Optional.empty();
+        }
+    }
+
+    private static String await(CompletableFuture<String> call) {
+        try {
+            return call.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Recounts the on-disk entries from the directory, which other nodes may share, deleting expired ones and then the
+     * oldest ones until the rest fit within the limit.
+     */
+    private void trimDisk() {
+        synchronized (diskTrim) {
+            long cutoff = clock.millis() - ttl.toMillis();
+            List<DiskFile> files = new ArrayList<>();
+            forEachDiskFile(file -> {
+                try {
+                    long modified = Files.getLastModifiedTime(file).toMillis();
+                    if (modified <= cutoff) {
+                        if (deleteQuietly(file)) {
+                            evictions.increment();
+                        }
+                    } else {
+                        files.add(new DiskFile(file, modified, Files.size(file)));
+                    }
+                } catch (IOException e) {
+                    log.debug("Could not inspect cache file [{}]", file, e);
+                }
+            });
+            long total = files.stream().mapToLong(DiskFile::size).sum();
+            files.sort(Comparator.comparingLong(DiskFile::modified));
+            for (int i = 0; i < files.size() && total > maxDiskBytes; i++) {
+                DiskFile oldest = files.get(i);
+                if (deleteQuietly(oldest.path())) {
+                    evictions.increment();
+                }
+                total -= oldest.size();
+            }
+            diskBytes.set(total);
+        }
+    }
+
+    private record DiskFile(Path path, long modified, long size) {
+    }
+
+    private Optional<Entry> readDisk(String key, long now) {
+        if (diskDirectory == null) {
+            return Optional.empty();
+        }
+        Path file = fileOf(key);
+        try {
+            long expiresAt = Files.getLastModifiedTime(file).toMillis() + ttl.toMillis();
+            if (expiresAt <= now) {
+                long size = Files.size(file);
+                if (deleteQuietly(file)) {
+                    evictions.increment();
+                    diskBytes.addAndGet(-size);
+                }
+                return Optional.empty();
+            }
+            return Optional.of(new Entry(Files.readString(file, StandardCharsets.UTF_8), expiresAt));
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        } catch (IOException e) {
+            log.warn("Could not read cache file [{}]", file, e);
+            return Optional.empty();
+        }
+    }
+
+    private void writeDisk(String key, String result) {
+        if (diskDirectory == null) {
+            return;
+        }
+        Path file = fileOf(key);
+        try {
+            Files.createDirectories(file.getParent());
+            // Write to a temp file and move it into place so readers never see a partial entry
+            Path temp = Files.createTempFile(file.getParent(), key, ".tmp");
+            Files.writeString(temp, result, StandardCharsets.UTF_8);
+            // Age entries by the cache clock, which expiry and trimming compare against
+            Files.setLastModifiedTime(temp, FileTime.fromMillis(clock.millis()));
+            long replaced = Files.exists(file) ? Files.size(file) : 0;
+            long written = Files.size(temp);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            if (diskBytes.addAndGet(written - replaced) > maxDiskBytes) {
+                trimDisk();
+            }
+        } catch (IOException e) {
+            log.warn("Could not write cache file [{}]", file, e);
+        }
+    }
+
+    private Path fileOf(String key) {
+        // Shard by the first byte of the hash to keep directories small
+        return diskDirectory.resolve(key.substring(0, 2)).resolve(key);
+    }
+
+    private void forEachDiskFile(Consumer<Path> action) {
+        if (!Files.isDirectory(diskDirectory)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(diskDirectory, 2)) {
+            files.filter(Files::isRegularFile).forEach(action);
+        } catch (IOException | UncheckedIOException e) {
+            log.warn("Could not scan cache directory [{}]", diskDirectory, e);
+        }
+    }
+
+    private static boolean deleteQuietly(Path file) {
+        try {
+            return Files.deleteIfExists(file);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+}
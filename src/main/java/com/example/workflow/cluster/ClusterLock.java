@@ -0,0 +1,61 @@
+package com.example.workflow.cluster;
+
+import com.example.workflow.config.WorkflowProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.flowable.common.engine.api.FlowableOptimisticLockingException;
+import org.flowable.common.engine.api.lock.LockManager;
+import org.flowable.engine.ManagementService;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps scheduled maintenance that works on the shared database from running on several nodes at once.
+ * <p>
+ * In scale-out mode each task takes a named Flowable lock (a row in {@code ACT_GE_PROPERTY}) for the duration of
+ * its run; a node that finds the lock taken skips that run. A lock left behind by a node that died is taken over
+ * once it is older than {@code workflow.scale-out.scheduled-task-lock-timeout}. Without scale-out, tasks run directly.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ClusterLock {
+    private static final String LOCK_PREFIX = "workflow-scheduled-";
+
+    private final ManagementService managementService;
+    private final WorkflowProperties workflowProperties;
+
+    /**
+     * Runs the task unless another node is running it.
+     *
+     * @param name the task name, the same on every node
+     * @param task the work to run
+     * @return whether the task ran on this node
+     */
+    public boolean runExclusively(String name, Runnable task) {
+        WorkflowProperties.ScaleOut config = workflowProperties.getScaleOut();
+        if (!config.isEnabled()) {
+            task.run();
+            return true;
+        }
+        LockManager lock = managementService.getLockManager(LOCK_PREFIX + name);
+        if (!acquire(lock, config)) {
+            log.debug("Skipping [{}], another node holds its lock", name);
+            return false;
+        }
+        try {
+            task.run();
+            return true;
+        } finally {
+            lock.releaseLock();
+        }
+    }
+
+    private static boolean acquire(LockManager lock, WorkflowProperties.ScaleOut config) {
+        try {
+            return lock.acquireLock(config.getScheduledTaskLockTimeout());
+        } catch (FlowableOptimisticLockingException e) {
+            // Another node took the lock at the same moment
+            return false;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.workflow.cluster;
+
+import com.example.workflow.config.WorkflowProperties;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.UUID;
+
+/**
+ * Identity of this application node among the nodes sharing the database, used as job lock owner and metrics tag.
+ * <p>
+ * Taken from {@code workflow.scale-out.node-id}, otherwise generated from the host name plus a random suffix so that
+ * several nodes on one host, or several application contexts in one JVM, never share an identity.
+ */
+@Slf4j
+@Getter
+@Component
+public class NodeIdentity {
+    private final String nodeId;
+
+    public NodeIdentity(WorkflowProperties workflowProperties) {
+        String configured = workflowProperties.getScaleOut().getNodeId();
+        this.nodeId = configured != null && !configured.isBlank() ? configured : hostName() + "-" + UUID.randomUUID().toString().substring(0, 8);
+        log.info("Running as node [{}]", nodeId);
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "node";
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.workflow.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class BatchExecutorConfig {
+
+    /**
+     * Runs the chunks of batch operations. The pool is fixed-size so a large batch never
+     * holds more than {@code workflow.batch.parallelism} database connections at once.
+     * Waiting chunks are bounded by {@code workflow.batch.queue-capacity}; once the queue is full the
+     * request thread runs its next chunk itself, which slows down the callers submitting the most work
+     * instead of letting queued chunks pile up in memory.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService batchExecutor(WorkflowProperties workflowProperties) {
+        WorkflowProperties.Batch batch = workflowProperties.getBatch();
+        return new ThreadPoolExecutor(batch.getParallelism(), batch.getParallelism(), 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(batch.getQueueCapacity()),
+                Thread.ofPlatform().name("batch-", 0).factory(),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.workflow.config;
+
+import com.example.workflow.idempotency.IdempotencyCache;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+
+@Configuration
+public class IdempotencyConfig {
+
+    @Bean
+    public IdempotencyCache idempotencyCache(WorkflowProperties workflowProperties) {
+        WorkflowProperties.Idempotency idempotency = workflowProperties.getIdempotency();
+        return new IdempotencyCache(idempotency.getCacheSize(), idempotency.getCacheTtl(), Clock.systemUTC());
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.workflow.config;
+
+import com.example.workflow.blob.BlobReferenceType;
+import com.example.workflow.blob.BlobStore;
+import com.example.workflow.blob.LargeVariables;
+import org.flowable.spring.SpringProcessEngineConfiguration;
+import org.flowable.spring.boot.EngineConfigurationConfigurer;
+import org.flowable.variable.api.types.VariableType;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+public class LargeVariablesConfig {
+
+    @Bean
+    public BlobStore blobStore(WorkflowProperties workflowProperties) {
+        return new BlobStore(Path.of(workflowProperties.getLargeVariables().getDirectory()));
+    }
+
+    @Bean
+    public LargeVariables largeVariables(BlobStore blobStore, WorkflowProperties workflowProperties) {
+        return new LargeVariables(blobStore, workflowProperties);
+    }
+
+    /**
+     * Registers the blob reference variable type even while externalizing is disabled, so stored references stay readable.
+     */
+    @Bean
+    public EngineConfigurationConfigurer<SpringProcessEngineConfiguration> blobReferenceTypeConfigurer() {
+        return configuration -> {
+            List<VariableType> types = configuration.getCustomPreVariableTypes() != null
+                    ? new ArrayList<>(configuration.getCustomPreVariableTypes()) : new ArrayList<>();
+            types.add(new BlobReferenceType());
+            configuration.setCustomPreVariableTypes(types);
+        };
+    }
+}
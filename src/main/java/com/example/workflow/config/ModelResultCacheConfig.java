@@ -0,0 +1,27 @@
+package com.example.workflow.config;
+
+import com.example.workflow.cache.ModelResultCache;
+import com.example.workflow.cache.NoOpModelResultCache;
+import com.example.workflow.cache.TieredModelResultCache;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+import java.time.Clock;
+
+@Configuration
+public class ModelResultCacheConfig {
+
+    /**
+     * Tiered memory/disk cache when {@code workflow.model-call.cache.enabled}, otherwise a no-op.
+     */
+    @Bean
+    public ModelResultCache modelResultCache(WorkflowProperties workflowProperties) {
+        WorkflowProperties.ModelCall.Cache cache = workflowProperties.getModelCall().getCache();
+        if (!cache.isEnabled()) {
+            return new NoOpModelResultCache();
+        }
+        Path diskDirectory = cache.getDiskDirectory() != null ? Path.of(cache.getDiskDirectory()) : null;
+        return new TieredModelResultCache(cache.getMaxEntries(), cache.getTtl(), diskDirectory, cache.getMaxDiskSize().toBytes(), Clock.systemUTC());
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.workflow.config;
+
+import com.example.workflow.definition.HistoryLevelParseHandler;
+import com.example.workflow.definition.TransientVariablesParseHandler;
+import org.flowable.engine.parse.BpmnParseHandler;
+import org.flowable.spring.SpringProcessEngineConfiguration;
+import org.flowable.spring.boot.EngineConfigurationConfigurer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+public class ProcessDefinitionConfig {
+
+    /**
+     * Lets each process definition override the engine-wide history level, from its BPMN file or from properties, and
+     * rejects definitions declaring the variables of a model call task transient.
+     */
+    @Bean
+    public EngineConfigurationConfigurer<SpringProcessEngineConfiguration> processDefinitionHistoryLevelConfigurer(WorkflowProperties workflowProperties) {
+        return configuration -> {
+            configuration.setEnableProcessDefinitionHistoryLevel(true);
+            List<BpmnParseHandler> handlers = configuration.getPostBpmnParseHandlers() != null
+                    ? new ArrayList<>(configuration.getPostBpmnParseHandlers()) : new ArrayList<>();
+            handlers.add(new HistoryLevelParseHandler(workflowProperties));
+            handlers.add(new TransientVariablesParseHandler(workflowProperties));
+            configuration.setPostBpmnParseHandlers(handlers);
+        };
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.workflow.config;
+
+import com.example.workflow.cluster.NodeIdentity;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.flowable.common.engine.impl.async.DefaultAsyncTaskExecutor;
+import org.flowable.job.service.impl.asyncexecutor.AbstractAsyncExecutor;
+import org.flowable.job.service.impl.asyncexecutor.AsyncJobExecutorConfiguration;
+import org.flowable.spring.SpringProcessEngineConfiguration;
+import org.flowable.spring.boot.EngineConfigurationConfigurer;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.actuate.autoconfigure.metrics.MeterRegistryCustomizer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Tunes the async job executor for several nodes sharing one database.
+ * <p>
+ * By default the executor runs jobs on the unbounded application task executor, so acquisition always sees free room
+ * and one node can lock hundreds of jobs for an hour while the others idle. In scale-out mode each node gets its own
+ * bounded job pool and only acquires what fits in it, in small batches, taking turns with the other nodes through
+ * the global acquire lock. Jobs locked by a node that died are reset once their short lock expires, and a node that
+ * shuts down releases its locks right away. Every metric is tagged with the node ID.
+ * <p>
+ * Scheduled maintenance on the shared database (history retention, idempotency key and model cache sweeps) runs on
+ * one node at a time through the {@link com.example.workflow.cluster.ClusterLock}.
+ * <p>
+ * The task inbox is off, because it would only see the task changes made on its own node, so task lookups query the
+ * database and task event streams are unavailable. Admission control keeps its state per node, so the concurrency limit
+ * applies to each node separately.
+ * <p>
+ * The large variable blob store, and the model cache disk tier when configured, must live in a directory all nodes
+ * share: a blob written by one node is read by the model call worker of another, and the blob collector and cache
+ * sweeper only run on one of them. Startup fails unless each is an absolute path to an existing, writable directory.
+ */
+@Slf4j
+@Configuration
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "workflow.scale-out", name = "enabled", havingValue = "true")
+public class ScaleOutConfig implements DisposableBean {
+    private final WorkflowProperties workflowProperties;
+
+    private DefaultAsyncTaskExecutor jobTaskExecutor;
+
+    @PostConstruct
+    void requireSharedDirectories() {
+        if (workflowProperties.getLargeVariables().isEnabled()) {
+            requireSharedDirectory("workflow.large-variables.directory", workflowProperties.getLargeVariables().getDirectory());
+        }
+        WorkflowProperties.ModelCall.Cache cache = workflowProperties.getModelCall().getCache();
+        if (cache.isEnabled() && cache.getDiskDirectory() != null) {
+            requireSharedDirectory("workflow.model-call.cache.disk-directory", cache.getDiskDirectory());
+        }
+    }
+
+    @Bean
+    public EngineConfigurationConfigurer<SpringProcessEngineConfiguration> scaleOutAsyncExecutorConfigurer(NodeIdentity nodeIdentity) {
+        return configuration -> {
+            if (!(configuration.getAsyncExecutor() instanceof AbstractAsyncExecutor asyncExecutor)) {
+                log.warn("Scale-out mode needs the default async executor, found [{}]", configuration.getAsyncExecutor());
+                return;
+            }
+            WorkflowProperties.ScaleOut config = workflowProperties.getScaleOut();
+            asyncExecutor.setLockOwner(nodeIdentity.getNodeId());
+            asyncExecutor.setTaskExecutor(jobTaskExecutor(config, nodeIdentity));
+
+            AsyncJobExecutorConfiguration jobs = asyncExecutor.getConfiguration();
+            jobs.setLockOwner(nodeIdentity.getNodeId());
+            jobs.setMaxAsyncJobsDuePerAcquisition(config.getAcquireSize());
+            jobs.setDefaultAsyncJobAcquireWaitTime(config.getAcquireInterval());
+            // Flowable waits five seconds once the pool is full, which leaves a small pool idle most of the time
+            jobs.setDefaultQueueSizeFullWaitTime(config.getQueueFullWait());
+            jobs.setAsyncJobLockTime(config.getLockTime());
+            jobs.setTimerLockTime(config.getLockTime());
+            jobs.setResetExpiredJobEnabled(true);
+            jobs.setResetExpiredJobsInterval(config.getResetExpiredInterval());
+            jobs.setResetExpiredJobsPageSize(config.getResetExpiredPageSize());
+            jobs.setGlobalAcquireLockEnabled(config.isGlobalAcquireLock());
+            jobs.setAsyncJobsGlobalLockPollRate(config.getGlobalAcquireLockPollRate());
+            jobs.setUnlockOwnedJobs(true);
+            log.info("Async executor of node [{}] runs [{}] threads, acquires up to [{}] jobs at a time and locks them for [{}]",
+                    nodeIdentity.getNodeId(), config.getThreads(), config.getAcquireSize(), config.getLockTime());
+            if (workflowProperties.getTaskInbox().isEnabled()) {
+                log.info("Task inbox is off on node [{}]: task lookups query the database and task event streams are unavailable",
+                        nodeIdentity.getNodeId());
+            }
+        };
+    }
+
+    /**
+     * Tags every metric of this node with its ID.
+     */
+    @Bean
+    public MeterRegistryCustomizer<MeterRegistry> nodeMetricsTag(NodeIdentity nodeIdentity) {
+        return registry -> registry.config().commonTags("node", nodeIdentity.getNodeId());
+    }
+
+    @Bean
+    public MeterBinder jobTaskExecutorGauges() {
+        return registry -> {
+            Gauge.builder("workflow.jobs.queued", this, config -> config.jobTaskExecutor != null && config.jobTaskExecutor.getThreadPoolQueue() != null
+                            ? config.jobTaskExecutor.getThreadPoolQueue().size() : 0)
+                    .description("Jobs acquired by this node and waiting for a thread")
+                    .register(registry);
+            Gauge.builder("workflow.jobs.free-capacity", this, config -> config.jobTaskExecutor != null ? config.jobTaskExecutor.getRemainingCapacity() : 0)
+                    .description("Jobs this node can still acquire")
+                    .register(registry);
+        };
+    }
+
+    private synchronized DefaultAsyncTaskExecutor jobTaskExecutor(WorkflowProperties.ScaleOut config, NodeIdentity nodeIdentity) {
+        if (jobTaskExecutor == null) {
+            DefaultAsyncTaskExecutor executor = new DefaultAsyncTaskExecutor();
+            executor.setCorePoolSize(config.getThreads());
+            executor.setMaxPoolSize(config.getThreads());
+            executor.setQueueSize(config.getQueueCapacity());
+            executor.setThreadPoolNamingPattern("flowable-job-" + nodeIdentity.getNodeId() + "-%d");
+            executor.start();
+            jobTaskExecutor = executor;
+        }
+        return jobTaskExecutor;
+    }
+
+    /**
+     * Fails unless the directory is given as an absolute path to an existing, writable directory. A relative path
+     * resolves against each node's working directory, and a directory that does not exist yet would be created locally.
+     */
+    static void requireSharedDirectory(String property, String directory) {
+        if (directory == null || directory.isBlank()) {
+            throw new IllegalStateException(property + " must be set to a directory shared by all nodes in scale-out mode");
+        }
+        Path path = Path.of(directory);
+        if (!path.isAbsolute()) {
+            throw new IllegalStateException(property + " must be an absolute path to a directory shared by all nodes in scale-out mode, found [" + directory + "]");
+        }
+        if (!Files.isDirectory(path) || !Files.isWritable(path)) {
+            throw new IllegalStateException(property + " [" + directory + "] must be an existing, writable directory shared by all nodes in scale-out mode");
+        }
+        log.info("Using shared directory [{}] for [{}]", path, property);
+    }
+
+    @Override
+    public void destroy() {
+        if (jobTaskExecutor != null) {
+            jobTaskExecutor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,649 @@
+package com.example.workflow.config;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.Getter;
+import lombok.Setter;
+import org.flowable.common.engine.impl.history.HistoryLevel;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Tunables for the workflow service layer, bound from the {@code workflow.*} properties.
+ */
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "workflow")
+public class WorkflowProperties {
+
+    @Valid
+    private final Pagination pagination = new Pagination();
+    @Valid
+    private final Export export = new Export();
+    @Valid
+    private final Batch batch = new Batch();
+    @Valid
+    private final ModelCall modelCall = new ModelCall();
+    @Valid
+    private final TaskInbox taskInbox = new TaskInbox();
+    @Valid
+    private final TaskEvents taskEvents = new TaskEvents();
+    @Valid
+    private final HistoryRetention historyRetention = new HistoryRetention();
+    @Valid
+    private final LargeVariables largeVariables = new LargeVariables();
+    @Valid
+    private final BulkOperations bulkOperations = new BulkOperations();
+    @Valid
+    private final Idempotency idempotency = new Idempotency();
+    @Valid
+    private final Admission admission = new Admission();
+    @Valid
+    private final ActivityAnalytics activityAnalytics = new ActivityAnalytics();
+    @Valid
+    private final Logging logging = new Logging();
+    @Valid
+    private final ScaleOut scaleOut = new ScaleOut();
+    @Valid
+    private final Metrics metrics = new Metrics();
+
+    /**
+     * Settings per process definition key.
+     */
+    private final Map<String, Definition> processDefinitions = new LinkedHashMap<>();
+
+    @Getter
+    @Setter
+    public static class Pagination {
+        /**
+         * Page size used when a client does not ask for one.
+         */
+        @Positive
+        private int defaultPageSize = 50;
+
+        /**
+         * Upper bound on any requested page size.
+         */
+        @Positive
+        private int maxPageSize = 500;
+
+        /**
+         * Whether the {@code (time, ID_)} indexes of the keyset-paginated listings are created at startup if missing.
+         */
+        private boolean createKeysetIndexes = true;
+
+        /**
+         * Clamps the requested page size into {@code [1, maxPageSize]}, falling back to the default.
+         */
+        public int resolve(Integer requested) {
+            if (requested == null || requested <= 0) {
+                return defaultPageSize;
+            }
+            return Math.min(requested, maxPageSize);
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class Export {
+        /**
+         * Number of history rows read from the database per batch.
+         */
+        @Positive
+        private int batchSize = 1000;
+    }
+
+    @Getter
+    @Setter
+    public static class Batch {
+        /**
+         * Number of batch items committed together in one transaction.
+         */
+        @Positive
+        private int chunkSize = 100;
+
+        /**
+         * Largest number of items accepted in a single batch request.
+         */
+        @Positive
+        private int maxItems = 10000;
+
+        /**
+         * Number of chunks processed concurrently.
+         */
+        @Positive
+        private int parallelism = 4;
+
+        /**
+         * Chunks waiting for a batch thread, across all requests; beyond it the request thread runs its chunks itself.
+         */
+        @Positive
+        private int queueCapacity = 100;
+    }
+
+    @Getter
+    @Setter
+    public static class ModelCall {
+        /**
+         * Whether this node runs the external worker for the model call step.
+         */
+        private boolean workerEnabled = true;
+
+        /**
+         * Maximum number of model calls in flight on this node.
+         */
+        @Positive
+        private int maxConcurrency = 200;
+
+        /**
+         * Maximum number of jobs locked per acquisition round trip.
+         */
+        @Positive
+        private int acquireSize = 20;
+
+        /**
+         * Pause between acquisitions when no job was available.
+         */
+        private Duration pollInterval = Duration.ofMillis(500);
+
+        /**
+         * Time after which a single model call is abandoned and counted as failed.
+         */
+        private Duration timeout = Duration.ofSeconds(30);
+
+        /**
+         * How long an acquired job stays locked to this node; must exceed the timeout.
+         */
+        private Duration lockDuration = Duration.ofMinutes(2);
+
+        /**
+         * Number of retries a model call job starts with, matching the engine's job retries.
+         */
+        @PositiveOrZero
+        private int retries = 3;
+
+        /**
+         * Delay before the first retry; doubled on every further attempt.
+         */
+        private Duration initialBackoff = Duration.ofSeconds(5);
+
+        /**
+         * Upper bound on the retry delay.
+         */
+        private Duration maxBackoff = Duration.ofMinutes(5);
+
+        @Valid
+        private final Cache cache = new Cache();
+
+        @Getter
+        @Setter
+        public static class Cache {
+            /**
+             * Whether model responses are cached by input hash.
+             */
+            private boolean enabled = true;
+
+            /**
+             * Model and prompt version mixed into the cache key; change it to stop serving older responses.
+             */
+            private String modelVersion = "";
+
+            /**
+             * Maximum number of responses held in memory.
+             */
+            @Positive
+            private int maxEntries = 10000;
+
+            /**
+             * How long a cached response stays valid.
+             */
+            private Duration ttl = Duration.ofHours(24);
+
+            /**
+             * Directory of the on-disk tier that survives restarts; unset keeps the cache in memory only. In scale-out mode
+             * it must be an absolute path to an existing directory shared by all nodes.
+             */
+            private String diskDirectory;
+
+            /**
+             * Upper bound on the size of the on-disk tier; the oldest entries are deleted once it is exceeded.
+             */
+            private DataSize maxDiskSize = DataSize.ofGigabytes(1);
+
+            /**
+             * Interval at which expired on-disk entries are removed.
+             */
+            private Duration sweepInterval = Duration.ofHours(1);
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class TaskInbox {
+        /**
+         * Whether assignee and candidate group task lookups are served from the in-memory inbox; ignored in scale-out mode,
+         * where the inbox is always off.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Interval at which the inbox is rebuilt from the database to repair any drift.
+         */
+        private Duration reconcileInterval = Duration.ofMinutes(5);
+
+        /**
+         * Number of tasks read per query while rebuilding.
+         */
+        @Positive
+        private int rebuildBatchSize = 500;
+    }
+
+    @Getter
+    @Setter
+    public static class TaskEvents {
+        /**
+         * Lifetime of a task event stream; browsers reconnect automatically when it ends.
+         */
+        private Duration timeout = Duration.ofMinutes(30);
+
+        /**
+         * Interval of keep-alive comments on an idle stream.
+         */
+        private Duration heartbeatInterval = Duration.ofSeconds(20);
+
+        /**
+         * Number of undelivered changes buffered per subscriber before it is disconnected.
+         */
+        @Positive
+        private int queueCapacity = 1000;
+    }
+
+    @Getter
+    @Setter
+    public static class HistoryRetention {
+        /**
+         * Whether finished history is deleted on a schedule. Runs can always be triggered from the admin endpoint.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Interval between scheduled cleanup runs.
+         */
+        private Duration interval = Duration.ofHours(1);
+
+        /**
+         * Age after which finished instances of definitions without an override are deleted; unset keeps them.
+         */
+        private Duration defaultMaxAge;
+
+        /**
+         * Per process definition key overrides of the retention age.
+         */
+        private Map<String, Duration> maxAge = new LinkedHashMap<>();
+
+        /**
+         * Largest number of instances deleted in one transaction.
+         */
+        @Positive
+        private int maxChunkSize = 500;
+
+        /**
+         * Chunk duration the chunk size is adapted to.
+         */
+        private Duration targetChunkDuration = Duration.ofMillis(500);
+
+        /**
+         * Pause between two chunks.
+         */
+        private Duration pauseBetweenChunks = Duration.ofMillis(200);
+
+        @Valid
+        private final Archive archive = new Archive();
+
+        @Getter
+        @Setter
+        public static class Archive {
+            /**
+             * Whether instances are written to archive files before they are deleted.
+             */
+            private boolean enabled = false;
+
+            /**
+             * Directory of the gzip-compressed NDJSON archive files.
+             */
+            private String directory = "./history-archive";
+
+            /**
+             * Size at which a new archive file is started.
+             */
+            private DataSize maxFileSize = DataSize.ofMegabytes(100);
+
+            /**
+             * Whether the process variables are archived too.
+             */
+            private boolean includeVariables = true;
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class LargeVariables {
+        /**
+         * Whether string variables above the threshold are moved out of the engine tables into the blob store.
+         */
+        private boolean enabled = false;
+
+        /**
+         * UTF-8 size from which a string variable is externalized.
+         */
+        private DataSize threshold = DataSize.ofKilobytes(64);
+
+        /**
+         * Root directory of the content-addressed blob files. In scale-out mode it must be an absolute path to an existing
+         * directory shared by all nodes.
+         */
+        private String directory = "./variable-blobs";
+
+        /**
+         * Interval at which blob files no variable refers to any more are deleted.
+         */
+        private Duration gcInterval = Duration.ofHours(6);
+
+        /**
+         * Minimum age of an unreferenced blob file before it is deleted; must exceed the longest transaction that
+         * stores a large variable.
+         */
+        private Duration gcGracePeriod = Duration.ofHours(1);
+    }
+
+    @Getter
+    @Setter
+    public static class BulkOperations {
+        /**
+         * Number of process instances handled per transaction.
+         */
+        @Positive
+        private int chunkSize = 100;
+
+        /**
+         * Upper bound on the rate at which a single operation processes instances; 0 leaves it unbounded.
+         */
+        @PositiveOrZero
+        private int maxItemsPerSecond = 200;
+
+        /**
+         * Number of operations kept for status queries; older finished ones are forgotten.
+         */
+        @Positive
+        private int retainedOperations = 50;
+    }
+
+    @Getter
+    @Setter
+    public static class Idempotency {
+        /**
+         * Maximum number of recently used idempotency keys answered from memory.
+         */
+        @Positive
+        private int cacheSize = 10000;
+
+        /**
+         * How long a key is answered from memory.
+         */
+        private Duration cacheTtl = Duration.ofMinutes(10);
+
+        /**
+         * How long a key is kept in the database; a retry after that starts a new instance.
+         */
+        private Duration retention = Duration.ofDays(7);
+
+        /**
+         * Interval between deletions of expired keys.
+         */
+        private Duration sweepInterval = Duration.ofHours(1);
+    }
+
+    @Getter
+    @Setter
+    public static class Admission {
+        /**
+         * Whether process starts and task completions go through admission control.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Concurrency limit at startup.
+         */
+        @Positive
+        private int initialLimit = 50;
+
+        /**
+         * Lowest value the concurrency limit shrinks to.
+         */
+        @Positive
+        private int minLimit = 5;
+
+        /**
+         * Highest value the concurrency limit grows to.
+         */
+        @Positive
+        private int maxLimit = 400;
+
+        /**
+         * Call latency above which the concurrency limit shrinks.
+         */
+        private Duration targetLatency = Duration.ofMillis(500);
+
+        /**
+         * Factor the concurrency limit is multiplied by when it shrinks.
+         */
+        @DecimalMin(value = "0", inclusive = false)
+        @DecimalMax("1")
+        private double backoffRatio = 0.9;
+
+        /**
+         * Waiting async and external worker jobs above which process starts are rejected.
+         */
+        @Positive
+        private long maxJobBacklog = 10000;
+
+        /**
+         * Interval between samples of the job backlog.
+         */
+        private Duration backlogSampleInterval = Duration.ofSeconds(2);
+
+        /**
+         * Retry-After sent when the concurrency limit or a quota is reached.
+         */
+        private Duration retryAfter = Duration.ofSeconds(1);
+
+        /**
+         * Retry-After sent when process starts are rejected because of the job backlog.
+         */
+        private Duration backlogRetryAfter = Duration.ofSeconds(10);
+
+        /**
+         * Maximum concurrent starts per process definition key.
+         */
+        private Map<String, @Positive Integer> processQuotas = new LinkedHashMap<>();
+    }
+
+    @Getter
+    @Setter
+    public static class Definition {
+        /**
+         * History level of the definition's instances, overriding the engine-wide level and the BPMN file.
+         */
+        private HistoryLevel historyLevel;
+
+        /**
+         * Names of start and completion variables kept in memory only instead of being persisted.
+         */
+        private Set<String> transientVariables = new LinkedHashSet<>();
+    }
+
+    @Getter
+    @Setter
+    public static class ActivityAnalytics {
+        /**
+         * Whether activity durations and queue waits are recorded from engine events.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Time span aggregated into one histogram bucket; the smallest window that can be queried.
+         */
+        private Duration bucketDuration = Duration.ofMinutes(1);
+
+        /**
+         * How far back statistics are kept; the largest window that can be queried.
+         */
+        private Duration retention = Duration.ofHours(1);
+
+        /**
+         * Maximum number of started activities, unassigned tasks and queued jobs awaited at once.
+         */
+        @Positive
+        private int maxPending = 100000;
+
+        /**
+         * Age after which an awaited activity, task or job whose end was never seen on this node is forgotten.
+         */
+        private Duration pendingTimeout = Duration.ofDays(7);
+    }
+
+    @Getter
+    @Setter
+    public static class Logging {
+        /**
+         * Longest variable value written to the log as is; longer values are truncated or hashed.
+         */
+        @Positive
+        private int maxValueLength = 256;
+
+        /**
+         * How variable values longer than the limit are written.
+         */
+        private OversizedValues oversizedValues = OversizedValues.HASH;
+
+        /**
+         * Maximum number of each high-frequency event, e.g. a process start, logged per second; 0 logs every event.
+         */
+        @PositiveOrZero
+        private int sampledEventsPerSecond = 100;
+
+        /**
+         * Capacity of the asynchronous appender queue of the fast-logging profile.
+         */
+        @Positive
+        private int queueSize = 8192;
+
+        /**
+         * Remaining queue capacity below which the asynchronous appender drops TRACE, DEBUG and INFO events.
+         */
+        @PositiveOrZero
+        private int discardingThreshold = 1024;
+
+        public enum OversizedValues {
+            TRUNCATE, HASH
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class ScaleOut {
+        /**
+         * Whether the async job executor is tuned for several nodes sharing one database.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Identity of this node, used as job lock owner and metrics tag; generated from the host name if not set.
+         * Must be unique among the nodes.
+         */
+        private String nodeId;
+
+        /**
+         * Threads executing async jobs on this node.
+         */
+        @Positive
+        private int threads = 16;
+
+        /**
+         * Acquired jobs waiting for a free thread; acquisition never locks more jobs than there is room for.
+         */
+        @Positive
+        private int queueCapacity = 64;
+
+        /**
+         * Maximum number of jobs locked per acquisition. With the global acquire lock a node picks up at most this many
+         * jobs per {@code global-acquire-lock-poll-rate}, which has to exceed threads divided by the typical job time.
+         */
+        @Positive
+        private int acquireSize = 32;
+
+        /**
+         * Wait between acquisitions when the previous one found no jobs.
+         */
+        private Duration acquireInterval = Duration.ofSeconds(1);
+
+        /**
+         * Wait before acquiring again when the job pool had no room; keep it below the time the queue takes to drain.
+         */
+        private Duration queueFullWait = Duration.ofMillis(50);
+
+        /**
+         * How long acquired jobs stay locked; jobs of a node that died become available again after this.
+         */
+        private Duration lockTime = Duration.ofMinutes(5);
+
+        /**
+         * Interval at which expired job locks are reset.
+         */
+        private Duration resetExpiredInterval = Duration.ofSeconds(30);
+
+        /**
+         * Expired jobs reset per run.
+         */
+        @Positive
+        private int resetExpiredPageSize = 100;
+
+        /**
+         * Whether nodes take turns acquiring through a database lock instead of racing for the same jobs.
+         */
+        private boolean globalAcquireLock = true;
+
+        /**
+         * Wait after a full batch, and between attempts to take the global acquire lock; the batch size divided by
+         * this bounds the jobs a node can pick up per second.
+         */
+        private Duration globalAcquireLockPollRate = Duration.ofMillis(50);
+
+        /**
+         * Age after which the lock of a scheduled task (history retention, sweeps) is taken over from the node
+         * holding it, assuming that node died. Must exceed the longest run of any of these tasks.
+         */
+        private Duration scheduledTaskLockTimeout = Duration.ofHours(6);
+    }
+
+    @Getter
+    @Setter
+    public static class Metrics {
+        /**
+         * Interval at which the process keys allowed as metric tags are reloaded from the deployed definitions, which
+         * picks up definitions deployed by other nodes; those deployed by this node are picked up right away.
+         */
+        private Duration processKeyRefreshInterval = Duration.ofMinutes(5);
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.workflow.controller;
+
+import com.example.workflow.admission.AdaptiveConcurrencyLimiter;
+import com.example.workflow.analytics.ActivityLatencyRecorder;
+import com.example.workflow.cache.CacheStats;
+import com.example.workflow.cache.ModelResultCache;
+import com.example.workflow.dto.ActivityLatency;
+import com.example.workflow.dto.AdmissionStats;
+import com.example.workflow.dto.BulkOperationRequest;
+import com.example.workflow.dto.BulkOperationStatus;
+import com.example.workflow.dto.RetentionStatus;
+import com.example.workflow.service.BulkOperationService;
+import com.example.workflow.service.HistoryRetentionService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/workflow/admin")
+public class AdminController {
+    private final ModelResultCache modelResultCache;
+    private final HistoryRetentionService historyRetentionService;
+    private final BulkOperationService bulkOperationService;
+    private final AdaptiveConcurrencyLimiter admissionLimiter;
+    private final ActivityLatencyRecorder activityLatencyRecorder;
+
+    /**
+     * Retrieves the hit, miss and eviction counters of the model result cache.
+     *
+     * @return the cache counters
+     */
+    @GetMapping("/model-cache")
+    public CacheStats getModelCacheStats() {
+        return modelResultCache.stats();
+    }
+
+    /**
+     * Removes all entries from the model result cache.
+     */
+    @DeleteMapping("/model-cache")
+    public void clearModelCache() {
+        modelResultCache.clear();
+    }
+
+    /**
+     * Retrieves the progress and delete rate of the history retention job.
+     *
+     * @return the retention job status
+     */
+    @GetMapping("/history-retention")
+    public RetentionStatus getHistoryRetentionStatus() {
+        return historyRetentionService.getStatus();
+    }
+
+    /**
+     * Starts a history cleanup run in the background.
+     *
+     * @return 202 if the run was started, 409 if one is already in progress
+     */
+    @PostMapping("/history-retention/run")
+    public ResponseEntity<RetentionStatus> runHistoryRetention() {
+        HttpStatus status = historyRetentionService.triggerCleanup() ? HttpStatus.ACCEPTED : HttpStatus.CONFLICT;
+        return ResponseEntity.status(status).body(historyRetentionService.getStatus());
+    }
+
+    /**
+     * Starts suspending, resuming or deleting all process instances matching a definition key and/or variable values
+     * as a throttled background operation.
+     *
+     * @param request the action and the instance filter
+     * @return the status of the started operation
+     */
+    @PostMapping("/bulk-operations")
+    public ResponseEntity<BulkOperationStatus> startBulkOperation(@RequestBody BulkOperationRequest request) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(bulkOperationService.start(request));
+    }
+
+    /**
+     * Retrieves the running and recently finished bulk operations.
+     *
+     * @return the operations, most recent first
+     */
+    @GetMapping("/bulk-operations")
+    public List<BulkOperationStatus> getBulkOperations() {
+        return bulkOperationService.getOperations();
+    }
+
+    /**
+     * Retrieves the progress of a bulk operation.
+     *
+     * @param operationId the ID of the operation
+     * @return the operation status, or 404 if unknown
+     */
+    @GetMapping("/bulk-operations/{operationId}")
+    public ResponseEntity<BulkOperationStatus> getBulkOperation(@PathVariable String operationId) {
+        return ResponseEntity.of(bulkOperationService.getStatus(operationId));
+    }
+
+    /**
+     * Pauses a bulk operation after its current chunk.
+     *
+     * @param operationId the ID of the operation
+     * @return the operation status, or 404 if unknown
+     */
+    @PostMapping("/bulk-operations/{operationId}/pause")
+    public ResponseEntity<BulkOperationStatus> pauseBulkOperation(@PathVariable String operationId) {
+        return ResponseEntity.of(bulkOperationService.pause(operationId));
+    }
+
+    /**
+     * Continues a paused bulk operation.
+     *
+     * @param operationId the ID of the operation
+     * @return the operation status, or 404 if unknown
+     */
+    @PostMapping("/bulk-operations/{operationId}/resume")
+    public ResponseEntity<BulkOperationStatus> resumeBulkOperation(@PathVariable String operationId) {
+        return ResponseEntity.of(bulkOperationService.resume(operationId));
+    }
+
+    /**
+     * Stops a bulk operation after its current chunk.
+     *
+     * @param operationId the ID of the operation
+     * @return the operation status, or 404 if unknown
+     */
+    @PostMapping("/bulk-operations/{operationId}/cancel")
+    public ResponseEntity<BulkOperationStatus> cancelBulkOperation(@PathVariable String operationId) {
+        return ResponseEntity.of(bulkOperationService.cancel(operationId));
+    }
+
+    /**
+     * Retrieves the current admission limit, load and rejection counters.
+     *
+     * @return the admission control state
+     */
+    @GetMapping("/admission")
+    public AdmissionStats getAdmissionStats() {
+        return admissionLimiter.stats();
+    }
+
+    /**
+     * Retrieves per activity duration percentiles, queue wait percentiles and throughput over a recent time window,
+     * recorded in memory on this node.
+     *
+     * @param processKey restricts the result to one process definition key, all definitions if omitted
+     * @param window     how far back to look, e.g. {@code PT15M}; at most the configured retention
+     * @return the statistics of every activity active in the window
+     */
+    @GetMapping("/activity-latency")
+    public List<ActivityLatency> getActivityLatencies(@RequestParam(required = false) String processKey,
+                                                      @RequestParam(defaultValue = "PT5M") Duration window) {
+        return activityLatencyRecorder.getActivityLatencies(processKey, window);
+    }
+}
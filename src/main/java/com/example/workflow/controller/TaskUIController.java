@@ -1,11 +1,18 @@
 package com.example.workflow.controller;
 
+import com.example.workflow.config.WorkflowProperties;
+import com.example.workflow.dto.KeysetPage;
+import com.example.workflow.dto.TaskWithVariables;
+import com.example.workflow.inbox.TaskChangeBroadcaster;
 import com.example.workflow.service.WorkflowService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.util.List;
 import java.util.Map;
 
 @Controller
@@ -14,16 +21,37 @@ import java.util.Map;
 public class TaskUIController {
 
     private final WorkflowService workflowService;
+    private final WorkflowProperties workflowProperties;
+    private final TaskChangeBroadcaster taskChangeBroadcaster;
 
     /**
-     * Shows a page with all active tasks.
+     * Shows one page of active tasks with the selected variables of their process instances.
      */
     @GetMapping
-    public String listTasks(Model model) {
-        model.addAttribute("tasks", workflowService.getAllActiveTasks());
+    public String listTasks(@RequestParam(required = false) String cursor,
+                            @RequestParam(required = false) Integer pageSize,
+                            @RequestParam(defaultValue = "text") List<String> variables,
+                            Model model) {
+        int size = workflowProperties.getPagination().resolve(pageSize);
+        KeysetPage<TaskWithVariables> page = workflowService.getActiveTasksWithVariables(cursor, size, variables);
+        model.addAttribute("tasks", page.items());
+        model.addAttribute("nextCursor", page.nextCursor());
+        model.addAttribute("pageSize", size);
+        model.addAttribute("firstPage", cursor == null || cursor.isBlank());
+        model.addAttribute("lastPage", page.nextCursor() == null);
         return "tasks"; // Thymeleaf template: tasks.html
     }
 
+    /**
+     * Streams task created/assigned/updated/removed changes as Server-Sent Events.
+     */
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @ResponseBody
+    public SseEmitter streamTaskChanges(@RequestParam(required = false) String assignee,
+                                        @RequestParam(required = false) String group) {
+        return taskChangeBroadcaster.subscribe(assignee, group);
+    }
+
     /**
      * Completes a task.
      */
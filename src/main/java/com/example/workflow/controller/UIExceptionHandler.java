@@ -0,0 +1,25 @@
+package com.example.workflow.controller;
+
+import com.example.workflow.admission.AdmissionRejectedException;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.servlet.ModelAndView;
+
+@ControllerAdvice(assignableTypes = {ProcessUIController.class, TaskUIController.class})
+public class UIExceptionHandler {
+
+    /**
+     * Shows a "busy" page with 429 and Retry-After instead of an error page when admission control rejects a form post.
+     */
+    @ExceptionHandler(AdmissionRejectedException.class)
+    public ModelAndView handleRejected(AdmissionRejectedException e, HttpServletResponse response) {
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()));
+        ModelAndView view = new ModelAndView("busy", HttpStatus.TOO_MANY_REQUESTS);
+        view.addObject("message", e.getMessage());
+        view.addObject("retryAfterSeconds", e.getRetryAfterSeconds());
+        return view;
+    }
+}
@@ -1,41 +1,86 @@
 package com.example.workflow.controller;
 
+import com.example.workflow.config.WorkflowProperties;
+import com.example.workflow.dto.BatchItemResult;
+import com.example.workflow.dto.KeysetPage;
+import com.example.workflow.dto.TaskCompletion;
+import com.example.workflow.service.HistoryExportService;
 import com.example.workflow.service.WorkflowService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import org.flowable.engine.TaskService;
 import org.springframework.ui.Model;
 
 import java.util.List;
 import java.util.Map;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/workflow")
 public class WorkflowController {
+    /**
+     * Response header carrying the cursor of the next page; absent on the last page.
+     */
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    /**
+     * Request header making a process start idempotent.
+     */
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
     private final WorkflowService workflowService;
+    private final HistoryExportService historyExportService;
+    private final WorkflowProperties workflowProperties;
+    private final ObjectMapper objectMapper;
 
     /**
      * Starts a process instance with the given process key and a default variable.
      *
      * @param processKey the key of the process definition
+     * @return the ID of the started process instance
      */
     @GetMapping("/start/{processKey}")
-    public void startProcess(@PathVariable String processKey) {
-        workflowService.startProcess(processKey, Map.of());
+    public String startProcess(@PathVariable String processKey) {
+        return workflowService.startProcess(processKey, Map.of());
     }
 
     /**
      * Handles starting a process instance from a form submission with generic variables.
+     * A retry carrying the same {@value #IDEMPOTENCY_KEY_HEADER} header returns the instance of the first attempt.
      *
      * @param processKey the key of the process definition
      * @param variables map of variables to start the process with
+     * @param idempotencyKey optional client-chosen key identifying this start
+     * @return the ID of the started process instance
      */
     @PostMapping("/start")
-    public void handleStartForm(@RequestParam String processKey, @RequestBody Map<String, Object> variables) {
-        workflowService.startProcess(processKey, variables);
+    public String handleStartForm(@RequestParam String processKey, @RequestBody Map<String, Object> variables,
+                                  @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        return workflowService.startProcess(processKey, variables, idempotencyKey);
+    }
+
+    /**
+     * Starts one process instance per entry of the request body, committing them in chunks.
+     *
+     * @param processKey the key of the process definition
+     * @param variablesList variables of each process instance to start
+     * @return per-item instance IDs or errors, in submission order
+     */
+    @PostMapping("/start/batch")
+    @ResponseBody
+    public List<BatchItemResult> startProcesses(@RequestParam String processKey, @RequestBody List<Map<String, Object>> variablesList) {
+        return workflowService.startProcesses(processKey, variablesList);
     }
 
     /**
@@ -70,15 +115,52 @@ public class WorkflowController {
     }
 
     /**
-     * Retrieves all variables for the given process instance.
+     * Retrieves the IDs of the active tasks of the given process instance.
      *
      * @param processInstanceId the ID of the process instance
+     * @return list of task IDs
+     */
+    @GetMapping("/process/{processInstanceId}/tasks")
+    @ResponseBody
+    public List<String> getProcessTasks(@PathVariable String processInstanceId) {
+        return workflowService.getActiveTasks(processInstanceId);
+    }
+
+    /**
+     * Retrieves the variables of the given process instance. The response carries an ETag that changes with the
+     * returned variables, so a poller sending it back in {@code If-None-Match} gets 304 until one of them changes.
+     *
+     * @param processInstanceId the ID of the process instance
+     * @param names names of the variables to return, omit for all
+     * @param references whether externalized large values are returned as blob references instead of their content
      * @return map of variables
      */
     @GetMapping("/process/{processInstanceId}/variables")
     @ResponseBody
-    public Map<String, Object> getProcessVariables(@PathVariable String processInstanceId) {
-        return workflowService.getProcessVariables(processInstanceId);
+    public ResponseEntity<Map<String, Object>> getProcessVariables(@PathVariable String processInstanceId,
+                                                                   @RequestParam(required = false) List<String> names,
+                                                                   @RequestParam(defaultValue = "false") boolean references,
+                                                                   WebRequest request) {
+        String version = workflowService.getProcessVariablesVersion(processInstanceId, names);
+        if (version != null && request.checkNotModified(version)) {
+            return null;
+        }
+        return toResponse(version, references
+                ? workflowService.getUnresolvedProcessVariables(processInstanceId, names)
+                : workflowService.getProcessVariables(processInstanceId, names));
+    }
+
+    /**
+     * Retrieves a single variable of the given process instance with externalized content resolved.
+     *
+     * @param processInstanceId the ID of the process instance
+     * @param variableName the variable name
+     * @return the variable value
+     */
+    @GetMapping("/process/{processInstanceId}/variables/{variableName}")
+    @ResponseBody
+    public Object getProcessVariable(@PathVariable String processInstanceId, @PathVariable String variableName) {
+        return workflowService.getProcessVariable(processInstanceId, variableName);
     }
 
     /**
@@ -93,6 +175,29 @@ public class WorkflowController {
         workflowService.setProcessVariable(processInstanceId, variableName, value);
     }
 
+    /**
+     * Retrieves the variables visible to the given task, with the same ETag handling as the process variables.
+     *
+     * @param taskId the ID of the task
+     * @param names names of the variables to return, omit for all
+     * @param references whether externalized large values are returned as blob references instead of their content
+     * @return map of variables
+     */
+    @GetMapping("/task/{taskId}/variables")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> getTaskVariables(@PathVariable String taskId,
+                                                                @RequestParam(required = false) List<String> names,
+                                                                @RequestParam(defaultValue = "false") boolean references,
+                                                                WebRequest request) {
+        String version = workflowService.getTaskVariablesVersion(taskId, names);
+        if (version != null && request.checkNotModified(version)) {
+            return null;
+        }
+        return toResponse(version, references
+                ? workflowService.getUnresolvedTaskVariables(taskId, names)
+                : workflowService.getTaskVariables(taskId, names));
+    }
+
     /**
      * Completes the task with the given ID and optional variables.
      *
@@ -105,35 +210,158 @@ public class WorkflowController {
     }
 
     /**
-     * Retrieves all active tasks.
+     * Completes many tasks at once, each with its own variables.
      *
-     * @return list of task IDs
+     * @param completions the tasks to complete and their variables
+     * @return per-task results, in submission order
      */
-    @GetMapping("/tasks")
+    @PostMapping("/tasks/complete")
     @ResponseBody
-    public List<String> getAllActiveTasks() {
-        return workflowService.getActiveTasks(null);
+    public List<BatchItemResult> completeTasks(@RequestBody List<TaskCompletion> completions) {
+        return workflowService.completeTasks(completions);
     }
 
     /**
-     * Retrieves all running processes.
+     * Claims many tasks at once for the given user.
      *
-     * @return list of running processes
+     * @param userId the ID of the user claiming the tasks
+     * @param taskIds the IDs of the tasks to claim
+     * @return per-task results, in submission order
      */
-    @GetMapping("/process/running")
+    @PostMapping("/tasks/claim")
     @ResponseBody
-    public Object getRunningProcesses() {
-        return workflowService.getRunningProcesses();
+    public List<BatchItemResult> claimTasks(@RequestParam String userId, @RequestBody List<String> taskIds) {
+        return workflowService.claimTasks(taskIds, userId);
     }
 
     /**
-     * Retrieves all finished processes.
+     * Assigns many tasks at once to the given user.
      *
+     * @param userId the ID of the user to assign the tasks to
+     * @param taskIds the IDs of the tasks to assign
+     * @return per-task results, in submission order
+     */
+    @PostMapping("/tasks/assign")
+    @ResponseBody
+    public List<BatchItemResult> assignTasks(@RequestParam String userId, @RequestBody List<String> taskIds) {
+        return workflowService.assignTasks(taskIds, userId);
+    }
+
+    /**
+     * Retrieves one page of active tasks as compact rows. The cursor of the next page is returned in the {@value #NEXT_CURSOR_HEADER} header.
+     *
+     * @param cursor   cursor of the page to fetch, omit for the first page
+     * @param pageSize maximum number of tasks to return
+     * @param fields   task fields to include, omit for all
+     * @return the task rows, streamed as a JSON array
+     */
+    @GetMapping(value = "/tasks", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> getAllActiveTasks(@RequestParam(required = false) String cursor,
+                                                                   @RequestParam(required = false) Integer pageSize,
+                                                                   @RequestParam(required = false) List<String> fields) {
+        return toStreamingResponse(workflowService.getActiveTaskSummaries(cursor, workflowProperties.getPagination().resolve(pageSize), fields));
+    }
+
+    /**
+     * Retrieves one page of active tasks together with variables of their process instances, read in one query per page.
+     * The cursor of the next page is returned in the {@value #NEXT_CURSOR_HEADER} header.
+     *
+     * @param cursor    cursor of the page to fetch, omit for the first page
+     * @param pageSize  maximum number of tasks to return
+     * @param variables process variables to include, omit for all
+     * @return the tasks with their variables, streamed as a JSON array
+     */
+    @GetMapping(value = "/tasks/with-variables", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> getActiveTasksWithVariables(@RequestParam(required = false) String cursor,
+                                                                             @RequestParam(required = false) Integer pageSize,
+                                                                             @RequestParam(required = false) List<String> variables) {
+        return toStreamingResponse(workflowService.getActiveTasksWithVariables(cursor, workflowProperties.getPagination().resolve(pageSize), variables));
+    }
+
+    /**
+     * Retrieves one page of running processes as compact rows. The cursor of the next page is returned in the {@value #NEXT_CURSOR_HEADER} header.
+     *
+     * @param cursor   cursor of the page to fetch, omit for the first page
+     * @param pageSize maximum number of processes to return
+     * @param fields   process instance fields to include, omit for all
+     * @return the process instance rows, streamed as a JSON array
+     */
+    @GetMapping(value = "/process/running", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> getRunningProcesses(@RequestParam(required = false) String cursor,
+                                                                     @RequestParam(required = false) Integer pageSize,
+                                                                     @RequestParam(required = false) List<String> fields) {
+        return toStreamingResponse(workflowService.getRunningProcessSummaries(cursor, workflowProperties.getPagination().resolve(pageSize), fields));
+    }
+
+    /**
+     * Retrieves one page of finished processes. The cursor of the next page is returned in the {@value #NEXT_CURSOR_HEADER} header.
+     *
+     * @param cursor   cursor of the page to fetch, omit for the first page
+     * @param pageSize maximum number of process IDs to return
      * @return list of finished process IDs
      */
     @GetMapping("/process/finished")
     @ResponseBody
-    public List<String> getFinishedProcesses() {
-        return workflowService.getFinishedProcesses();
+    public ResponseEntity<List<String>> getFinishedProcesses(@RequestParam(required = false) String cursor,
+                                                             @RequestParam(required = false) Integer pageSize) {
+        return toResponse(workflowService.getFinishedProcessesPage(cursor, workflowProperties.getPagination().resolve(pageSize)));
+    }
+
+    /**
+     * Streams all finished processes as newline-delimited JSON, one instance per line.
+     *
+     * @param includeVariables whether to include the process variables of each instance
+     * @param gzip whether to gzip-compress the response body
+     * @return the streaming export
+     */
+    @GetMapping(value = "/process/finished/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportFinishedProcesses(@RequestParam(defaultValue = "false") boolean includeVariables,
+                                                                         @RequestParam(defaultValue = "false") boolean gzip) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON);
+        if (!gzip) {
+            return response.body(out -> historyExportService.exportFinishedProcesses(out, includeVariables));
+        }
+        return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(out -> {
+            // syncFlush so that every exported batch reaches the client instead of waiting in the deflater
+            GZIPOutputStream compressed = new GZIPOutputStream(out, 8192, true);
+            historyExportService.exportFinishedProcesses(compressed, includeVariables);
+            compressed.finish();
+        });
+    }
+
+    /**
+     * Writes the rows one by one to the response instead of rendering the whole page into a buffer first. Rows are not
+     * flushed one by one, so the servlet container still sends them in full buffers.
+     */
+    private <T> ResponseEntity<StreamingResponseBody> toStreamingResponse(KeysetPage<T> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON);
+        if (page.hasNext()) {
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(out -> {
+            try (SequenceWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE).writeValuesAsArray(out)) {
+                writer.writeAll(page.items());
+            }
+        });
+    }
+
+    private static <T> ResponseEntity<List<T>> toResponse(KeysetPage<T> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.hasNext()) {
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(page.items());
+    }
+
+    /**
+     * The version is read before the values, so a concurrent change can only make the ETag older than the body and
+     * cost the next poll a full response, never hide a change behind a 304.
+     */
+    private static ResponseEntity<Map<String, Object>> toResponse(String version, Map<String, Object> variables) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (version != null) {
+            response.eTag(version);
+        }
+        return response.body(variables);
     }
-}
\ No newline at end of file
+}
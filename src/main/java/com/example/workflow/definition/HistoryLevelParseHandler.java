@@ -0,0 +1,46 @@
+package com.example.workflow.definition;
+
+import com.example.workflow.config.WorkflowProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.flowable.bpmn.model.BaseElement;
+import org.flowable.bpmn.model.ExtensionElement;
+import org.flowable.bpmn.model.Process;
+import org.flowable.engine.impl.bpmn.parser.BpmnParse;
+import org.flowable.engine.impl.bpmn.parser.handler.AbstractBpmnParseHandler;
+
+import java.util.List;
+
+/**
+ * Applies {@code workflow.process-definitions.<key>.history-level} to parsed processes by setting the same
+ * {@code flowable:historyLevel} extension element a BPMN file can declare, so the engine treats both alike.
+ * The property wins over the BPMN file.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class HistoryLevelParseHandler extends AbstractBpmnParseHandler<Process> {
+    static final String HISTORY_LEVEL_ELEMENT = "historyLevel";
+    private static final String FLOWABLE_NAMESPACE = "http://flowable.org/bpmn";
+
+    private final WorkflowProperties workflowProperties;
+
+    @Override
+    protected Class<? extends BaseElement> getHandledType() {
+        return Process.class;
+    }
+
+    @Override
+    protected void executeParse(BpmnParse bpmnParse, Process process) {
+        WorkflowProperties.Definition definition = workflowProperties.getProcessDefinitions().get(process.getId());
+        if (definition == null || definition.getHistoryLevel() == null) {
+            return;
+        }
+        ExtensionElement historyLevel = new ExtensionElement();
+        historyLevel.setName(HISTORY_LEVEL_ELEMENT);
+        historyLevel.setNamespace(FLOWABLE_NAMESPACE);
+        historyLevel.setNamespacePrefix("flowable");
+        historyLevel.setElementText(definition.getHistoryLevel().getKey());
+        process.getExtensionElements().put(HISTORY_LEVEL_ELEMENT, List.of(historyLevel));
+        log.info("History level of process [{}] set to [{}]", process.getId(), definition.getHistoryLevel().getKey());
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.workflow.definition;
+
+import com.example.workflow.config.WorkflowProperties;
+import lombok.RequiredArgsConstructor;
+import org.flowable.engine.RepositoryService;
+import org.flowable.engine.TaskService;
+import org.flowable.engine.repository.ProcessDefinition;
+import org.flowable.task.api.Task;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Splits variables into persistent and transient ones by the {@code workflow.process-definitions.<key>.transient-variables}
+ * of their process definition.
+ * <p>
+ * Transient variables are visible to expressions and delegates until the next wait state and are never written to
+ * the runtime or history tables, so they only suit values consumed by synchronous steps. Definitions declaring the
+ * variables of a model call task transient are rejected by {@link TransientVariablesParseHandler}, both when deployed
+ * and, for those deployed earlier, at startup.
+ */
+@Component
+@RequiredArgsConstructor
+public class TransientVariables {
+    private final WorkflowProperties workflowProperties;
+    private final TaskService taskService;
+    private final RepositoryService repositoryService;
+
+    /**
+     * @param variables          the variables to persist
+     * @param transientVariables the variables to keep in memory only
+     */
+    public record Split(Map<String, Object> variables, Map<String, Object> transientVariables) {
+    }
+
+    /**
+     * Loads the latest version of every definition declaring transient variables, so one the parse handler rejects
+     * stops the startup instead of failing its first instance.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void checkDeployedDefinitions() {
+        workflowProperties.getProcessDefinitions().forEach((processKey, definition) -> {
+            if (definition.getTransientVariables().isEmpty()) {
+                return;
+            }
+            ProcessDefinition latest = repositoryService.createProcessDefinitionQuery().processDefinitionKey(processKey).latestVersion().singleResult();
+            if (latest != null) {
+                repositoryService.getBpmnModel(latest.getId());
+            }
+        });
+    }
+
+    /**
+     * Splits the variables of a start of the given process.
+     *
+     * @param processKey the key of the process definition
+     * @param variables  the variables, may be null
+     * @return the persistent and transient variables
+     */
+    public Split split(String processKey, Map<String, Object> variables) {
+        Set<String> names = transientNames(processKey);
+        if (variables == null || names.isEmpty()) {
+            return new Split(variables, Map.of());
+        }
+        Map<String, Object> persistent = new HashMap<>();
+        Map<String, Object> transients = new HashMap<>();
+        variables.forEach((name, value) -> (names.contains(name) ? transients : persistent).put(name, value));
+        return new Split(persistent, transients);
+    }
+
+    /**
+     * Splits the variables of a completion of the given task. The task's process is only looked up if some
+     * process definition declares transient variables.
+     *
+     * @param taskId    the ID of the task
+     * @param variables the variables, may be null
+     * @return the persistent and transient variables
+     */
+    public Split splitForTask(String taskId, Map<String, Object> variables) {
+        if (variables == null || variables.isEmpty() || !anyTransient()) {
+            return new Split(variables, Map.of());
+        }
+        Task task = taskService.createTaskQuery().taskId(taskId).singleResult();
+        if (task == null || task.getProcessDefinitionId() == null) {
+            return new Split(variables, Map.of());
+        }
+        return split(keyOf(task.getProcessDefinitionId()), variables);
+    }
+
+    private boolean anyTransient() {
+        return workflowProperties.getProcessDefinitions().values().stream()
+                .anyMatch(definition -> !definition.getTransientVariables().isEmpty());
+    }
+
+    private Set<String> transientNames(String processKey) {
+        WorkflowProperties.Definition definition = workflowProperties.getProcessDefinitions().get(processKey);
+        return definition != null ? definition.getTransientVariables() : Set.of();
+    }
+
+    /**
+     * Served from the engine's deployment cache.
+     */
+    private String keyOf(String processDefinitionId) {
+        return repositoryService.getProcessDefinition(processDefinitionId).getKey();
+    }
+}
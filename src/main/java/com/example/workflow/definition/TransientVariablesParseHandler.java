@@ -0,0 +1,46 @@
+package com.example.workflow.definition;
+
+import com.example.workflow.config.WorkflowProperties;
+import com.example.workflow.worker.ModelCallWorker;
+import lombok.RequiredArgsConstructor;
+import org.flowable.bpmn.model.BaseElement;
+import org.flowable.bpmn.model.ExternalWorkerServiceTask;
+import org.flowable.common.engine.api.FlowableException;
+import org.flowable.engine.impl.bpmn.parser.BpmnParse;
+import org.flowable.engine.impl.bpmn.parser.handler.AbstractBpmnParseHandler;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Rejects process definitions whose {@code workflow.process-definitions.<key>.transient-variables} include a variable
+ * of a model call task. That task is an external worker job, i.e. a wait state: the worker only sees the persisted
+ * {@value ModelCallWorker#INPUT_VARIABLE} and always persists {@value ModelCallWorker#OUTPUT_VARIABLE}, so declaring
+ * either transient would lose the input or silently not apply.
+ */
+@RequiredArgsConstructor
+public class TransientVariablesParseHandler extends AbstractBpmnParseHandler<ExternalWorkerServiceTask> {
+    private final WorkflowProperties workflowProperties;
+
+    @Override
+    protected Class<? extends BaseElement> getHandledType() {
+        return ExternalWorkerServiceTask.class;
+    }
+
+    @Override
+    protected void executeParse(BpmnParse bpmnParse, ExternalWorkerServiceTask serviceTask) {
+        if (!ModelCallWorker.TOPIC.equals(serviceTask.getTopic())) {
+            return;
+        }
+        String processKey = bpmnParse.getCurrentProcess().getId();
+        WorkflowProperties.Definition definition = workflowProperties.getProcessDefinitions().get(processKey);
+        Set<String> transientNames = definition != null ? definition.getTransientVariables() : Set.of();
+        List<String> conflicting = List.of(ModelCallWorker.INPUT_VARIABLE, ModelCallWorker.OUTPUT_VARIABLE).stream()
+                .filter(transientNames::contains)
+                .toList();
+        if (!conflicting.isEmpty()) {
+            throw new FlowableException("Variables " + conflicting + " of process [" + processKey + "] are declared transient, but model call task ["
+                    + serviceTask.getId() + "] runs after a wait state and reads and writes them as persisted variables");
+        }
+    }
+}
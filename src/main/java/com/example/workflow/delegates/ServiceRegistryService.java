@@ -1,16 +1,44 @@
 package com.example.workflow.delegates;
 
-import org.flowable.engine.delegate.DelegateExecution;
-import org.flowable.engine.delegate.JavaDelegate;
+import com.example.workflow.blob.LargeVariables;
+import com.example.workflow.cache.ModelResultCache;
+import com.example.workflow.cache.ModelResultKeys;
+import com.example.workflow.config.WorkflowProperties;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
 @Component("serviceRegistryService")
-public class ServiceRegistryService implements JavaDelegate {
-    @Override
-    public void execute(DelegateExecution execution) {
-        String inputText = (String) execution.getVariable("text");
+@RequiredArgsConstructor
+public class ServiceRegistryService {
+    private final ModelResultCache modelResultCache;
+    private final WorkflowProperties workflowProperties;
+    private final LargeVariables largeVariables;
+
+    /**
+     * Same as {@link #call(String)} for a raw variable value; an externalized value is read from the blob store first.
+     *
+     * @param textVariable the {@code text} variable as stored by the engine
+     * @return the model response
+     */
+    public String call(Object textVariable) {
+        return call((String) largeVariables.resolve(textVariable));
+    }
+
+    /**
+     * Sends the text to the model and returns its response, or returns the cached response of an identical earlier call.
+     * <p>
+     * Holds no engine state, so {@link com.example.workflow.worker.ModelCallWorker} can run it outside any DB transaction.
+     *
+     * @param inputText the text to process
+     * @return the model response
+     */
+    public String call(String inputText) {
+        String key = ModelResultKeys.of(workflowProperties.getModelCall().getCache().getModelVersion(), inputText);
+        return modelResultCache.get(key, () -> invokeModel(inputText));
+    }
+
+    private String invokeModel(String inputText) {
         // Call Gemini / external model here
-        String response = "Processed: " + inputText;
-        execution.setVariable("result", response);
+        return "Processed: " + inputText;
     }
 }
@@ -0,0 +1,28 @@
+package com.example.workflow.dto;
+
+/**
+ * Latency and throughput of one activity of a process definition over a time window.
+ *
+ * @param processDefinitionKey the process definition key
+ * @param activityId           the BPMN element id
+ * @param activityName         the BPMN element name, if any
+ * @param activityType         the BPMN element type, e.g. {@code userTask}
+ * @param completed            activity instances completed in the window
+ * @param cancelled            activity instances cancelled in the window
+ * @param inProgress           activity instances started on this node and not yet ended
+ * @param throughputPerSecond  completions per second over the window
+ * @param duration             time from activity start to completion
+ * @param queueWait            time spent waiting before the activity was picked up: by a worker or the async executor for
+ *                             jobs, by an assignee for user tasks
+ */
+public record ActivityLatency(String processDefinitionKey,
+                              String activityId,
+                              String activityName,
+                              String activityType,
+                              long completed,
+                              long cancelled,
+                              long inProgress,
+                              double throughputPerSecond,
+                              LatencySummary duration,
+                              LatencySummary queueWait) {
+}
@@ -0,0 +1,23 @@
+package com.example.workflow.dto;
+
+import java.util.Map;
+
+/**
+ * Snapshot of the admission control state.
+ *
+ * @param limit                the current adaptive concurrency limit
+ * @param inFlight             admitted calls still running
+ * @param jobBacklog           async and external worker jobs last seen waiting
+ * @param inFlightByProcessKey running calls per process key that has a quota
+ * @param rejectedConcurrency  calls rejected by the concurrency limit since startup
+ * @param rejectedQuota        calls rejected by a process key quota since startup
+ * @param rejectedJobBacklog   process starts rejected because of the job backlog since startup
+ */
+public record AdmissionStats(int limit,
+                             int inFlight,
+                             long jobBacklog,
+                             Map<String, Integer> inFlightByProcessKey,
+                             long rejectedConcurrency,
+                             long rejectedQuota,
+                             long rejectedJobBacklog) {
+}
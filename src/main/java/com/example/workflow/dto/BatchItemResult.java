@@ -0,0 +1,26 @@
+package com.example.workflow.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Outcome of a single item of a batch operation.
+ *
+ * @param index the position of the item in the submitted batch
+ * @param id    the ID of the entity the item produced or acted on, null if none is known
+ * @param error the failure message, null if the item succeeded
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BatchItemResult(int index, String id, String error) {
+
+    public static BatchItemResult succeeded(int index, String id) {
+        return new BatchItemResult(index, id, null);
+    }
+
+    public static BatchItemResult failed(int index, String id, String error) {
+        return new BatchItemResult(index, id, error);
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+}
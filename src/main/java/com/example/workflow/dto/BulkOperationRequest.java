@@ -0,0 +1,18 @@
+package com.example.workflow.dto;
+
+import java.util.Map;
+
+/**
+ * A bulk operation on all running process instances matching a filter.
+ *
+ * @param action               what to do with each matching instance
+ * @param processDefinitionKey only instances of this definition, may be null if variables are given
+ * @param variables            only instances having all these variable values, may be null
+ * @param reason               the delete reason, used by {@link Action#DELETE} only
+ */
+public record BulkOperationRequest(Action action, String processDefinitionKey, Map<String, Object> variables, String reason) {
+
+    public enum Action {
+        SUSPEND, RESUME, DELETE
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.workflow.dto;
+
+import java.time.Instant;
+
+/**
+ * Progress of a bulk operation.
+ *
+ * @param id             the operation ID
+ * @param request        the submitted operation
+ * @param state          the current state
+ * @param processed      instances the action succeeded on
+ * @param failed         instances the action failed on; they are skipped by the rest of the run
+ * @param startedAt      when the operation started
+ * @param finishedAt     when the operation ended, null while it is running or paused
+ * @param itemsPerSecond the processing rate so far
+ * @param lastError      the last item or query failure, null if none
+ */
+public record BulkOperationStatus(String id,
+                                  BulkOperationRequest request,
+                                  State state,
+                                  long processed,
+                                  long failed,
+                                  Instant startedAt,
+                                  Instant finishedAt,
+                                  double itemsPerSecond,
+                                  String lastError) {
+
+    public enum State {
+        RUNNING, PAUSED, COMPLETED, CANCELLED, FAILED;
+
+        public boolean isFinished() {
+            return this == COMPLETED || this == CANCELLED || this == FAILED;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.workflow.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * One line of the finished process history export.
+ *
+ * @param id                   the process instance ID
+ * @param processDefinitionKey the key of the process definition the instance ran
+ * @param startTime            when the instance started
+ * @param endTime              when the instance ended
+ * @param durationInMillis     the run time of the instance
+ * @param variables            the process variables at the end of the instance, only present when requested
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record FinishedProcessRecord(String id,
+                                    String processDefinitionKey,
+                                    Instant startTime,
+                                    Instant endTime,
+                                    Long durationInMillis,
+                                    Map<String, Object> variables) {
+}
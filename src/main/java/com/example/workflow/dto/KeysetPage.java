@@ -0,0 +1,25 @@
+package com.example.workflow.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A single page of a keyset-paginated listing.
+ *
+ * @param items      the rows of this page, in cursor order
+ * @param nextCursor the opaque cursor to request the following page with, or null if this is the last page
+ * @param <T>        the row type
+ */
+public record KeysetPage<T>(List<T> items, String nextCursor) {
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    /**
+     * Maps the rows of this page, keeping its cursor.
+     */
+    public <R> KeysetPage<R> map(Function<? super T, ? extends R> mapper) {
+        return new KeysetPage<>(items.stream().<R>map(mapper).toList(), nextCursor);
+    }
+}
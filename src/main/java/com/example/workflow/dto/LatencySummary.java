@@ -0,0 +1,14 @@
+package com.example.workflow.dto;
+
+/**
+ * Distribution of the latencies recorded for one measure, in milliseconds.
+ *
+ * @param count number of samples
+ * @param mean  mean latency
+ * @param p50   median latency
+ * @param p90   90th percentile latency
+ * @param p99   99th percentile latency
+ * @param max   highest latency
+ */
+public record LatencySummary(long count, double mean, double p50, double p90, double p99, double max) {
+}
@@ -0,0 +1,43 @@
+package com.example.workflow.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+/**
+ * Stable position in a listing ordered by a timestamp and then by ID.
+ * <p>
+ * Encoded as an opaque URL-safe string so clients never depend on its layout.
+ *
+ * @param time the timestamp of the last row seen
+ * @param id   the ID of the last row seen
+ */
+public record PageCursor(Date time, String id) {
+
+    private static final char SEPARATOR = ':';
+
+    public String encode() {
+        String raw = time.getTime() + String.valueOf(SEPARATOR) + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor previously produced by {@link #encode()}.
+     *
+     * @param cursor the encoded cursor, may be null or blank for the first page
+     * @return the decoded cursor, or null for the first page
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public static PageCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            return new PageCursor(new Date(Long.parseLong(raw.substring(0, separator))), raw.substring(separator + 1));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid page cursor: " + cursor, e);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.workflow.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Compact listing row of a running process instance. Fields the client did not select are null and left out of the JSON.
+ *
+ * @param id                   the process instance ID, always present
+ * @param processDefinitionId  the ID of the process definition
+ * @param processDefinitionKey the key of the process definition
+ * @param businessKey          the business key
+ * @param name                 the instance name
+ * @param startTime            when the instance started
+ * @param startUserId          the user who started the instance
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ProcessInstanceSummary(String id,
+                                     String processDefinitionId,
+                                     String processDefinitionKey,
+                                     String businessKey,
+                                     String name,
+                                     Date startTime,
+                                     String startUserId) {
+
+    /**
+     * The selectable field names.
+     */
+    public static final List<String> FIELDS = List.of("id", "processDefinitionId", "processDefinitionKey", "businessKey", "name",
+            "startTime", "startUserId");
+}
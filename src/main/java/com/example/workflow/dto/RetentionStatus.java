@@ -0,0 +1,31 @@
+package com.example.workflow.dto;
+
+import java.time.Instant;
+
+/**
+ * Progress of the history retention job.
+ *
+ * @param running            whether a cleanup run is in progress
+ * @param lastRunStarted     when the current or last run started, null if none ran yet
+ * @param lastRunFinished    when the last completed run finished, null if none completed yet
+ * @param deletedInRun       instances deleted by the current or last run
+ * @param archivedInRun      instances archived by the current or last run
+ * @param deletedTotal       instances deleted since startup
+ * @param chunksInRun        chunks processed by the current or last run
+ * @param currentChunkSize   the chunk size the next chunk will use
+ * @param lastChunkMillis    duration of the last chunk
+ * @param deletedPerSecond   delete rate of the current or last run
+ * @param lastError          the error that stopped the last run for some process key, null if none
+ */
+public record RetentionStatus(boolean running,
+                              Instant lastRunStarted,
+                              Instant lastRunFinished,
+                              long deletedInRun,
+                              long archivedInRun,
+                              long deletedTotal,
+                              long chunksInRun,
+                              int currentChunkSize,
+                              long lastChunkMillis,
+                              double deletedPerSecond,
+                              String lastError) {
+}
@@ -0,0 +1,45 @@
+package com.example.workflow.dto;
+
+import java.util.Date;
+import java.util.Set;
+
+/**
+ * A committed change of a runtime task, as pushed to task event subscribers.
+ *
+ * @param type              what happened to the task
+ * @param taskId            the task ID
+ * @param name              the task name
+ * @param assignee          the current assignee, null if unassigned
+ * @param processInstanceId the process instance the task belongs to
+ * @param createTime        when the task was created
+ * @param dueDate           the due date, null if none
+ * @param candidateGroups   the candidate groups of the task
+ * @param previousAssignee  the assignee before the change, null if unassigned
+ * @param previousGroups    the candidate groups before the change
+ */
+public record TaskChange(Type type,
+                         String taskId,
+                         String name,
+                         String assignee,
+                         String processInstanceId,
+                         Date createTime,
+                         Date dueDate,
+                         Set<String> candidateGroups,
+                         String previousAssignee,
+                         Set<String> previousGroups) {
+
+    /**
+     * Returns this change as a removal, for the subscribers the task left.
+     */
+    public TaskChange asRemoval() {
+        return new TaskChange(Type.REMOVED, taskId, name, assignee, processInstanceId, createTime, dueDate, candidateGroups,
+                previousAssignee, previousGroups);
+    }
+
+    public enum Type {
+        CREATED,
+        ASSIGNED,
+        UPDATED,
+        REMOVED
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.workflow.dto;
+
+import java.util.Map;
+
+/**
+ * One task of a bulk completion request.
+ *
+ * @param taskId    the ID of the task to complete
+ * @param variables the variables to set upon completion, may be null
+ */
+public record TaskCompletion(String taskId, Map<String, Object> variables) {
+}
@@ -0,0 +1,37 @@
+package com.example.workflow.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Compact listing row of an active task. Fields the client did not select are null and left out of the JSON.
+ *
+ * @param id                  the task ID, always present
+ * @param name                the task name
+ * @param assignee            the assigned user
+ * @param processInstanceId   the process instance the task belongs to
+ * @param processDefinitionId the process definition the task belongs to
+ * @param taskDefinitionKey   the ID of the task in the process model
+ * @param createTime          when the task was created
+ * @param dueDate             when the task is due
+ * @param priority            the task priority
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record TaskSummary(String id,
+                          String name,
+                          String assignee,
+                          String processInstanceId,
+                          String processDefinitionId,
+                          String taskDefinitionKey,
+                          Date createTime,
+                          Date dueDate,
+                          Integer priority) {
+
+    /**
+     * The selectable field names.
+     */
+    public static final List<String> FIELDS = List.of("id", "name", "assignee", "processInstanceId", "processDefinitionId",
+            "taskDefinitionKey", "createTime", "dueDate", "priority");
+}
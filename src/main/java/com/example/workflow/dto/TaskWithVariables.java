@@ -0,0 +1,30 @@
+package com.example.workflow.dto;
+
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * Listing row of an active task together with selected variables of its process instance.
+ *
+ * @param id                  the task ID
+ * @param name                the task name
+ * @param assignee            the assigned user
+ * @param processInstanceId   the process instance the task belongs to
+ * @param processDefinitionId the process definition the task belongs to
+ * @param taskDefinitionKey   the ID of the task in the process model
+ * @param createTime          when the task was created
+ * @param dueDate             when the task is due
+ * @param priority            the task priority
+ * @param variables           the selected process variables that are set, by name
+ */
+public record TaskWithVariables(String id,
+                                String name,
+                                String assignee,
+                                String processInstanceId,
+                                String processDefinitionId,
+                                String taskDefinitionKey,
+                                Date createTime,
+                                Date dueDate,
+                                int priority,
+                                Map<String, Object> variables) {
+}
@@ -0,0 +1,63 @@
+package com.example.workflow.idempotency;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded LRU map with a TTL of recently answered idempotency keys, so retries are answered without a DB round trip.
+ */
+public class IdempotencyCache {
+    private final int maxEntries;
+    private final Duration ttl;
+    private final Clock clock;
+    private final LinkedHashMap<String, Entry> entries;
+
+    /**
+     * @param processDefinitionKey the process the key was used for
+     * @param processInstanceId    the instance started for the key
+     */
+    public record Started(String processDefinitionKey, String processInstanceId) {
+    }
+
+    private record Entry(Started started, long expiresAt) {
+    }
+
+    /**
+     * @param maxEntries maximum number of keys held
+     * @param ttl        how long a key is remembered
+     * @param clock      time source for expiry
+     */
+    public IdempotencyCache(int maxEntries, Duration ttl, Clock clock) {
+        this.maxEntries = maxEntries;
+        this.ttl = ttl;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > IdempotencyCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * @param key the idempotency key
+     * @return the start made with the key, or null if unknown or expired
+     */
+    public synchronized Started get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt() <= clock.millis()) {
+            entries.remove(key);
+            return null;
+        }
+        return entry.started();
+    }
+
+    public synchronized void put(String key, Started started) {
+        entries.put(key, new Entry(started, clock.millis() + ttl.toMillis()));
+    }
+}
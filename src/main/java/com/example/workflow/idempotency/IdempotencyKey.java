@@ -0,0 +1,69 @@
+package com.example.workflow.idempotency;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+
+/**
+ * Durable record of a process start made with an idempotency key. The key is the primary key, so a second start
+ * with the same key fails on insert instead of creating another instance.
+ */
+@Entity
+@Table(name = "idempotency_key")
+@Getter
+@Setter
+@NoArgsConstructor
+public class IdempotencyKey implements Persistable<String> {
+
+    // 191 characters keep the utf8mb4 primary key within the InnoDB index limit
+    @Id
+    @Column(name = "idempotency_key", length = 191)
+    private String key;
+
+    @Column(name = "process_definition_key", nullable = false)
+    private String processDefinitionKey;
+
+    @Column(name = "process_instance_id", length = 64)
+    private String processInstanceId;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Transient
+    private boolean persisted;
+
+    public IdempotencyKey(String key, String processDefinitionKey, Instant createdAt) {
+        this.key = key;
+        this.processDefinitionKey = processDefinitionKey;
+        this.createdAt = createdAt;
+    }
+
+    @Override
+    public String getId() {
+        return key;
+    }
+
+    /**
+     * Makes {@code save} insert new keys instead of merging them, so a duplicate key is reported as a constraint violation.
+     */
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        persisted = true;
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.workflow.idempotency;
+
+import com.example.workflow.cluster.ClusterLock;
+import com.example.workflow.config.WorkflowProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IdempotencyKeySweeper {
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final WorkflowProperties workflowProperties;
+    private final ClusterLock clusterLock;
+
+    /**
+     * Deletes durable idempotency keys older than {@code workflow.idempotency.retention}; retries after that start a new instance.
+     * Runs on one node at a time.
+     */
+    @Scheduled(fixedDelayString = "${workflow.idempotency.sweep-interval:PT1H}")
+    public void sweep() {
+        clusterLock.runExclusively("idempotency-key-sweep", this::deleteExpired);
+    }
+
+    private void deleteExpired() {
+        int deleted = idempotencyKeyRepository.deleteCreatedBefore(Instant.now().minus(workflowProperties.getIdempotency().getRetention()));
+        if (deleted > 0) {
+            log.info("Deleted [{}] expired idempotency keys", deleted);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.workflow.inbox;
+
+import com.example.workflow.config.WorkflowProperties;
+import com.example.workflow.dto.TaskChange;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pushes {@link TaskChange}s from the {@link TaskInbox} to Server-Sent Events subscribers.
+ * <p>
+ * Each subscriber has a bounded queue drained by its own virtual thread, so a slow client never blocks the
+ * engine thread that published the change. A subscriber whose queue overflows is disconnected; the browser
+ * reconnects and reloads the page state.
+ * <p>
+ * A filtered subscriber gets a change if the task matches its filter before or after it. A task that no longer
+ * matches, because it was reassigned or lost a candidate group, reaches the subscriber as {@code REMOVED}.
+ * <p>
+ * Changes come from the inbox's engine listener, so while the inbox is disabled, or in scale-out mode, no stream is
+ * opened and subscribing fails with 503 instead of returning a stream that stays silent.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TaskChangeBroadcaster {
+    private final TaskInbox taskInbox;
+    private final WorkflowProperties workflowProperties;
+
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    void register() {
+        taskInbox.addChangeListener(this::publish);
+    }
+
+    /**
+     * Opens a stream of task changes, optionally limited to the tasks of one assignee and/or candidate group.
+     *
+     * @param assignee only stream changes of tasks assigned to this user; null for all
+     * @param group    only stream changes of tasks this group is a candidate for; null for all
+     * @return the emitter to return from the controller
+     * @throws ResponseStatusException with 503 if the task inbox is not maintained on this node
+     */
+    public SseEmitter subscribe(String assignee, String group) {
+        if (!taskInbox.isEnabled()) {
+            log.warn("Rejecting task events subscription for assignee [{}] and group [{}]: the task inbox is disabled on this node", assignee, group);
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Task events are unavailable while the task inbox is disabled");
+        }
+        WorkflowProperties.TaskEvents config = workflowProperties.getTaskEvents();
+        SseEmitter emitter = new SseEmitter(config.getTimeout().toMillis());
+        Subscription subscription = new Subscription(emitter, assignee, group, new ArrayBlockingQueue<>(config.getQueueCapacity()));
+        subscriptions.add(subscription);
+        emitter.onCompletion(subscription::close);
+        emitter.onTimeout(subscription::close);
+        emitter.onError(e -> subscription.close());
+        Thread.ofVirtual().name("task-events").start(subscription::drain);
+        log.debug("Task events subscriber added for assignee [{}] and group [{}], [{}] subscribers", assignee, group, subscriptions.size());
+        return emitter;
+    }
+
+    /**
+     * Returns the number of open task event streams.
+     */
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    private void publish(TaskChange change) {
+        for (Subscription subscription : subscriptions) {
+            TaskChange delivered = subscription.accepts(change.assignee(), change.candidateGroups()) ? change
+                    : subscription.accepts(change.previousAssignee(), change.previousGroups()) ? change.asRemoval()
+                    : null;
+            if (delivered != null && !subscription.queue.offer(delivered)) {
+                log.warn("Task events subscriber is too slow, disconnecting it");
+                subscription.emitter.complete();
+                subscription.close();
+            }
+        }
+    }
+
+    private final class Subscription {
+        private final SseEmitter emitter;
+        private final String assignee;
+        private final String group;
+        private final BlockingQueue<TaskChange> queue;
+        private volatile boolean open = true;
+
+        private Subscription(SseEmitter emitter, String assignee, String group, BlockingQueue<TaskChange> queue) {
+            this.emitter = emitter;
+            this.assignee = assignee;
+            this.group = group;
+            this.queue = queue;
+        }
+
+        boolean accepts(String taskAssignee, Set<String> taskGroups) {
+            return (assignee == null || assignee.equals(taskAssignee))
+                    && (group == null || taskGroups.contains(group));
+        }
+
+        void drain() {
+            long heartbeatMillis = workflowProperties.getTaskEvents().getHeartbeatInterval().toMillis();
+            try {
+                while (open) {
+                    TaskChange change = queue.poll(heartbeatMillis, TimeUnit.MILLISECONDS);
+                    if (change == null) {
+                        // Keeps proxies from closing an idle stream and detects clients that went away
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    } else {
+                        emitter.send(SseEmitter.event().name(change.type().name()).id(change.taskId()).data(change));
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                emitter.completeWithError(e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                close();
+            }
+        }
+
+        void close() {
+            open = false;
+            subscriptions.remove(this);
+        }
+    }
+}
@@ -0,0 +1,371 @@
+package com.example.workflow.inbox;
+
+import com.example.workflow.config.WorkflowProperties;
+import com.example.workflow.dto.TaskChange;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.flowable.common.engine.api.delegate.event.FlowableEngineEventType;
+import org.flowable.common.engine.api.delegate.event.FlowableEntityEvent;
+import org.flowable.common.engine.api.delegate.event.FlowableEvent;
+import org.flowable.common.engine.api.delegate.event.FlowableEventListener;
+import org.flowable.common.engine.impl.cfg.TransactionState;
+import org.flowable.engine.ManagementService;
+import org.flowable.engine.RuntimeService;
+import org.flowable.engine.TaskService;
+import org.flowable.identitylink.api.IdentityLink;
+import org.flowable.identitylink.api.IdentityLinkInfo;
+import org.flowable.identitylink.api.IdentityLinkType;
+import org.flowable.task.api.Task;
+import org.flowable.task.service.impl.persistence.entity.TaskEntity;
+import org.flowable.task.service.impl.persistence.entity.TaskEntityImpl;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory projection of the runtime tasks, indexed by assignee and candidate group.
+ * <p>
+ * Kept current by an engine event listener that applies changes once their transaction has committed,
+ * rebuilt from the database at startup and reconciled against it periodically. Reads never lock; writes are
+ * serialized. Events arriving during a rebuild are replayed onto the new index before it replaces the old one.
+ * <p>
+ * Stays off in scale-out mode, where it would only see the task changes made on its own node; lookups then query the
+ * database.
+ * <p>
+ * Every change applied from an engine event is also published as a {@link TaskChange} to the registered change listeners.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TaskInbox implements FlowableEventListener {
+    private static final Comparator<Task> TASK_ORDER = Comparator.comparing(Task::getCreateTime, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(Task::getId);
+
+    private final TaskService taskService;
+    private final RuntimeService runtimeService;
+    private final ManagementService managementService;
+    private final WorkflowProperties workflowProperties;
+
+    private final Object writeLock = new Object();
+    private volatile Index index = new Index();
+    private volatile boolean ready;
+    private List<IndexChange> pendingDuringRebuild;
+    private final List<Consumer<TaskChange>> changeListeners = new CopyOnWriteArrayList<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!isEnabled()) {
+            return;
+        }
+        runtimeService.addEventListener(this,
+                FlowableEngineEventType.TASK_CREATED, FlowableEngineEventType.TASK_ASSIGNED, FlowableEngineEventType.TASK_COMPLETED,
+                FlowableEngineEventType.ENTITY_CREATED, FlowableEngineEventType.ENTITY_UPDATED, FlowableEngineEventType.ENTITY_DELETED);
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${workflow.task-inbox.reconcile-interval:PT5M}", initialDelayString = "${workflow.task-inbox.reconcile-interval:PT5M}")
+    public void reconcile() {
+        if (ready) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Registers a listener notified of every task change after it has been applied to the index.
+     * Listeners run on the engine thread that committed the change and must not block.
+     */
+    public void addChangeListener(Consumer<TaskChange> listener) {
+        changeListeners.add(listener);
+    }
+
+    /**
+     * Whether this node maintains the index, i.e. the inbox is enabled and the node does not share the database with others.
+     */
+    public boolean isEnabled() {
+        return workflowProperties.getTaskInbox().isEnabled() && !workflowProperties.getScaleOut().isEnabled();
+    }
+
+    /**
+     * Whether the index has been built and can answer queries.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Returns the tasks assigned to the user, ordered by creation time.
+     */
+    public List<Task> getTasksByAssignee(String assignee) {
+        Index current = index;
+        return current.resolve(current.byAssignee.get(assignee), task -> true);
+    }
+
+    /**
+     * Returns the unassigned tasks the group is a candidate for, ordered by creation time.
+     * Like {@code TaskQuery.taskCandidateGroup}, tasks that already have an assignee are left out.
+     */
+    public List<Task> getTasksByCandidateGroup(String group) {
+        Index current = index;
+        return current.resolve(current.byGroup.get(group), task -> task.getAssignee() == null);
+    }
+
+    /**
+     * Replaces the index with one read from the database.
+     */
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        synchronized (writeLock) {
+            pendingDuringRebuild = new ArrayList<>();
+        }
+        try {
+            Index fresh = new Index();
+            int batchSize = workflowProperties.getTaskInbox().getRebuildBatchSize();
+            String sql = "SELECT RES.ID_ FROM " + managementService.getTableName(TaskEntity.class) + " RES WHERE RES.ID_ > #{after} ORDER BY RES.ID_";
+            String after = "";
+            List<Task> page;
+            do {
+                // Paging by ID rather than offset, so tasks completed while the rebuild runs cannot shift later ones out of view
+                page = taskService.createNativeTaskQuery().sql(sql).parameter("after", after).listPage(0, batchSize);
+                if (page.isEmpty()) {
+                    break;
+                }
+                Set<String> taskIds = page.stream().map(Task::getId).collect(Collectors.toSet());
+                for (Task task : taskService.createTaskQuery().taskIds(taskIds).includeIdentityLinks().list()) {
+                    fresh.putTask(snapshot(task));
+                    for (IdentityLinkInfo link : task.getIdentityLinks()) {
+                        if (isCandidateGroup(link)) {
+                            fresh.linkGroup(task.getId(), link.getGroupId());
+                        }
+                    }
+                }
+                after = page.getLast().getId();
+            } while (page.size() == batchSize);
+
+            synchronized (writeLock) {
+                pendingDuringRebuild.forEach(change -> change.applyTo(fresh));
+                index = fresh;
+                ready = true;
+            }
+            log.info("Task inbox rebuilt with [{}] tasks in [{}] ms", fresh.tasks.size(), System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            log.error("Task inbox rebuild failed", e);
+        } finally {
+            synchronized (writeLock) {
+                pendingDuringRebuild = null;
+            }
+        }
+    }
+
+    @Override
+    public void onEvent(FlowableEvent event) {
+        IndexChange change = toChange(event);
+        if (change == null) {
+            return;
+        }
+        TaskChange published;
+        synchronized (writeLock) {
+            published = change.applyTo(index);
+            if (pendingDuringRebuild != null) {
+                pendingDuringRebuild.add(change);
+            }
+        }
+        if (published != null) {
+            changeListeners.forEach(listener -> listener.accept(published));
+        }
+    }
+
+    private IndexChange toChange(FlowableEvent event) {
+        if (!(event instanceof FlowableEntityEvent entityEvent)) {
+            return null;
+        }
+        Object entity = entityEvent.getEntity();
+        if (entity instanceof Task task) {
+            if (event.getType() == FlowableEngineEventType.TASK_COMPLETED || event.getType() == FlowableEngineEventType.ENTITY_DELETED) {
+                String taskId = task.getId();
+                return current -> current.removeTask(taskId);
+            }
+            if (event.getType() != FlowableEngineEventType.ENTITY_CREATED) {
+                Task snapshot = snapshot(task);
+                TaskChange.Type type = event.getType() == FlowableEngineEventType.TASK_CREATED ? TaskChange.Type.CREATED
+                        : event.getType() == FlowableEngineEventType.TASK_ASSIGNED ? TaskChange.Type.ASSIGNED
+                        : TaskChange.Type.UPDATED;
+                return current -> current.putTask(snapshot, type);
+            }
+        } else if (entity instanceof IdentityLink link && isCandidateGroup(link)) {
+            String taskId = link.getTaskId();
+            String group = link.getGroupId();
+            if (event.getType() == FlowableEngineEventType.ENTITY_CREATED) {
+                return current -> current.addGroup(taskId, group);
+            }
+            if (event.getType() == FlowableEngineEventType.ENTITY_DELETED) {
+                return current -> current.removeGroup(taskId, group);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public boolean isFailOnException() {
+        // A broken projection must never fail the engine operation; reconciliation repairs it
+        return false;
+    }
+
+    @Override
+    public boolean isFireOnTransactionLifecycleEvent() {
+        return true;
+    }
+
+    @Override
+    public String getOnTransaction() {
+        return TransactionState.COMMITTED.name();
+    }
+
+    private static boolean isCandidateGroup(IdentityLinkInfo link) {
+        return link.getTaskId() != null && link.getGroupId() != null && IdentityLinkType.CANDIDATE.equals(link.getType());
+    }
+
+    /**
+     * Copies the fields of a task into a detached entity, so the index keeps neither engine state nor cached variables alive.
+     */
+    private static Task snapshot(Task task) {
+        TaskEntityImpl copy = new TaskEntityImpl();
+        copy.setId(task.getId());
+        copy.setName(task.getName());
+        copy.setDescription(task.getDescription());
+        copy.setAssignee(task.getAssignee());
+        copy.setOwner(task.getOwner());
+        copy.setPriority(task.getPriority());
+        copy.setCategory(task.getCategory());
+        copy.setFormKey(task.getFormKey());
+        copy.setCreateTime(task.getCreateTime());
+        copy.setClaimTime(task.getClaimTime());
+        copy.setDueDate(task.getDueDate());
+        copy.setProcessDefinitionId(task.getProcessDefinitionId());
+        copy.setProcessInstanceId(task.getProcessInstanceId());
+        copy.setExecutionId(task.getExecutionId());
+        copy.setTaskDefinitionKey(task.getTaskDefinitionKey());
+        copy.setTenantId(task.getTenantId());
+        copy.setSuspensionState(task.isSuspended() ? 2 : 1);
+        return copy;
+    }
+
+    /**
+     * A change derived from one engine event. It can be applied more than once, which is what happens
+     * when it arrives during a rebuild and is replayed onto the new index.
+     */
+    @FunctionalInterface
+    private interface IndexChange {
+        /**
+         * @return the change to publish, or null if the index was not affected
+         */
+        TaskChange applyTo(Index index);
+    }
+
+    private static final class Index {
+        private final Map<String, Task> tasks = new ConcurrentHashMap<>();
+        private final Map<String, Set<String>> byAssignee = new ConcurrentHashMap<>();
+        private final Map<String, Set<String>> byGroup = new ConcurrentHashMap<>();
+        private final Map<String, Set<String>> groupsByTask = new ConcurrentHashMap<>();
+
+        TaskChange putTask(Task task, TaskChange.Type type) {
+            Task previous = putTask(task);
+            return describe(type, task, previous != null ? previous.getAssignee() : null, groupsOf(task.getId()));
+        }
+
+        Task putTask(Task task) {
+            Task previous = tasks.put(task.getId(), task);
+            String previousAssignee = previous != null ? previous.getAssignee() : null;
+            if (!Objects.equals(previousAssignee, task.getAssignee())) {
+                unlink(byAssignee, previousAssignee, task.getId());
+                link(byAssignee, task.getAssignee(), task.getId());
+            }
+            return previous;
+        }
+
+        TaskChange removeTask(String taskId) {
+            Task previous = tasks.remove(taskId);
+            if (previous != null) {
+                unlink(byAssignee, previous.getAssignee(), taskId);
+            }
+            TaskChange change = previous != null ? describe(TaskChange.Type.REMOVED, previous, previous.getAssignee(), groupsOf(taskId)) : null;
+            Set<String> groups = groupsByTask.remove(taskId);
+            if (groups != null) {
+                groups.forEach(group -> unlink(byGroup, group, taskId));
+            }
+            return change;
+        }
+
+        TaskChange addGroup(String taskId, String group) {
+            Set<String> previousGroups = groupsOf(taskId);
+            linkGroup(taskId, group);
+            return describeUpdate(taskId, previousGroups);
+        }
+
+        void linkGroup(String taskId, String group) {
+            link(byGroup, group, taskId);
+            link(groupsByTask, taskId, group);
+        }
+
+        TaskChange removeGroup(String taskId, String group) {
+            Set<String> previousGroups = groupsOf(taskId);
+            unlink(byGroup, group, taskId);
+            unlink(groupsByTask, taskId, group);
+            return describeUpdate(taskId, previousGroups);
+        }
+
+        private TaskChange describeUpdate(String taskId, Set<String> previousGroups) {
+            Task task = tasks.get(taskId);
+            return task != null ? describe(TaskChange.Type.UPDATED, task, task.getAssignee(), previousGroups) : null;
+        }
+
+        private TaskChange describe(TaskChange.Type type, Task task, String previousAssignee, Set<String> previousGroups) {
+            return new TaskChange(type, task.getId(), task.getName(), task.getAssignee(), task.getProcessInstanceId(),
+                    task.getCreateTime(), task.getDueDate(), groupsOf(task.getId()), previousAssignee, previousGroups);
+        }
+
+        private Set<String> groupsOf(String taskId) {
+            Set<String> groups = groupsByTask.get(taskId);
+            return groups != null ? Set.copyOf(groups) : Set.of();
+        }
+
+        List<Task> resolve(Set<String> taskIds, Predicate<Task> filter) {
+            if (taskIds == null) {
+                return List.of();
+            }
+            List<Task> result = new ArrayList<>(taskIds.size());
+            for (String taskId : taskIds) {
+                Task task = tasks.get(taskId);
+                if (task != null && filter.test(task)) {
+                    result.add(task);
+                }
+            }
+            result.sort(TASK_ORDER);
+            return result;
+        }
+
+        private static void link(Map<String, Set<String>> index, String key, String value) {
+            if (key != null) {
+                index.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(value);
+            }
+        }
+
+        private static void unlink(Map<String, Set<String>> index, String key, String value) {
+            if (key != null) {
+                index.computeIfPresent(key, (k, values) -> values.remove(value) && values.isEmpty() ? null : values);
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.workflow.logging;
+
+import com.example.workflow.config.WorkflowProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+
+/**
+ * Renders variables for the log without writing large payloads: values longer than
+ * {@code workflow.logging.max-value-length} are replaced by their length and either a prefix or a hash.
+ */
+@Component
+@RequiredArgsConstructor
+public class LogPayloads {
+    private static final int HASH_BYTES = 8;
+
+    private final WorkflowProperties workflowProperties;
+
+    /**
+     * Renders variables as {@code {name=value, ...}} with every oversized value shortened.
+     *
+     * @param variables the variables, may be {@code null}
+     * @return the rendered variables
+     */
+    public String describe(Map<String, Object> variables) {
+        if (variables == null || variables.isEmpty()) {
+            return "{}";
+        }
+        StringBuilder result = new StringBuilder("{");
+        variables.forEach((name, value) -> {
+            if (result.length() > 1) {
+                result.append(", ");
+            }
+            result.append(name).append('=').append(describe(value));
+        });
+        return result.append('}').toString();
+    }
+
+    /**
+     * Renders one variable value, shortened if oversized.
+     *
+     * @param value the value, may be {@code null}
+     * @return the rendered value
+     */
+    public String describe(Object value) {
+        if (value instanceof byte[] bytes) {
+            return "<" + bytes.length + " bytes>";
+        }
+        String text = String.valueOf(value);
+        WorkflowProperties.Logging config = workflowProperties.getLogging();
+        if (text.length() <= config.getMaxValueLength()) {
+            return text;
+        }
+        if (config.getOversizedValues() == WorkflowProperties.Logging.OversizedValues.TRUNCATE) {
+            return text.substring(0, config.getMaxValueLength()) + "...<" + text.length() + " chars>";
+        }
+        return "<" + text.length() + " chars, sha256:" + hash(text) + ">";
+    }
+
+    private static String hash(String text) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, HASH_BYTES);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.workflow.logging;
+
+import com.example.workflow.config.WorkflowProperties;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.spi.LoggingEventBuilder;
+import org.slf4j.spi.NOPLoggingEventBuilder;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caps how often each high-frequency event is logged to {@code workflow.logging.sampled-events-per-second}.
+ * <p>
+ * Events over the cap in a second are dropped and counted; the next logged event of the same kind carries the count
+ * in its {@code suppressed} field.
+ */
+@Component
+@RequiredArgsConstructor
+public class LogSampler {
+    private final WorkflowProperties workflowProperties;
+
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+
+    /**
+     * Starts an INFO event of the given kind if the logger is enabled for INFO and the kind is under its cap.
+     *
+     * @param log   the logger
+     * @param event the kind of event, e.g. {@code process.started}
+     * @return a builder for the event, or a no-op builder if it is not logged
+     */
+    public LoggingEventBuilder atInfo(Logger log, String event) {
+        if (!log.isInfoEnabled()) {
+            return NOPLoggingEventBuilder.singleton();
+        }
+        int limit = workflowProperties.getLogging().getSampledEventsPerSecond();
+        if (limit <= 0) {
+            return log.atInfo().addKeyValue("event", event);
+        }
+        long suppressed = windows.computeIfAbsent(event, key -> new Window()).admit(System.currentTimeMillis() / 1000, limit);
+        if (suppressed < 0) {
+            return NOPLoggingEventBuilder.singleton();
+        }
+        LoggingEventBuilder builder = log.atInfo().addKeyValue("event", event);
+        return suppressed > 0 ? builder.addKeyValue("suppressed", suppressed) : builder;
+    }
+
+    private static final class Window {
+        private long second;
+        private int logged;
+        private long suppressed;
+
+        /**
+         * @return -1 if the event is over the cap, otherwise the number of events dropped since the last logged one
+         */
+        synchronized long admit(long now, int limit) {
+            if (now != second) {
+                second = now;
+                logged = 0;
+            }
+            if (logged >= limit) {
+                suppressed++;
+                return -1;
+            }
+            logged++;
+            long dropped = suppressed;
+            suppressed = 0;
+            return dropped;
+        }
+    }
+}
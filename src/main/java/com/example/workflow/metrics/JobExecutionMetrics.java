@@ -0,0 +1,78 @@
+package com.example.workflow.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.flowable.common.engine.api.delegate.event.FlowableEngineEventType;
+import org.flowable.common.engine.api.delegate.event.FlowableEvent;
+import org.flowable.common.engine.api.delegate.event.FlowableEventListener;
+import org.flowable.engine.RuntimeService;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts the jobs executed by this node, so each node's share of the job throughput is visible when several nodes
+ * share the database. Engine events are only seen by the node that executes the job.
+ */
+@Component
+@RequiredArgsConstructor
+public class JobExecutionMetrics implements FlowableEventListener, MeterBinder {
+    private final RuntimeService runtimeService;
+
+    private Counter succeeded;
+    private Counter failed;
+    private Counter rejected;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        succeeded = jobCounter(registry, "success");
+        failed = jobCounter(registry, "failure");
+        rejected = Counter.builder("workflow.jobs.rejected")
+                .description("Acquired jobs handed back because the job executor queue was full")
+                .register(registry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        runtimeService.addEventListener(this, FlowableEngineEventType.JOB_EXECUTION_SUCCESS,
+                FlowableEngineEventType.JOB_EXECUTION_FAILURE, FlowableEngineEventType.JOB_REJECTED);
+    }
+
+    @Override
+    public void onEvent(FlowableEvent event) {
+        if (succeeded == null) {
+            return;
+        }
+        if (event.getType() == FlowableEngineEventType.JOB_EXECUTION_SUCCESS) {
+            succeeded.increment();
+        } else if (event.getType() == FlowableEngineEventType.JOB_EXECUTION_FAILURE) {
+            failed.increment();
+        } else if (event.getType() == FlowableEngineEventType.JOB_REJECTED) {
+            rejected.increment();
+        }
+    }
+
+    @Override
+    public boolean isFailOnException() {
+        return false;
+    }
+
+    @Override
+    public boolean isFireOnTransactionLifecycleEvent() {
+        return false;
+    }
+
+    @Override
+    public String getOnTransaction() {
+        return null;
+    }
+
+    private static Counter jobCounter(MeterRegistry registry, String outcome) {
+        return Counter.builder("workflow.jobs.executed")
+                .description("Async and timer jobs executed by this node")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+}
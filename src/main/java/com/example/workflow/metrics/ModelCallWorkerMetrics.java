@@ -0,0 +1,60 @@
+package com.example.workflow.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts the model call jobs this node's {@link com.example.workflow.worker.ModelCallWorker} locks and times how long
+ * each takes from acquisition until it is completed or handed back as failed. External worker jobs never pass through
+ * the async job executor, so {@link JobExecutionMetrics} does not see them; in scale-out mode these meters carry the
+ * node tag like every other one.
+ */
+@Component
+public class ModelCallWorkerMetrics {
+    public static final String ACQUIRED_COUNTER_NAME = "workflow.model-call.acquired";
+    public static final String JOB_TIMER_NAME = "workflow.model-call.jobs";
+
+    private final Counter acquired;
+    private final Timer completed;
+    private final Timer failed;
+
+    public ModelCallWorkerMetrics(MeterRegistry meterRegistry) {
+        acquired = Counter.builder(ACQUIRED_COUNTER_NAME)
+                .description("Model call jobs locked by this node")
+                .register(meterRegistry);
+        completed = jobTimer(meterRegistry, "success");
+        failed = jobTimer(meterRegistry, "failure");
+    }
+
+    public void acquired(int jobs) {
+        acquired.increment(jobs);
+    }
+
+    /**
+     * @param acquiredAt {@link System#nanoTime()} when the job was locked
+     */
+    public void completed(long acquiredAt) {
+        completed.record(System.nanoTime() - acquiredAt, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Records a job handed back to the engine for a retry, or one whose lock was lost before it could be completed.
+     *
+     * @param acquiredAt {@link System#nanoTime()} when the job was locked
+     */
+    public void failed(long acquiredAt) {
+        failed.record(System.nanoTime() - acquiredAt, TimeUnit.NANOSECONDS);
+    }
+
+    private static Timer jobTimer(MeterRegistry registry, String outcome) {
+        return Timer.builder(JOB_TIMER_NAME)
+                .description("Model call jobs handled by this node, from acquisition to completion or failure")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.workflow.metrics;
+
+import com.example.workflow.admission.AdaptiveConcurrencyLimiter;
+import com.example.workflow.cache.CacheStats;
+import com.example.workflow.cache.ModelResultCache;
+import com.example.workflow.dto.AdmissionStats;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.flowable.engine.RuntimeService;
+import org.flowable.engine.TaskService;
+import org.springframework.stereotype.Component;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Engine-level gauges, model result cache counters and admission control state. Gauges run a count query on every scrape,
+ * not on the request path.
+ */
+@Component
+@RequiredArgsConstructor
+public class WorkflowGauges implements MeterBinder {
+    private final TaskService taskService;
+    private final RuntimeService runtimeService;
+    private final ModelResultCache modelResultCache;
+    private final AdaptiveConcurrencyLimiter admissionLimiter;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("workflow.tasks.active", taskService, service -> service.createTaskQuery().active().count())
+                .description("Active user tasks")
+                .register(registry);
+        Gauge.builder("workflow.processes.running", runtimeService, service -> service.createProcessInstanceQuery().active().count())
+                .description("Running process instances")
+                .register(registry);
+
+        cacheCounter(registry, "workflow.model-cache.hits", CacheStats::hits);
+        cacheCounter(registry, "workflow.model-cache.misses", CacheStats::misses);
+        cacheCounter(registry, "workflow.model-cache.evictions", CacheStats::evictions);
+        Gauge.builder("workflow.model-cache.size", modelResultCache, cache -> cache.stats().size())
+                .description("Model responses held in memory")
+                .register(registry);
+
+        Gauge.builder("workflow.admission.limit", admissionLimiter, limiter -> limiter.stats().limit())
+                .description("Adaptive concurrency limit of process starts and task completions")
+                .register(registry);
+        Gauge.builder("workflow.admission.in-flight", admissionLimiter, limiter -> limiter.stats().inFlight())
+                .description("Admitted process starts and task completions still running")
+                .register(registry);
+        Gauge.builder("workflow.admission.job-backlog", admissionLimiter, limiter -> limiter.stats().jobBacklog())
+                .description("Async and external worker jobs last seen waiting")
+                .register(registry);
+        rejectionCounter(registry, "concurrency", AdmissionStats::rejectedConcurrency);
+        rejectionCounter(registry, "quota", AdmissionStats::rejectedQuota);
+        rejectionCounter(registry, "job_backlog", AdmissionStats::rejectedJobBacklog);
+    }
+
+    private void rejectionCounter(MeterRegistry registry, String reason, ToDoubleFunction<AdmissionStats> value) {
+        FunctionCounter.builder("workflow.admission.rejected", admissionLimiter, limiter -> value.applyAsDouble(limiter.stats()))
+                .description("Calls rejected by admission control")
+                .tag("reason", reason)
+                .register(registry);
+    }
+
+    private void cacheCounter(MeterRegistry registry, String name, ToDoubleFunction<CacheStats> value) {
+        FunctionCounter.builder(name, modelResultCache, cache -> value.applyAsDouble(cache.stats()))
+                .register(registry);
+    }
+}
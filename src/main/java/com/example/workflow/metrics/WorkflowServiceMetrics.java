@@ -0,0 +1,138 @@
+package com.example.workflow.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.flowable.common.engine.api.delegate.event.FlowableEngineEventType;
+import org.flowable.common.engine.api.delegate.event.FlowableEntityEvent;
+import org.flowable.common.engine.api.delegate.event.FlowableEvent;
+import org.flowable.common.engine.api.delegate.event.FlowableEventListener;
+import org.flowable.common.engine.impl.cfg.TransactionState;
+import org.flowable.engine.RepositoryService;
+import org.flowable.engine.RuntimeService;
+import org.flowable.engine.repository.ProcessDefinition;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every {@link com.example.workflow.service.WorkflowService} call and counts its failures.
+ * <p>
+ * Meters are tagged with the method name and, for methods taking a {@code processKey} argument, the process key.
+ * They are looked up once per method/key pair and cached, so the hot path is a map lookup and a clock read. The key
+ * comes from the caller, so only keys of deployed process definitions become tag values; any other key is tagged
+ * {@code unknown}, which keeps the number of series bounded by the deployed definitions. The deployed keys are kept
+ * in memory, loaded at startup, extended by the definitions this node deploys and reloaded periodically for those
+ * deployed by other nodes, so telling a key apart never queries the database.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class WorkflowServiceMetrics implements FlowableEventListener {
+    public static final String TIMER_NAME = "workflow.service.calls";
+    public static final String ERROR_COUNTER_NAME = "workflow.service.errors";
+    private static final String NO_PROCESS_KEY = "none";
+    private static final String UNKNOWN_PROCESS_KEY = "unknown";
+
+    private final MeterRegistry meterRegistry;
+    private final RepositoryService repositoryService;
+    private final RuntimeService runtimeService;
+
+    private final Map<Method, Integer> processKeyIndexes = new ConcurrentHashMap<>();
+    private final Map<List<String>, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<List<String>, Counter> errorCounters = new ConcurrentHashMap<>();
+    private final Set<String> deployedProcessKeys = ConcurrentHashMap.newKeySet();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        runtimeService.addEventListener(this, FlowableEngineEventType.ENTITY_CREATED);
+        refreshProcessKeys();
+    }
+
+    /**
+     * Adds the keys of all deployed process definitions. Keys are never removed, so a series outlives its definition.
+     */
+    @Scheduled(fixedDelayString = "${workflow.metrics.process-key-refresh-interval:PT5M}", initialDelayString = "${workflow.metrics.process-key-refresh-interval:PT5M}")
+    public void refreshProcessKeys() {
+        repositoryService.createProcessDefinitionQuery().latestVersion().list()
+                .forEach(definition -> deployedProcessKeys.add(definition.getKey()));
+    }
+
+    @Override
+    public void onEvent(FlowableEvent event) {
+        if (event instanceof FlowableEntityEvent entityEvent && entityEvent.getEntity() instanceof ProcessDefinition definition) {
+            deployedProcessKeys.add(definition.getKey());
+        }
+    }
+
+    @Override
+    public boolean isFailOnException() {
+        return false;
+    }
+
+    @Override
+    public boolean isFireOnTransactionLifecycleEvent() {
+        return true;
+    }
+
+    @Override
+    public String getOnTransaction() {
+        return TransactionState.COMMITTED.name();
+    }
+
+    @Around("execution(* com.example.workflow.service.WorkflowService.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        List<String> tags = List.of(signature.getName(), processKeyOf(signature, joinPoint.getArgs()));
+        long start = System.nanoTime();
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            errorCounters.computeIfAbsent(tags, this::errorCounter).increment();
+            throw e;
+        } finally {
+            timers.computeIfAbsent(tags, this::timer).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private String processKeyOf(MethodSignature signature, Object[] args) {
+        int index = processKeyIndexes.computeIfAbsent(signature.getMethod(),
+                method -> Arrays.asList(signature.getParameterNames()).indexOf("processKey"));
+        if (index < 0 || args[index] == null) {
+            return NO_PROCESS_KEY;
+        }
+        String processKey = args[index].toString();
+        return deployedProcessKeys.contains(processKey) ? processKey : UNKNOWN_PROCESS_KEY;
+    }
+
+    private Timer timer(List<String> tags) {
+        return Timer.builder(TIMER_NAME)
+                .description("Latency of WorkflowService calls")
+                .tag("method", tags.get(0))
+                .tag("processKey", tags.get(1))
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private Counter errorCounter(List<String> tags) {
+        return Counter.builder(ERROR_COUNTER_NAME)
+                .description("Failed WorkflowService calls")
+                .tag("method", tags.get(0))
+                .tag("processKey", tags.get(1))
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.workflow.service;
+
+import com.example.workflow.dto.BulkOperationRequest;
+import com.example.workflow.dto.BulkOperationStatus;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface BulkOperationService {
+
+    /**
+     * Starts suspending, resuming or deleting all process instances matching the request in the background.
+     * Instances are processed in small chunks, each in its own transaction, at a bounded rate.
+     * <p>
+     * The filter excludes instances already handled, so submitting the same request again, e.g. after a restart,
+     * continues where the previous run stopped.
+     *
+     * @param request the action and the instance filter
+     * @return the status of the started operation
+     * @throws IllegalArgumentException if the request has no action or no filter
+     */
+    BulkOperationStatus start(BulkOperationRequest request);
+
+    /**
+     * Retrieves the status of a bulk operation.
+     *
+     * @param operationId the ID of the operation
+     * @return the status, or empty if the operation is unknown
+     */
+    Optional<BulkOperationStatus> getStatus(String operationId);
+
+    /**
+     * Retrieves the status of the running and recently finished bulk operations.
+     *
+     * @return the operations, most recent first
+     */
+    List<BulkOperationStatus> getOperations();
+
+    /**
+     * Pauses a running bulk operation after its current chunk.
+     *
+     * @param operationId the ID of the operation
+     * @return the status, or empty if the operation is unknown
+     */
+    Optional<BulkOperationStatus> pause(String operationId);
+
+    /**
+     * Continues a paused bulk operation.
+     *
+     * @param operationId the ID of the operation
+     * @return the status, or empty if the operation is unknown
+     */
+    Optional<BulkOperationStatus> resume(String operationId);
+
+    /**
+     * Stops a running or paused bulk operation after its current chunk.
+     *
+     * @param operationId the ID of the operation
+     * @return the status, or empty if the operation is unknown
+     */
+    Optional<BulkOperationStatus> cancel(String operationId);
+}
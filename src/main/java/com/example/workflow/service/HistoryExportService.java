@@ -0,0 +1,32 @@
+package com.example.workflow.service;
+
+import com.example.workflow.dto.FinishedProcessRecord;
+import org.flowable.engine.history.HistoricProcessInstance;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+public interface HistoryExportService {
+
+    /**
+     * Writes every finished process instance to the given stream as newline-delimited JSON.
+     * The history is read in fixed-size batches and the stream is flushed after each batch,
+     * so memory use does not depend on the size of the history.
+     *
+     * @param out              the stream to write to; it is flushed but not closed
+     * @param includeVariables whether to include the process variables of each instance
+     * @return the number of exported instances
+     * @throws IOException if writing to the stream fails
+     */
+    long exportFinishedProcesses(OutputStream out, boolean includeVariables) throws IOException;
+
+    /**
+     * Converts historic process instances into export records, loading the variables of all of them with a single query.
+     *
+     * @param instances        the finished instances
+     * @param includeVariables whether to include the process variables of each instance
+     * @return one record per instance, in the same order
+     */
+    List<FinishedProcessRecord> toRecords(List<HistoricProcessInstance> instances, boolean includeVariables);
+}
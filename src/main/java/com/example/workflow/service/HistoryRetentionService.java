@@ -0,0 +1,27 @@
+package com.example.workflow.service;
+
+import com.example.workflow.dto.RetentionStatus;
+
+public interface HistoryRetentionService {
+
+    /**
+     * Deletes finished process instances older than their configured retention age, together with all their
+     * history rows, in small chunks. Each chunk is archived first when archiving is enabled.
+     * Returns immediately if a run is already in progress.
+     */
+    void runCleanup();
+
+    /**
+     * Starts a cleanup run in the background.
+     *
+     * @return false if a run was already in progress
+     */
+    boolean triggerCleanup();
+
+    /**
+     * Retrieves the progress of the current or last cleanup run.
+     *
+     * @return the retention job status
+     */
+    RetentionStatus getStatus();
+}
@@ -1,8 +1,16 @@
 package com.example.workflow.service;
 
+import com.example.workflow.dto.BatchItemResult;
+import com.example.workflow.dto.KeysetPage;
+import com.example.workflow.dto.ProcessInstanceSummary;
+import com.example.workflow.dto.TaskCompletion;
+import com.example.workflow.dto.TaskSummary;
+import com.example.workflow.dto.TaskWithVariables;
+import org.flowable.engine.history.HistoricProcessInstance;
 import org.flowable.engine.runtime.ProcessInstance;
 import org.flowable.task.api.Task;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -13,8 +21,32 @@ public interface WorkflowService {
      *
      * @param processKey the key of the process definition
      * @param variables  the variables to start the process with
+     * @return the ID of the started process instance
      */
-    void startProcess(String processKey, Map<String, Object> variables);
+    String startProcess(String processKey, Map<String, Object> variables);
+
+    /**
+     * Starts a new process instance unless one was already started with the same idempotency key, in which case
+     * the ID of that instance is returned and nothing is started. Concurrent calls with the same key start at most
+     * one instance.
+     *
+     * @param processKey     the key of the process definition
+     * @param variables      the variables to start the process with
+     * @param idempotencyKey the client-chosen key identifying this start, or null to always start
+     * @return the ID of the started or previously started process instance
+     * @throws IllegalArgumentException if the key was already used to start a different process
+     */
+    String startProcess(String processKey, Map<String, Object> variables, String idempotencyKey);
+
+    /**
+     * Starts one process instance per variables map. Instances are started in chunks that are each
+     * committed in a single transaction; a failing item is reported without failing the rest of the batch.
+     *
+     * @param processKey    the key of the process definition
+     * @param variablesList the variables of each instance to start
+     * @return one result per submitted item, in submission order, holding the instance ID or the error
+     */
+    List<BatchItemResult> startProcesses(String processKey, List<Map<String, Object>> variablesList);
 
     /**
      * Suspends the process instance identified by the given process instance ID.
@@ -54,6 +86,15 @@ public interface WorkflowService {
      */
     void completeTask(String taskId, Map<String, Object> variables);
 
+    /**
+     * Completes the given tasks, each with its own variables. Tasks are processed in chunks that are
+     * each committed in a single transaction; a failing task is reported without failing the rest of the batch.
+     *
+     * @param completions the tasks to complete and their variables
+     * @return one result per submitted task, in submission order
+     */
+    List<BatchItemResult> completeTasks(List<TaskCompletion> completions);
+
     /**
      * Claims the task identified by the given task ID for the specified user.
      *
@@ -62,6 +103,15 @@ public interface WorkflowService {
      */
     void claimTask(String taskId, String userId);
 
+    /**
+     * Claims the given tasks for the specified user, in chunks like {@link #completeTasks(List)}.
+     *
+     * @param taskIds the IDs of the tasks to claim
+     * @param userId  the ID of the user claiming the tasks
+     * @return one result per submitted task, in submission order
+     */
+    List<BatchItemResult> claimTasks(List<String> taskIds, String userId);
+
     /**
      * Unclaims the task identified by the given task ID, making it available for others.
      *
@@ -77,6 +127,15 @@ public interface WorkflowService {
      */
     void assignTask(String taskId, String userId);
 
+    /**
+     * Assigns the given tasks to the specified user, in chunks like {@link #completeTasks(List)}.
+     *
+     * @param taskIds the IDs of the tasks to assign
+     * @param userId  the ID of the user to assign the tasks to
+     * @return one result per submitted task, in submission order
+     */
+    List<BatchItemResult> assignTasks(List<String> taskIds, String userId);
+
     /**
      * Retrieves a list of active task IDs for the specified process instance.
      *
@@ -92,6 +151,37 @@ public interface WorkflowService {
      */
     List<Task> getAllActiveTasks();
 
+    /**
+     * Retrieves one page of active tasks, ordered by creation time and then by task ID.
+     *
+     * @param cursor   the cursor returned with the previous page, or null for the first page
+     * @param pageSize the maximum number of tasks to return
+     * @return the page of active tasks
+     */
+    KeysetPage<Task> getActiveTasksPage(String cursor, int pageSize);
+
+    /**
+     * Retrieves one page of active tasks as compact rows, reading only the columns of the selected fields.
+     *
+     * @param cursor   the cursor returned with the previous page, or null for the first page
+     * @param pageSize the maximum number of tasks to return
+     * @param fields   the {@link TaskSummary#FIELDS} to fill, or null or empty for all
+     * @return the page of task rows and the cursor of the next page
+     * @throws IllegalArgumentException if a field is unknown
+     */
+    KeysetPage<TaskSummary> getActiveTaskSummaries(String cursor, int pageSize, Collection<String> fields);
+
+    /**
+     * Retrieves one page of active tasks together with variables of their process instances.
+     * The variables of the whole page are read with a single query instead of one lookup per task.
+     *
+     * @param cursor        the cursor returned with the previous page, or null for the first page
+     * @param pageSize      the maximum number of tasks to return
+     * @param variableNames the process variables to include, or null or empty for all
+     * @return the page of tasks with their variables and the cursor of the next page
+     */
+    KeysetPage<TaskWithVariables> getActiveTasksWithVariables(String cursor, int pageSize, Collection<String> variableNames);
+
     /**
      * Retrieves tasks assigned to the specified assignee.
      *
@@ -117,13 +207,54 @@ public interface WorkflowService {
     Task getTaskById(String taskId);
 
     /**
-     * Retrieves all variables associated with the specified process instance.
+     * Retrieves all variables associated with the specified process instance, reading externalized content.
      *
      * @param processInstanceId the ID of the process instance
      * @return a map of process variables
      */
     Map<String, Object> getProcessVariables(String processInstanceId);
 
+    /**
+     * Retrieves only the named variables of the specified process instance in a single query, reading externalized
+     * content.
+     *
+     * @param processInstanceId the ID of the process instance
+     * @param variableNames     the names of the variables to fetch; null or empty fetches all
+     * @return a map of the process variables that are set
+     */
+    Map<String, Object> getProcessVariables(String processInstanceId, Collection<String> variableNames);
+
+    /**
+     * Like {@link #getProcessVariables(String, Collection)}, but returns externalized large values as
+     * {@link com.example.workflow.blob.BlobReference}s without reading them, for callers that only need their size or
+     * resolve them selectively.
+     *
+     * @param processInstanceId the ID of the process instance
+     * @param variableNames     the names of the variables to fetch; null or empty fetches all
+     * @return a map of the process variables that are set
+     */
+    Map<String, Object> getUnresolvedProcessVariables(String processInstanceId, Collection<String> variableNames);
+
+    /**
+     * Computes a version of the named variables of the specified process instance from their revisions alone,
+     * without loading any value, so callers can skip reading and resending unchanged variables.
+     *
+     * @param processInstanceId the ID of the process instance
+     * @param variableNames     the names of the variables to version; null or empty versions all
+     * @return an opaque version that changes whenever one of the variables is created, updated or removed,
+     * or null if the process instance does not exist
+     */
+    String getProcessVariablesVersion(String processInstanceId, Collection<String> variableNames);
+
+    /**
+     * Retrieves a single variable of the specified process instance, reading externalized content if needed.
+     *
+     * @param processInstanceId the ID of the process instance
+     * @param variableName      the name of the variable
+     * @return the variable value, or null if not set
+     */
+    Object getProcessVariable(String processInstanceId, String variableName);
+
     /**
      * Sets a variable for the specified process instance.
      *
@@ -134,13 +265,52 @@ public interface WorkflowService {
     void setProcessVariable(String processInstanceId, String variableName, Object value);
 
     /**
-     * Retrieves all variables associated with the specified task.
+     * Retrieves all variables associated with the specified task, reading externalized content.
      *
      * @param taskId the ID of the task
      * @return a map of task variables
      */
     Map<String, Object> getTaskVariables(String taskId);
 
+    /**
+     * Retrieves only the named variables visible to the specified task in a single query, reading externalized content.
+     *
+     * @param taskId        the ID of the task
+     * @param variableNames the names of the variables to fetch; null or empty fetches all
+     * @return a map of the task variables that are set
+     */
+    Map<String, Object> getTaskVariables(String taskId, Collection<String> variableNames);
+
+    /**
+     * Like {@link #getTaskVariables(String, Collection)}, but returns externalized large values as
+     * {@link com.example.workflow.blob.BlobReference}s without reading them.
+     *
+     * @param taskId        the ID of the task
+     * @param variableNames the names of the variables to fetch; null or empty fetches all
+     * @return a map of the task variables that are set
+     */
+    Map<String, Object> getUnresolvedTaskVariables(String taskId, Collection<String> variableNames);
+
+    /**
+     * Computes a version of the named variables visible to the specified task from their revisions alone.
+     * Variables local to other executions of the same process instance are included too, so the version may
+     * change without a visible variable changing, but never stays the same when one does.
+     *
+     * @param taskId        the ID of the task
+     * @param variableNames the names of the variables to version; null or empty versions all
+     * @return an opaque version of the variables, or null if the task does not exist
+     */
+    String getTaskVariablesVersion(String taskId, Collection<String> variableNames);
+
+    /**
+     * Retrieves a single variable visible to the specified task, reading externalized content if needed.
+     *
+     * @param taskId       the ID of the task
+     * @param variableName the name of the variable
+     * @return the variable value, or null if not set
+     */
+    Object getTaskVariable(String taskId, String variableName);
+
     /**
      * Sets a variable for the specified task.
      *
@@ -157,10 +327,48 @@ public interface WorkflowService {
      */
     List<ProcessInstance> getRunningProcesses();
 
+    /**
+     * Retrieves one page of running process instances, ordered by start time and then by instance ID.
+     *
+     * @param cursor   the cursor returned with the previous page, or null for the first page
+     * @param pageSize the maximum number of process instances to return
+     * @return the page of running process instances
+     */
+    KeysetPage<ProcessInstance> getRunningProcessesPage(String cursor, int pageSize);
+
+    /**
+     * Retrieves one page of running process instances as compact rows, reading only the columns of the selected fields.
+     *
+     * @param cursor   the cursor returned with the previous page, or null for the first page
+     * @param pageSize the maximum number of instances to return
+     * @param fields   the {@link ProcessInstanceSummary#FIELDS} to fill, or null or empty for all
+     * @return the page of process instance rows and the cursor of the next page
+     * @throws IllegalArgumentException if a field is unknown
+     */
+    KeysetPage<ProcessInstanceSummary> getRunningProcessSummaries(String cursor, int pageSize, Collection<String> fields);
+
     /**
      * Retrieves the IDs of all finished process instances.
      *
      * @return a list of finished process instance IDs
      */
     List<String> getFinishedProcesses();
+
+    /**
+     * Retrieves one page of finished process instance IDs, ordered by end time and then by instance ID.
+     *
+     * @param cursor   the cursor returned with the previous page, or null for the first page
+     * @param pageSize the maximum number of IDs to return
+     * @return the page of finished process instance IDs
+     */
+    KeysetPage<String> getFinishedProcessesPage(String cursor, int pageSize);
+
+    /**
+     * Retrieves one page of finished historic process instances, ordered by end time and then by instance ID.
+     *
+     * @param cursor   the cursor returned with the previous page, or null for the first page
+     * @param pageSize the maximum number of instances to return
+     * @return the page of finished historic process instances
+     */
+    KeysetPage<HistoricProcessInstance> getFinishedProcessInstancesPage(String cursor, int pageSize);
 }
\ No newline at end of file
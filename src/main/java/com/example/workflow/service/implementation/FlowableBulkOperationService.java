@@ -0,0 +1,288 @@
+package com.example.workflow.service.implementation;
+
+import com.example.workflow.config.WorkflowProperties;
+import com.example.workflow.dto.BulkOperationRequest;
+import com.example.workflow.dto.BulkOperationStatus;
+import com.example.workflow.service.BulkOperationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.flowable.engine.RuntimeService;
+import org.flowable.engine.runtime.ProcessInstance;
+import org.flowable.engine.runtime.ProcessInstanceQuery;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Runs bulk operations on virtual threads, one chunk at a time.
+ * <p>
+ * Every chunk re-runs the filter query from the position after the last instance visited, ordered by start time and
+ * ID, so instances the action failed on, or that changed state meanwhile, never shift which rows come next. Chunks
+ * are committed one by one and paced to {@code workflow.bulk-operations.max-items-per-second} (0 leaves them
+ * unpaced), so no transaction holds many row locks for long.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FlowableBulkOperationService implements BulkOperationService {
+    private final RuntimeService runtimeService;
+    private final TransactionTemplate transactionTemplate;
+    private final WorkflowProperties workflowProperties;
+
+    private final Map<String, Operation> operations = new LinkedHashMap<>();
+
+    private static final class Operation {
+        private final String id = UUID.randomUUID().toString();
+        private final BulkOperationRequest request;
+        private final Instant startedAt = Instant.now();
+        private volatile BulkOperationStatus.State state = BulkOperationStatus.State.RUNNING;
+        private volatile long processed;
+        private volatile long failed;
+        private volatile Instant finishedAt;
+        private volatile String lastError;
+        // Keyset position: start time and ID of the last instance visited, and how many visited instances share that start time
+        private Date lastStartTime;
+        private String lastId;
+        private int visitedAtLastStartTime;
+
+        private Operation(BulkOperationRequest request) {
+            this.request = request;
+        }
+
+        private synchronized void transition(BulkOperationStatus.State from, BulkOperationStatus.State to) {
+            if (state == from || (from == null && !state.isFinished())) {
+                state = to;
+                if (to.isFinished()) {
+                    finishedAt = Instant.now();
+                }
+            }
+        }
+
+        private BulkOperationStatus status() {
+            Instant end = finishedAt != null ? finishedAt : Instant.now();
+            double seconds = Math.max(Duration.between(startedAt, end).toMillis(), 1) / 1000.0;
+            return new BulkOperationStatus(id, request, state, processed, failed, startedAt, finishedAt, processed / seconds, lastError);
+        }
+    }
+
+    @Override
+    public BulkOperationStatus start(BulkOperationRequest request) {
+        if (request.action() == null) {
+            throw new IllegalArgumentException("A bulk operation needs an action");
+        }
+        if (request.processDefinitionKey() == null && (request.variables() == null || request.variables().isEmpty())) {
+            throw new IllegalArgumentException("A bulk operation needs a process definition key or variables to filter by");
+        }
+        Operation operation = new Operation(request);
+        synchronized (operations) {
+            operations.put(operation.id, operation);
+            pruneFinished();
+        }
+        log.info("Starting bulk operation [{}]: [{}]", operation.id, request);
+        Thread.ofVirtual().name("bulk-operation-" + operation.id).start(() -> run(operation));
+        return operation.status();
+    }
+
+    @Override
+    public Optional<BulkOperationStatus> getStatus(String operationId) {
+        return find(operationId).map(Operation::status);
+    }
+
+    @Override
+    public List<BulkOperationStatus> getOperations() {
+        List<BulkOperationStatus> result;
+        synchronized (operations) {
+            result = new ArrayList<>(operations.values().stream().map(Operation::status).toList());
+        }
+        return result.reversed();
+    }
+
+    @Override
+    public Optional<BulkOperationStatus> pause(String operationId) {
+        return find(operationId).map(operation -> {
+            operation.transition(BulkOperationStatus.State.RUNNING, BulkOperationStatus.State.PAUSED);
+            log.info("Pausing bulk operation [{}]", operationId);
+            return operation.status();
+        });
+    }
+
+    @Override
+    public Optional<BulkOperationStatus> resume(String operationId) {
+        return find(operationId).map(operation -> {
+            operation.transition(BulkOperationStatus.State.PAUSED, BulkOperationStatus.State.RUNNING);
+            log.info("Resuming bulk operation [{}]", operationId);
+            return operation.status();
+        });
+    }
+
+    @Override
+    public Optional<BulkOperationStatus> cancel(String operationId) {
+        return find(operationId).map(operation -> {
+            operation.transition(null, BulkOperationStatus.State.CANCELLED);
+            log.info("Cancelling bulk operation [{}]", operationId);
+            return operation.status();
+        });
+    }
+
+    private void run(Operation operation) {
+        WorkflowProperties.BulkOperations config = workflowProperties.getBulkOperations();
+        Consumer<String> action = actionOf(operation.request);
+        try {
+            while (awaitRunnable(operation)) {
+                long start = System.nanoTime();
+                List<ProcessInstance> chunk = nextChunk(operation, config.getChunkSize());
+                if (chunk.isEmpty()) {
+                    operation.transition(null, BulkOperationStatus.State.COMPLETED);
+                    break;
+                }
+                advance(operation, chunk);
+                List<String> ids = chunk.stream().map(ProcessInstance::getId).toList();
+                runChunk(operation, ids, action);
+                // Pace the operation: a chunk of n items takes at least n / max-items-per-second
+                if (config.getMaxItemsPerSecond() > 0) {
+                    long minNanos = ids.size() * TimeUnit.SECONDS.toNanos(1) / config.getMaxItemsPerSecond();
+                    TimeUnit.NANOSECONDS.sleep(minNanos - (System.nanoTime() - start));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            operation.transition(null, BulkOperationStatus.State.CANCELLED);
+        } catch (RuntimeException e) {
+            log.error("Bulk operation [{}] failed", operation.id, e);
+            operation.lastError = e.getMessage();
+            operation.transition(null, BulkOperationStatus.State.FAILED);
+        }
+        log.info("Bulk operation [{}] ended [{}] after processing [{}] instances, [{}] failed",
+                operation.id, operation.state, operation.processed, operation.failed);
+    }
+
+    /**
+     * Loads the next instances after the operation's keyset position. The query can only bound the start time
+     * inclusively, so it over-fetches by the instances already visited at the last start time and drops them here.
+     */
+    private List<ProcessInstance> nextChunk(Operation operation, int chunkSize) {
+        ProcessInstanceQuery query = query(operation.request);
+        if (operation.lastStartTime == null) {
+            return query.listPage(0, chunkSize);
+        }
+        return query.startedAfter(operation.lastStartTime)
+                .listPage(0, chunkSize + operation.visitedAtLastStartTime).stream()
+                .filter(instance -> isAfterPosition(operation, instance))
+                .limit(chunkSize)
+                .toList();
+    }
+
+    private static boolean isAfterPosition(Operation operation, ProcessInstance instance) {
+        int byStartTime = instance.getStartTime().compareTo(operation.lastStartTime);
+        return byStartTime > 0 || (byStartTime == 0 && instance.getId().compareTo(operation.lastId) > 0);
+    }
+
+    private static void advance(Operation operation, List<ProcessInstance> chunk) {
+        ProcessInstance last = chunk.getLast();
+        int visited = last.getStartTime().equals(operation.lastStartTime) ? operation.visitedAtLastStartTime : 0;
+        for (ProcessInstance instance : chunk) {
+            if (instance.getStartTime().equals(last.getStartTime())) {
+                visited++;
+            }
+        }
+        operation.lastStartTime = last.getStartTime();
+        operation.lastId = last.getId();
+        operation.visitedAtLastStartTime = visited;
+    }
+
+    /**
+     * Waits while the operation is paused.
+     *
+     * @return whether the operation should go on
+     */
+    private static boolean awaitRunnable(Operation operation) throws InterruptedException {
+        while (operation.state == BulkOperationStatus.State.PAUSED) {
+            TimeUnit.MILLISECONDS.sleep(500);
+        }
+        return operation.state == BulkOperationStatus.State.RUNNING;
+    }
+
+    /**
+     * Runs the action on the chunk in one transaction; if that fails, replays it item by item so only the failing
+     * instances are counted as failed.
+     */
+    private void runChunk(Operation operation, List<String> ids, Consumer<String> action) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> ids.forEach(action));
+            operation.processed += ids.size();
+            return;
+        } catch (RuntimeException e) {
+            log.warn("Bulk operation [{}] chunk failed, retrying its items one by one: [{}]", operation.id, e.getMessage());
+        }
+        for (String id : ids) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> action.accept(id));
+                operation.processed++;
+            } catch (RuntimeException e) {
+                log.warn("Bulk operation [{}] failed on process instance [{}]: [{}]", operation.id, id, e.getMessage());
+                operation.lastError = id + ": " + e.getMessage();
+                operation.failed++;
+            }
+        }
+    }
+
+    private ProcessInstanceQuery query(BulkOperationRequest request) {
+        ProcessInstanceQuery query = runtimeService.createProcessInstanceQuery();
+        if (request.processDefinitionKey() != null) {
+            query.processDefinitionKey(request.processDefinitionKey());
+        }
+        if (request.variables() != null) {
+            request.variables().forEach(query::variableValueEquals);
+        }
+        switch (request.action()) {
+            case SUSPEND -> query.active();
+            case RESUME -> query.suspended();
+            case DELETE -> {
+            }
+        }
+        return query.orderByStartTime().asc().orderByProcessInstanceId().asc();
+    }
+
+    private Consumer<String> actionOf(BulkOperationRequest request) {
+        return switch (request.action()) {
+            case SUSPEND -> runtimeService::suspendProcessInstanceById;
+            case RESUME -> runtimeService::activateProcessInstanceById;
+            case DELETE -> {
+                String reason = request.reason() != null ? request.reason() : "Bulk delete";
+                yield id -> runtimeService.deleteProcessInstance(id, reason);
+            }
+        };
+    }
+
+    private Optional<Operation> find(String operationId) {
+        synchronized (operations) {
+            return Optional.ofNullable(operations.get(operationId));
+        }
+    }
+
+    /**
+     * Forgets the oldest finished operations beyond {@code workflow.bulk-operations.retained-operations}.
+     */
+    private void pruneFinished() {
+        int excess = operations.size() - workflowProperties.getBulkOperations().getRetainedOperations();
+        Iterator<Operation> iterator = operations.values().iterator();
+        while (excess > 0 && iterator.hasNext()) {
+            if (iterator.next().state.isFinished()) {
+                iterator.remove();
+                excess--;
+            }
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.workflow.service.implementation;
+
+import com.example.workflow.cluster.ClusterLock;
+import com.example.workflow.config.WorkflowProperties;
+import com.example.workflow.dto.RetentionStatus;
+import com.example.workflow.service.HistoryExportService;
+import com.example.workflow.service.HistoryRetentionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.flowable.engine.HistoryService;
+import org.flowable.engine.history.HistoricProcessInstance;
+import org.flowable.engine.history.HistoricProcessInstanceQuery;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Deletes finished history in chunks sized to stay within {@code workflow.history-retention.target-chunk-duration}:
+ * the chunk size halves when a chunk takes too long and grows again while chunks stay fast, so each delete
+ * transaction holds its locks only briefly. Chunks are separated by a pause to leave room for regular traffic.
+ * With several nodes, a run only starts on the node that takes the {@link ClusterLock}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FlowableHistoryRetentionService implements HistoryRetentionService {
+    private static final int MIN_CHUNK_SIZE = 10;
+    private static final String LOCK_NAME = "history-retention";
+
+    private final HistoryService historyService;
+    private final ClusterLock clusterLock;
+    private final HistoryExportService historyExportService;
+    private final ObjectMapper objectMapper;
+    private final WorkflowProperties workflowProperties;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile int chunkSize;
+    private volatile Instant lastRunStarted;
+    private volatile Instant lastRunFinished;
+    private volatile long deletedInRun;
+    private volatile long archivedInRun;
+    private volatile long deletedTotal;
+    private volatile long chunksInRun;
+    private volatile long lastChunkMillis;
+    private volatile String lastError;
+
+    @Scheduled(fixedDelayString = "${workflow.history-retention.interval:PT1H}", initialDelayString = "${workflow.history-retention.interval:PT1H}")
+    public void scheduledCleanup() {
+        if (workflowProperties.getHistoryRetention().isEnabled()) {
+            runCleanup();
+        }
+    }
+
+    @Override
+    public boolean triggerCleanup() {
+        if (running.get()) {
+            return false;
+        }
+        Thread.ofVirtual().name("history-retention").start(this::runCleanup);
+        return true;
+    }
+
+    @Override
+    public void runCleanup() {
+        if (!running.compareAndSet(false, true)) {
+            log.info("History cleanup already running, skipping");
+            return;
+        }
+        try {
+            if (!clusterLock.runExclusively(LOCK_NAME, this::cleanupAll)) {
+                log.info("History cleanup is running on another node, skipping");
+            }
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private void cleanupAll() {
+        WorkflowProperties.HistoryRetention config = workflowProperties.getHistoryRetention();
+        lastRunStarted = Instant.now();
+        deletedInRun = 0;
+        archivedInRun = 0;
+        chunksInRun = 0;
+        lastError = null;
+        if (chunkSize == 0) {
+            chunkSize = config.getMaxChunkSize();
+        }
+        log.info("Starting history cleanup with retention [{}] and per-key overrides [{}]", config.getDefaultMaxAge(), config.getMaxAge());
+        try (HistoryArchiveWriter archive = config.getArchive().isEnabled() ? new HistoryArchiveWriter(Path.of(config.getArchive().getDirectory()),
+                config.getArchive().getMaxFileSize().toBytes(), objectMapper.writer()) : null) {
+            Instant now = Instant.now();
+            for (Map.Entry<String, Duration> maxAge : config.getMaxAge().entrySet()) {
+                Date cutoff = Date.from(now.minus(maxAge.getValue()));
+                cleanup(maxAge.getKey(), () -> historyService.createHistoricProcessInstanceQuery()
+                        .processDefinitionKey(maxAge.getKey()).finishedBefore(cutoff), archive, config);
+            }
+            if (config.getDefaultMaxAge() != null) {
+                Date cutoff = Date.from(now.minus(config.getDefaultMaxAge()));
+                List<String> overridden = new ArrayList<>(config.getMaxAge().keySet());
+                cleanup("*", () -> {
+                    HistoricProcessInstanceQuery query = historyService.createHistoricProcessInstanceQuery().finishedBefore(cutoff);
+                    return overridden.isEmpty() ? query : query.processDefinitionKeyNotIn(overridden);
+                }, archive, config);
+            }
+        } catch (IOException | RuntimeException e) {
+            lastError = String.valueOf(e);
+            log.error("History cleanup failed", e);
+        } finally {
+            lastRunFinished = Instant.now();
+            log.info("History cleanup deleted [{}] instances in [{}] chunks", deletedInRun, chunksInRun);
+        }
+    }
+
+    /**
+     * Deletes the instances matched by the query chunk by chunk until none is left. Since every chunk is deleted,
+     * the query always reads its first page.
+     */
+    private void cleanup(String processKey, Supplier<HistoricProcessInstanceQuery> query, HistoryArchiveWriter archive,
+                         WorkflowProperties.HistoryRetention config) throws IOException {
+        long targetMillis = config.getTargetChunkDuration().toMillis();
+        while (running.get()) {
+            long start = System.currentTimeMillis();
+            List<HistoricProcessInstance> chunk = query.get().orderByProcessInstanceEndTime().asc().listPage(0, chunkSize);
+            if (chunk.isEmpty()) {
+                return;
+            }
+            if (archive != null) {
+                archive.append(historyExportService.toRecords(chunk, config.getArchive().isIncludeVariables()));
+                archivedInRun += chunk.size();
+            }
+            historyService.bulkDeleteHistoricProcessInstances(chunk.stream().map(HistoricProcessInstance::getId).toList());
+            deletedInRun += chunk.size();
+            deletedTotal += chunk.size();
+            chunksInRun++;
+            lastChunkMillis = System.currentTimeMillis() - start;
+            log.debug("Deleted [{}] finished instances of [{}] in [{}] ms", chunk.size(), processKey, lastChunkMillis);
+
+            chunkSize = lastChunkMillis > targetMillis ? Math.max(MIN_CHUNK_SIZE, chunkSize / 2)
+                    : Math.min(config.getMaxChunkSize(), chunkSize + Math.max(1, chunkSize / 4));
+            try {
+                Thread.sleep(config.getPauseBetweenChunks().toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    @Override
+    public RetentionStatus getStatus() {
+        Instant started = lastRunStarted;
+        Instant end = running.get() || lastRunFinished == null ? Instant.now() : lastRunFinished;
+        double seconds = started != null ? Math.max(Duration.between(started, end).toMillis(), 1) / 1000.0 : 1;
+        return new RetentionStatus(running.get(), started, lastRunFinished, deletedInRun, archivedInRun, deletedTotal,
+                chunksInRun, chunkSize, lastChunkMillis, deletedInRun / seconds, lastError);
+    }
+}
@@ -1,17 +1,67 @@
 package com.example.workflow.service.implementation;
 
+import com.example.workflow.blob.LargeVariables;
+import com.example.workflow.config.WorkflowProperties;
+import com.example.workflow.definition.TransientVariables;
+import com.example.workflow.dto.BatchItemResult;
+import com.example.workflow.dto.KeysetPage;
+import com.example.workflow.dto.TaskCompletion;
+import com.example.workflow.idempotency.IdempotencyCache;
+import com.example.workflow.idempotency.IdempotencyKey;
+import com.example.workflow.idempotency.IdempotencyKeyRepository;
+import com.example.workflow.inbox.TaskInbox;
+import com.example.workflow.logging.LogPayloads;
+import com.example.workflow.logging.LogSampler;
+import com.example.workflow.dto.PageCursor;
+import com.example.workflow.dto.ProcessInstanceSummary;
+import com.example.workflow.dto.TaskSummary;
+import com.example.workflow.dto.TaskWithVariables;
 import com.example.workflow.service.WorkflowService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.flowable.common.engine.api.query.NativeQuery;
+import org.flowable.common.engine.impl.db.HasRevision;
+import org.flowable.common.engine.impl.persistence.entity.ByteArrayEntity;
 import org.flowable.engine.HistoryService;
+import org.flowable.engine.ManagementService;
+import org.flowable.engine.RepositoryService;
 import org.flowable.engine.RuntimeService;
 import org.flowable.engine.TaskService;
+import org.flowable.engine.history.HistoricProcessInstance;
+import org.flowable.engine.impl.persistence.entity.ExecutionEntity;
+import org.flowable.engine.impl.persistence.entity.HistoricProcessInstanceEntity;
+import org.flowable.engine.impl.persistence.entity.ProcessDefinitionEntity;
 import org.flowable.engine.runtime.ProcessInstance;
 import org.flowable.task.api.Task;
+import org.flowable.task.service.impl.persistence.entity.TaskEntity;
+import org.flowable.variable.api.persistence.entity.VariableInstance;
+import org.flowable.variable.api.runtime.NativeVariableInstanceQuery;
+import org.flowable.variable.service.impl.persistence.entity.VariableInstanceEntity;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
+import java.util.function.IntFunction;
 import java.util.stream.Collectors;
 
 
@@ -19,161 +69,677 @@ import java.util.stream.Collectors;
 @Service
 @RequiredArgsConstructor
 public class FlowableWorkflowService implements WorkflowService {
+    private static final Map<String, String> TASK_SUMMARY_COLUMNS = Map.of("id", "ID_", "name", "NAME_", "assignee", "ASSIGNEE_",
+            "processInstanceId", "PROC_INST_ID_", "processDefinitionId", "PROC_DEF_ID_", "taskDefinitionKey", "TASK_DEF_KEY_",
+            "createTime", "CREATE_TIME_", "dueDate", "DUE_DATE_", "priority", "PRIORITY_");
+    private static final Map<String, String> PROCESS_SUMMARY_COLUMNS = Map.of("id", "ID_", "processDefinitionId", "PROC_DEF_ID_",
+            "processDefinitionKey", "PROC_DEF_ID_", "businessKey", "BUSINESS_KEY_", "name", "NAME_", "startTime", "START_TIME_",
+            "startUserId", "START_USER_ID_");
+
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 191;
+
     private final RuntimeService runtimeService;
+    private final RepositoryService repositoryService;
     private final TaskService taskService;
     private final HistoryService historyService;
+    private final ManagementService managementService;
+    private final TransactionTemplate transactionTemplate;
+    private final WorkflowProperties workflowProperties;
+    private final ExecutorService batchExecutor;
+    private final TaskInbox taskInbox;
+    private final LargeVariables largeVariables;
+    private final TransientVariables transientVariables;
+    private final IdempotencyCache idempotencyCache;
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final LogSampler logSampler;
+    private final LogPayloads logPayloads;
+
+    private final Map<String, CompletableFuture<IdempotencyCache.Started>> idempotentStarts = new ConcurrentHashMap<>();
 
     @Override
-    public void startProcess(String processKey, Map<String, Object> variables) {
-        log.info("Starting process with key: [{}] and variables: [{}]", processKey, variables);
-        String processInstanceId = runtimeService.startProcessInstanceByKey(processKey, variables).getId();
-        log.info("Started process instance with ID: [{}]", processInstanceId);
+    public String startProcess(String processKey, Map<String, Object> variables) {
+        TransientVariables.Split split = transientVariables.split(processKey, variables);
+        Map<String, Object> persistent = largeVariables.externalize(split.variables());
+        log.debug("Starting process with key: [{}]", processKey);
+        String processInstanceId = start(processKey, persistent, split.transientVariables());
+        logSampler.atInfo(log, "process.started")
+                .addKeyValue("processKey", processKey)
+                .addKeyValue("processInstanceId", processInstanceId)
+                .addKeyValue("variables", () -> logPayloads.describe(persistent))
+                .addKeyValue("transientVariables", () -> split.transientVariables().keySet())
+                .log("Process instance started");
+        return processInstanceId;
+    }
+
+    private String start(String processKey, Map<String, Object> variables, Map<String, Object> transients) {
+        if (transients.isEmpty()) {
+            return runtimeService.startProcessInstanceByKey(processKey, variables).getId();
+        }
+        return runtimeService.createProcessInstanceBuilder()
+                .processDefinitionKey(processKey)
+                .variables(variables != null ? variables : Map.of())
+                .transientVariables(transients)
+                .start()
+                .getId();
+    }
+
+    @Override
+    public String startProcess(String processKey, Map<String, Object> variables, String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return startProcess(processKey, variables);
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency key must have 1 to " + MAX_IDEMPOTENCY_KEY_LENGTH + " characters");
+        }
+        IdempotencyCache.Started cached = idempotencyCache.get(idempotencyKey);
+        if (cached != null) {
+            log.info("Process start with idempotency key [{}] already done: [{}]", idempotencyKey, cached.processInstanceId());
+            return checkProcessKey(idempotencyKey, processKey, cached);
+        }
+        // Retries racing on this node wait for the first attempt instead of each trying the insert
+        CompletableFuture<IdempotencyCache.Started> attempt = new CompletableFuture<>();
+        CompletableFuture<IdempotencyCache.Started> inFlight = idempotentStarts.putIfAbsent(idempotencyKey, attempt);
+        if (inFlight != null) {
+            try {
+                return checkProcessKey(idempotencyKey, processKey, inFlight.join());
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+        try {
+            IdempotencyCache.Started started = startOnce(processKey, variables, idempotencyKey);
+            idempotencyCache.put(idempotencyKey, started);
+            attempt.complete(started);
+            return checkProcessKey(idempotencyKey, processKey, started);
+        } catch (RuntimeException e) {
+            attempt.completeExceptionally(e);
+            throw e;
+        } finally {
+            idempotentStarts.remove(idempotencyKey, attempt);
+        }
+    }
+
+    /**
+     * Inserts the key before starting the instance, in the same transaction: a concurrent start with the same key on
+     * another node blocks on the insert and fails once this transaction commits, before doing any work.
+     */
+    private IdempotencyCache.Started startOnce(String processKey, Map<String, Object> variables, String idempotencyKey) {
+        try {
+            return transactionTemplate.execute(status -> idempotencyKeyRepository.findById(idempotencyKey)
+                    .map(existing -> new IdempotencyCache.Started(existing.getProcessDefinitionKey(), existing.getProcessInstanceId()))
+                    .orElseGet(() -> {
+                        IdempotencyKey key = idempotencyKeyRepository.saveAndFlush(new IdempotencyKey(idempotencyKey, processKey, Instant.now()));
+                        key.setProcessInstanceId(startProcess(processKey, variables));
+                        return new IdempotencyCache.Started(processKey, key.getProcessInstanceId());
+                    }));
+        } catch (DataIntegrityViolationException e) {
+            log.info("Process start with idempotency key [{}] was done concurrently", idempotencyKey);
+            return idempotencyKeyRepository.findById(idempotencyKey)
+                    .map(existing -> new IdempotencyCache.Started(existing.getProcessDefinitionKey(), existing.getProcessInstanceId()))
+                    .orElseThrow(() -> e);
+        }
+    }
+
+    private static String checkProcessKey(String idempotencyKey, String processKey, IdempotencyCache.Started started) {
+        if (!started.processDefinitionKey().equals(processKey)) {
+            throw new IllegalArgumentException("Idempotency key " + idempotencyKey + " was already used for process " + started.processDefinitionKey());
+        }
+        return started.processInstanceId();
+    }
+
+    @Override
+    public List<BatchItemResult> startProcesses(String processKey, List<Map<String, Object>> variablesList) {
+        log.debug("Starting [{}] process instances with key: [{}]", variablesList.size(), processKey);
+        List<BatchItemResult> results = runInChunks(variablesList.size(), i -> null,
+                i -> {
+                    TransientVariables.Split split = transientVariables.split(processKey, variablesList.get(i));
+                    return start(processKey, largeVariables.externalize(split.variables()), split.transientVariables());
+                });
+        log.info("Started [{}] of [{}] process instances with key: [{}]", countSucceeded(results), variablesList.size(), processKey);
+        return results;
     }
 
     @Override
     public void completeTask(String taskId, Map<String, Object> variables) {
-        log.info("Completing task with ID: [{}] and variables: [{}]", taskId, variables);
-        taskService.complete(taskId, variables);
-        log.info("Task [{}] completed successfully", taskId);
+        TransientVariables.Split split = transientVariables.splitForTask(taskId, variables);
+        Map<String, Object> persistent = largeVariables.externalize(split.variables());
+        log.debug("Completing task with ID: [{}]", taskId);
+        complete(taskId, persistent, split.transientVariables());
+        logSampler.atInfo(log, "task.completed")
+                .addKeyValue("taskId", taskId)
+                .addKeyValue("variables", () -> logPayloads.describe(persistent))
+                .addKeyValue("transientVariables", () -> split.transientVariables().keySet())
+                .log("Task completed");
+    }
+
+    private void complete(String taskId, Map<String, Object> variables, Map<String, Object> transients) {
+        if (transients.isEmpty()) {
+            taskService.complete(taskId, variables);
+        } else {
+            taskService.complete(taskId, variables, transients);
+        }
+    }
+
+    @Override
+    public List<BatchItemResult> completeTasks(List<TaskCompletion> completions) {
+        log.debug("Completing [{}] tasks", completions.size());
+        List<BatchItemResult> results = runInChunks(completions.size(), i -> completions.get(i).taskId(), i -> {
+            TaskCompletion completion = completions.get(i);
+            TransientVariables.Split split = transientVariables.splitForTask(completion.taskId(), completion.variables());
+            complete(completion.taskId(), largeVariables.externalize(split.variables()), split.transientVariables());
+            return completion.taskId();
+        });
+        log.info("Completed [{}] of [{}] tasks", countSucceeded(results), completions.size());
+        return results;
     }
 
     @Override
     public List<String> getActiveTasks(String processInstanceId) {
-        log.info("Fetching active tasks for processInstanceId: [{}]", processInstanceId);
+        log.debug("Fetching active tasks for processInstanceId: [{}]", processInstanceId);
         List<String> taskIds = taskService.createTaskQuery().processInstanceId(processInstanceId).list().stream().map(Task::getId).collect(Collectors.toList());
-        log.info("Active tasks for processInstanceId [{}]: [{}]", processInstanceId, taskIds);
+        log.debug("Active tasks for processInstanceId [{}]: [{}]", processInstanceId, taskIds);
         return taskIds;
     }
 
     public List<Task> getAllActiveTasks() {
-        log.info("Fetching all active tasks");
+        log.debug("Fetching all active tasks");
         List<Task> result = taskService.createTaskQuery().active().list();
-        log.info("Total active tasks: [{}]", result.size());
+        log.debug("Total active tasks: [{}]", result.size());
         return result;
     }
 
+    @Override
+    public KeysetPage<Task> getActiveTasksPage(String cursor, int pageSize) {
+        log.debug("Fetching active tasks page after cursor [{}] with size [{}]", cursor, pageSize);
+        KeysetPage<Task> page = fetchPage(taskService.createNativeTaskQuery(), "SELECT RES.*" + activeTasksFrom(), "CREATE_TIME_",
+                PageCursor.decode(cursor), pageSize, Task::getCreateTime, Task::getId);
+        log.debug("Fetched [{}] active tasks, has next page: [{}]", page.items().size(), page.hasNext());
+        return page;
+    }
+
+    @Override
+    public KeysetPage<TaskSummary> getActiveTaskSummaries(String cursor, int pageSize, Collection<String> fields) {
+        Set<String> selected = selectFields(fields, TaskSummary.FIELDS);
+        log.debug("Fetching active task summaries [{}] after cursor [{}] with size [{}]", selected, cursor, pageSize);
+        String sql = "SELECT " + selectColumns(selected, TASK_SUMMARY_COLUMNS, "CREATE_TIME_") + activeTasksFrom();
+        KeysetPage<Task> page = fetchPage(taskService.createNativeTaskQuery(), sql, "CREATE_TIME_",
+                PageCursor.decode(cursor), pageSize, Task::getCreateTime, Task::getId);
+        return page.map(task -> new TaskSummary(task.getId(),
+                selected.contains("name") ? task.getName() : null,
+                selected.contains("assignee") ? task.getAssignee() : null,
+                selected.contains("processInstanceId") ? task.getProcessInstanceId() : null,
+                selected.contains("processDefinitionId") ? task.getProcessDefinitionId() : null,
+                selected.contains("taskDefinitionKey") ? task.getTaskDefinitionKey() : null,
+                selected.contains("createTime") ? task.getCreateTime() : null,
+                selected.contains("dueDate") ? task.getDueDate() : null,
+                selected.contains("priority") ? task.getPriority() : null));
+    }
+
+    @Override
+    public KeysetPage<TaskWithVariables> getActiveTasksWithVariables(String cursor, int pageSize, Collection<String> variableNames) {
+        log.debug("Fetching active tasks with variables [{}] after cursor [{}] with size [{}]", variableNames, cursor, pageSize);
+        KeysetPage<Task> page = fetchPage(taskService.createNativeTaskQuery(), "SELECT RES.*" + activeTasksFrom(), "CREATE_TIME_",
+                PageCursor.decode(cursor), pageSize, Task::getCreateTime, Task::getId);
+        Set<String> processInstanceIds = page.items().stream().map(Task::getProcessInstanceId)
+                .filter(Objects::nonNull).collect(Collectors.toCollection(LinkedHashSet::new));
+        Map<String, Map<String, Object>> variables = getProcessVariables(processInstanceIds, variableNames);
+        log.debug("Fetched [{}] active tasks with variables of [{}] process instances", page.items().size(), variables.size());
+        return page.map(task -> new TaskWithVariables(task.getId(), task.getName(), task.getAssignee(), task.getProcessInstanceId(),
+                task.getProcessDefinitionId(), task.getTaskDefinitionKey(), task.getCreateTime(), task.getDueDate(), task.getPriority(),
+                variables.getOrDefault(task.getProcessInstanceId(), Map.of())));
+    }
+
+    /**
+     * Reads the process-level variables of many process instances with one query.
+     * Values are read inside one engine command, so values kept in byte arrays can still be loaded.
+     *
+     * @return the resolved variables by process instance ID; instances without any selected variable are left out
+     */
+    private Map<String, Map<String, Object>> getProcessVariables(Set<String> processInstanceIds, Collection<String> variableNames) {
+        if (processInstanceIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, Map<String, Object>> variables = managementService.executeCommand(commandContext -> {
+            NativeVariableInstanceQuery query = runtimeService.createNativeVariableInstanceQuery();
+            StringBuilder sql = new StringBuilder("SELECT RES.* FROM " + managementService.getTableName(VariableInstanceEntity.class) + " RES WHERE RES.TASK_ID_ IS NULL AND RES.EXECUTION_ID_ IN (")
+                    .append(inParameters(query, "executionId", processInstanceIds)).append(')');
+            if (variableNames != null && !variableNames.isEmpty()) {
+                sql.append(" AND RES.NAME_ IN (").append(inParameters(query, "name", Set.copyOf(variableNames))).append(')');
+            }
+            Map<String, Map<String, Object>> byInstance = new HashMap<>();
+            for (VariableInstance variable : query.sql(sql.toString()).list()) {
+                byInstance.computeIfAbsent(variable.getExecutionId(), id -> new TreeMap<>()).put(variable.getName(), variable.getValue());
+            }
+            return byInstance;
+        });
+        variables.replaceAll((processInstanceId, values) -> largeVariables.resolveAll(values));
+        return variables;
+    }
+
+    /**
+     * Binds each value as its own named parameter and returns the placeholder list for an SQL {@code IN} clause.
+     */
+    private static String inParameters(NativeVariableInstanceQuery query, String prefix, Collection<String> values) {
+        List<String> placeholders = new ArrayList<>(values.size());
+        for (String value : values) {
+            String name = prefix + placeholders.size();
+            query.parameter(name, value);
+            placeholders.add("#{" + name + "}");
+        }
+        return String.join(", ", placeholders);
+    }
+
     @Override
     public void suspendProcess(String processInstanceId) {
-        log.info("Suspending process instance: [{}]", processInstanceId);
+        log.debug("Suspending process instance: [{}]", processInstanceId);
         runtimeService.suspendProcessInstanceById(processInstanceId);
         log.info("Process [{}] suspended", processInstanceId);
     }
 
     @Override
     public void resumeProcess(String processInstanceId) {
-        log.info("Resuming process instance: [{}]", processInstanceId);
+        log.debug("Resuming process instance: [{}]", processInstanceId);
         runtimeService.activateProcessInstanceById(processInstanceId);
         log.info("Process [{}] resumed", processInstanceId);
     }
 
     @Override
     public void deleteProcess(String processInstanceId, String reason) {
-        log.info("Deleting process instance: [{}] with reason: [{}]", processInstanceId, reason);
+        log.debug("Deleting process instance: [{}] with reason: [{}]", processInstanceId, reason);
         runtimeService.deleteProcessInstance(processInstanceId, reason);
         log.info("Process [{}] deleted", processInstanceId);
     }
 
     @Override
     public ProcessInstance getProcessInstance(String processInstanceId) {
-        log.info("Fetching process instance with ID: [{}]", processInstanceId);
+        log.debug("Fetching process instance with ID: [{}]", processInstanceId);
         ProcessInstance pi = runtimeService.createProcessInstanceQuery().processInstanceId(processInstanceId).singleResult();
-        log.info("Process instance [{}] fetched successfully", processInstanceId);
+        log.debug("Process instance [{}] fetched successfully", processInstanceId);
         return pi;
     }
 
     @Override
     public void claimTask(String taskId, String userId) {
-        log.info("Claiming task [{}] for user [{}]", taskId, userId);
+        log.debug("Claiming task [{}] for user [{}]", taskId, userId);
         taskService.claim(taskId, userId);
         log.info("Task [{}] claimed by [{}]", taskId, userId);
     }
 
+    @Override
+    public List<BatchItemResult> claimTasks(List<String> taskIds, String userId) {
+        log.debug("Claiming [{}] tasks for user [{}]", taskIds.size(), userId);
+        List<BatchItemResult> results = runInChunks(taskIds.size(), taskIds::get, i -> {
+            taskService.claim(taskIds.get(i), userId);
+            return taskIds.get(i);
+        });
+        log.info("Claimed [{}] of [{}] tasks for user [{}]", countSucceeded(results), taskIds.size(), userId);
+        return results;
+    }
+
     @Override
     public void unclaimTask(String taskId) {
-        log.info("Unclaiming task [{}]", taskId);
+        log.debug("Unclaiming task [{}]", taskId);
         taskService.unclaim(taskId);
         log.info("Task [{}] unclaimed", taskId);
     }
 
     @Override
     public void assignTask(String taskId, String userId) {
-        log.info("Assigning task [{}] to user [{}]", taskId, userId);
+        log.debug("Assigning task [{}] to user [{}]", taskId, userId);
         taskService.setAssignee(taskId, userId);
         log.info("Task [{}] assigned to [{}]", taskId, userId);
     }
 
+    @Override
+    public List<BatchItemResult> assignTasks(List<String> taskIds, String userId) {
+        log.debug("Assigning [{}] tasks to user [{}]", taskIds.size(), userId);
+        List<BatchItemResult> results = runInChunks(taskIds.size(), taskIds::get, i -> {
+            taskService.setAssignee(taskIds.get(i), userId);
+            return taskIds.get(i);
+        });
+        log.info("Assigned [{}] of [{}] tasks to user [{}]", countSucceeded(results), taskIds.size(), userId);
+        return results;
+    }
+
     @Override
     public List<Task> getTasksByAssignee(String assignee) {
-        log.info("Fetching tasks for assignee [{}]", assignee);
-        List<Task> result = taskService.createTaskQuery().taskAssignee(assignee).list();
-        log.info("Found [{}] tasks for assignee [{}]", result.size(), assignee);
+        log.debug("Fetching tasks for assignee [{}]", assignee);
+        List<Task> result = taskInbox.isReady() ? taskInbox.getTasksByAssignee(assignee)
+                : taskService.createTaskQuery().taskAssignee(assignee).list();
+        log.debug("Found [{}] tasks for assignee [{}]", result.size(), assignee);
         return result;
     }
 
     @Override
     public List<Task> getTasksByCandidateGroup(String group) {
-        log.info("Fetching tasks for candidate group [{}]", group);
-        List<Task> result = taskService.createTaskQuery().taskCandidateGroup(group).list();
-        log.info("Found [{}] tasks for candidate group [{}]", result.size(), group);
+        log.debug("Fetching tasks for candidate group [{}]", group);
+        List<Task> result = taskInbox.isReady() ? taskInbox.getTasksByCandidateGroup(group)
+                : taskService.createTaskQuery().taskCandidateGroup(group).list();
+        log.debug("Found [{}] tasks for candidate group [{}]", result.size(), group);
         return result;
     }
 
     @Override
     public Task getTaskById(String taskId) {
-        log.info("Fetching task by ID [{}]", taskId);
+        log.debug("Fetching task by ID [{}]", taskId);
         Task task = taskService.createTaskQuery().taskId(taskId).singleResult();
         if (task != null) {
-            log.info("Task [{}] found", taskId);
+            log.debug("Task [{}] found", taskId);
         } else {
-            log.info("Task [{}] not found", taskId);
+            log.debug("Task [{}] not found", taskId);
         }
         return task;
     }
 
     @Override
     public Map<String, Object> getProcessVariables(String processInstanceId) {
-        log.info("Fetching variables for process [{}]", processInstanceId);
+        log.debug("Fetching variables for process [{}]", processInstanceId);
         Map<String, Object> vars = runtimeService.getVariables(processInstanceId);
-        log.info("Process [{}] variables fetched: [{}]", processInstanceId, vars.keySet());
-        return vars;
+        log.debug("Process [{}] variables fetched: [{}]", processInstanceId, vars.keySet());
+        return largeVariables.resolveAll(vars);
+    }
+
+    @Override
+    public Map<String, Object> getProcessVariables(String processInstanceId, Collection<String> variableNames) {
+        return largeVariables.resolveAll(getUnresolvedProcessVariables(processInstanceId, variableNames));
+    }
+
+    @Override
+    public Map<String, Object> getUnresolvedProcessVariables(String processInstanceId, Collection<String> variableNames) {
+        log.debug("Fetching variables [{}] for process [{}]", variableNames, processInstanceId);
+        return variableNames == null || variableNames.isEmpty()
+                ? runtimeService.getVariables(processInstanceId)
+                : runtimeService.getVariables(processInstanceId, variableNames);
+    }
+
+    @Override
+    public String getProcessVariablesVersion(String processInstanceId, Collection<String> variableNames) {
+        NativeVariableInstanceQuery query = runtimeService.createNativeVariableInstanceQuery().parameter("owner", processInstanceId);
+        String sql = "SELECT VAR.ID_, VAR.REV_, BYTES.REV_ AS LONG_, OWNER.ID_ AS EXECUTION_ID_ FROM "
+                + managementService.getTableName(ExecutionEntity.class) + " OWNER LEFT OUTER JOIN "
+                + managementService.getTableName(VariableInstanceEntity.class) + " VAR ON VAR.EXECUTION_ID_ = OWNER.ID_ AND VAR.TASK_ID_ IS NULL"
+                + nameFilter(query, variableNames) + " LEFT OUTER JOIN " + managementService.getTableName(ByteArrayEntity.class)
+                + " BYTES ON BYTES.ID_ = VAR.BYTEARRAY_ID_ WHERE OWNER.ID_ = #{owner} ORDER BY VAR.ID_";
+        return toVersion(query.sql(sql).list());
+    }
+
+    @Override
+    public Object getProcessVariable(String processInstanceId, String variableName) {
+        log.debug("Fetching variable [{}] for process [{}]", variableName, processInstanceId);
+        return largeVariables.resolve(runtimeService.getVariable(processInstanceId, variableName));
     }
 
     @Override
     public void setProcessVariable(String processInstanceId, String variableName, Object value) {
-        log.info("Setting variable [{}] for process [{}] with value [{}]", variableName, processInstanceId, value);
-        runtimeService.setVariable(processInstanceId, variableName, value);
-        log.info("Process variable [{}] set for process [{}]", variableName, processInstanceId);
+        Object stored = largeVariables.externalize(value);
+        log.debug("Setting variable [{}] for process [{}]", variableName, processInstanceId);
+        runtimeService.setVariable(processInstanceId, variableName, stored);
+        logSampler.atInfo(log, "process.variable.set")
+                .addKeyValue("processInstanceId", processInstanceId)
+                .addKeyValue("variable", variableName)
+                .addKeyValue("value", () -> logPayloads.describe(stored))
+                .log("Process variable set");
     }
 
     @Override
     public Map<String, Object> getTaskVariables(String taskId) {
-        log.info("Fetching variables for task [{}]", taskId);
+        log.debug("Fetching variables for task [{}]", taskId);
         Map<String, Object> vars = taskService.getVariables(taskId);
-        log.info("Task [{}] variables fetched: [{}]", taskId, vars.keySet());
-        return vars;
+        log.debug("Task [{}] variables fetched: [{}]", taskId, vars.keySet());
+        return largeVariables.resolveAll(vars);
+    }
+
+    @Override
+    public Map<String, Object> getTaskVariables(String taskId, Collection<String> variableNames) {
+        return largeVariables.resolveAll(getUnresolvedTaskVariables(taskId, variableNames));
+    }
+
+    @Override
+    public Map<String, Object> getUnresolvedTaskVariables(String taskId, Collection<String> variableNames) {
+        log.debug("Fetching variables [{}] for task [{}]", variableNames, taskId);
+        return variableNames == null || variableNames.isEmpty()
+                ? taskService.getVariables(taskId)
+                : taskService.getVariables(taskId, variableNames);
+    }
+
+    @Override
+    public String getTaskVariablesVersion(String taskId, Collection<String> variableNames) {
+        NativeVariableInstanceQuery query = runtimeService.createNativeVariableInstanceQuery().parameter("owner", taskId);
+        String sql = "SELECT VAR.ID_, VAR.REV_, BYTES.REV_ AS LONG_, OWNER.ID_ AS TASK_ID_ FROM "
+                + managementService.getTableName(TaskEntity.class) + " OWNER LEFT OUTER JOIN "
+                + managementService.getTableName(VariableInstanceEntity.class) + " VAR ON (VAR.TASK_ID_ = OWNER.ID_"
+                + " OR (VAR.PROC_INST_ID_ = OWNER.PROC_INST_ID_ AND VAR.TASK_ID_ IS NULL))" + nameFilter(query, variableNames)
+                + " LEFT OUTER JOIN " + managementService.getTableName(ByteArrayEntity.class)
+                + " BYTES ON BYTES.ID_ = VAR.BYTEARRAY_ID_ WHERE OWNER.ID_ = #{owner} ORDER BY VAR.ID_";
+        return toVersion(query.sql(sql).list());
+    }
+
+    @Override
+    public Object getTaskVariable(String taskId, String variableName) {
+        log.debug("Fetching variable [{}] for task [{}]", variableName, taskId);
+        return largeVariables.resolve(taskService.getVariable(taskId, variableName));
     }
 
     @Override
     public void setTaskVariable(String taskId, String variableName, Object value) {
-        log.info("Setting variable [{}] for task [{}] with value [{}]", variableName, taskId, value);
-        taskService.setVariable(taskId, variableName, value);
-        log.info("Task variable [{}] set for task [{}]", variableName, taskId);
+        Object stored = largeVariables.externalize(value);
+        log.debug("Setting variable [{}] for task [{}]", variableName, taskId);
+        taskService.setVariable(taskId, variableName, stored);
+        logSampler.atInfo(log, "task.variable.set")
+                .addKeyValue("taskId", taskId)
+                .addKeyValue("variable", variableName)
+                .addKeyValue("value", () -> logPayloads.describe(stored))
+                .log("Task variable set");
     }
 
     @Override
     public List<ProcessInstance> getRunningProcesses() {
-        log.info("Fetching all running processes");
+        log.debug("Fetching all running processes");
         List<ProcessInstance> result = runtimeService.createProcessInstanceQuery().active().list();
-        log.info("Total running processes: [{}]", result.size());
+        log.debug("Total running processes: [{}]", result.size());
         return result;
     }
 
+    @Override
+    public KeysetPage<ProcessInstance> getRunningProcessesPage(String cursor, int pageSize) {
+        log.debug("Fetching running processes page after cursor [{}] with size [{}]", cursor, pageSize);
+        KeysetPage<ProcessInstance> page = fetchPage(runtimeService.createNativeProcessInstanceQuery(), "SELECT RES.*" + runningProcessesFrom(), "START_TIME_",
+                PageCursor.decode(cursor), pageSize, ProcessInstance::getStartTime, ProcessInstance::getId);
+        log.debug("Fetched [{}] running processes, has next page: [{}]", page.items().size(), page.hasNext());
+        return page;
+    }
+
+    @Override
+    public KeysetPage<ProcessInstanceSummary> getRunningProcessSummaries(String cursor, int pageSize, Collection<String> fields) {
+        Set<String> selected = selectFields(fields, ProcessInstanceSummary.FIELDS);
+        log.debug("Fetching running process summaries [{}] after cursor [{}] with size [{}]", selected, cursor, pageSize);
+        String sql = "SELECT " + selectColumns(selected, PROCESS_SUMMARY_COLUMNS, "START_TIME_") + runningProcessesFrom();
+        KeysetPage<ProcessInstance> page = fetchPage(runtimeService.createNativeProcessInstanceQuery(), sql, "START_TIME_",
+                PageCursor.decode(cursor), pageSize, ProcessInstance::getStartTime, ProcessInstance::getId);
+        // Definitions come from the engine's deployment cache, not from a join
+        Map<String, String> definitionKeys = new HashMap<>();
+        return page.map(instance -> new ProcessInstanceSummary(instance.getId(),
+                selected.contains("processDefinitionId") ? instance.getProcessDefinitionId() : null,
+                selected.contains("processDefinitionKey") ? definitionKeys.computeIfAbsent(instance.getProcessDefinitionId(),
+                        id -> repositoryService.getProcessDefinition(id).getKey()) : null,
+                selected.contains("businessKey") ? instance.getBusinessKey() : null,
+                selected.contains("name") ? instance.getName() : null,
+                selected.contains("startTime") ? instance.getStartTime() : null,
+                selected.contains("startUserId") ? instance.getStartUserId() : null));
+    }
+
     @Override
     public List<String> getFinishedProcesses() {
-        log.info("Fetching all finished processes");
+        log.debug("Fetching all finished processes");
         List<String> result = historyService.createHistoricProcessInstanceQuery().finished().list().stream().peek(h -> log.debug("Finished process instance: [{}]", h.getId())).map(h -> h.getId()).collect(Collectors.toList());
-        log.info("Total finished processes: [{}]", result.size());
+        log.debug("Total finished processes: [{}]", result.size());
         return result;
     }
 
+    @Override
+    public KeysetPage<String> getFinishedProcessesPage(String cursor, int pageSize) {
+        return getFinishedProcessInstancesPage(cursor, pageSize).map(HistoricProcessInstance::getId);
+    }
+
+    @Override
+    public KeysetPage<HistoricProcessInstance> getFinishedProcessInstancesPage(String cursor, int pageSize) {
+        log.debug("Fetching finished processes page after cursor [{}] with size [{}]", cursor, pageSize);
+        KeysetPage<HistoricProcessInstance> page = fetchPage(historyService.createNativeHistoricProcessInstanceQuery(), finishedProcessesSql(), "END_TIME_",
+                PageCursor.decode(cursor), pageSize, HistoricProcessInstance::getEndTime, HistoricProcessInstance::getId);
+        log.debug("Fetched [{}] finished processes, has next page: [{}]", page.items().size(), page.hasNext());
+        return page;
+    }
+
+    // Keyset predicates: (time, id) strictly after the cursor, so pages stay stable while rows are inserted.
+    // KeysetIndexes creates the matching (time, ID_) indexes.
+
+    private String activeTasksFrom() {
+        return " FROM " + managementService.getTableName(TaskEntity.class) + " RES WHERE RES.SUSPENSION_STATE_ = 1";
+    }
+
+    private String runningProcessesFrom() {
+        return " FROM " + managementService.getTableName(ExecutionEntity.class) + " RES WHERE RES.PARENT_ID_ IS NULL AND RES.SUSPENSION_STATE_ = 1";
+    }
+
+    private String finishedProcessesSql() {
+        return "SELECT RES.*, DEF.KEY_ AS PROC_DEF_KEY_, DEF.NAME_ AS PROC_DEF_NAME_, DEF.VERSION_ AS PROC_DEF_VERSION_ FROM "
+                + managementService.getTableName(HistoricProcessInstanceEntity.class) + " RES LEFT OUTER JOIN "
+                + managementService.getTableName(ProcessDefinitionEntity.class) + " DEF ON RES.PROC_DEF_ID_ = DEF.ID_ WHERE RES.END_TIME_ IS NOT NULL";
+    }
+
+    private static Set<String> selectFields(Collection<String> fields, List<String> available) {
+        if (fields == null || fields.isEmpty()) {
+            return Set.copyOf(available);
+        }
+        for (String field : fields) {
+            if (!available.contains(field)) {
+                throw new IllegalArgumentException("Unknown field " + field + ", expected one of " + available);
+            }
+        }
+        return Set.copyOf(fields);
+    }
+
+    /**
+     * Builds the select list of the given fields plus the ID and time columns keyset pagination needs.
+     */
+    private static String selectColumns(Set<String> fields, Map<String, String> columns, String timeColumn) {
+        Set<String> selected = new LinkedHashSet<>(List.of("ID_", timeColumn));
+        fields.forEach(field -> selected.add(columns.get(field)));
+        return selected.stream().map(column -> "RES." + column).collect(Collectors.joining(", "));
+    }
+
+    /**
+     * Runs a keyset-paginated native query ordered by {@code (timeColumn, ID_)}.
+     * One extra row is fetched to find out whether another page exists without a count query.
+     */
+    private <T, Q extends NativeQuery<Q, T>> KeysetPage<T> fetchPage(Q query, String baseSql, String timeColumn, PageCursor after,
+                                                                     int pageSize, Function<T, Date> timeOf, Function<T, String> idOf) {
+        StringBuilder sql = new StringBuilder(baseSql);
+        if (after != null) {
+            sql.append(" AND (RES.").append(timeColumn).append(" > #{afterTime} OR (RES.").append(timeColumn)
+                    .append(" = #{afterTime} AND RES.ID_ > #{afterId}))");
+            query.parameter("afterTime", after.time()).parameter("afterId", after.id());
+        }
+        sql.append(" ORDER BY RES.").append(timeColumn).append(" ASC, RES.ID_ ASC");
+
+        List<T> rows = query.sql(sql.toString()).listPage(0, pageSize + 1);
+        if (rows.size() <= pageSize) {
+            return new KeysetPage<>(rows, null);
+        }
+        List<T> items = rows.subList(0, pageSize);
+        T last = items.get(pageSize - 1);
+        return new KeysetPage<>(List.copyOf(items), new PageCursor(timeOf.apply(last), idOf.apply(last)).encode());
+    }
+
+    /**
+     * Runs {@code size} batch items in chunks of {@code workflow.batch.chunk-size}, each chunk in one transaction.
+     * Chunks run concurrently on the bounded batch executor; results are returned in item order.
+     * When an item fails its chunk is rolled back and replayed item by item, so only the failing items are reported as errors.
+     *
+     * @param size   the number of items
+     * @param idOf   the ID to report for a failed item, may return null
+     * @param action runs one item and returns the ID to report for it
+     */
+    private List<BatchItemResult> runInChunks(int size, IntFunction<String> idOf, IntFunction<String> action) {
+        WorkflowProperties.Batch batch = workflowProperties.getBatch();
+        if (size > batch.getMaxItems()) {
+            throw new IllegalArgumentException("Batch of " + size + " items exceeds the limit of " + batch.getMaxItems());
+        }
+        int chunkSize = batch.getChunkSize();
+        List<CompletableFuture<List<BatchItemResult>>> chunks = new ArrayList<>();
+        for (int from = 0; from < size; from += chunkSize) {
+            int start = from;
+            int end = Math.min(from + chunkSize, size);
+            chunks.add(CompletableFuture.supplyAsync(() -> runChunk(start, end, idOf, action), batchExecutor));
+        }
+        List<BatchItemResult> results = new ArrayList<>(size);
+        chunks.forEach(chunk -> results.addAll(chunk.join()));
+        return results;
+    }
+
+    private List<BatchItemResult> runChunk(int from, int to, IntFunction<String> idOf, IntFunction<String> action) {
+        try {
+            return transactionTemplate.execute(status -> {
+                List<BatchItemResult> chunk = new ArrayList<>(to - from);
+                for (int i = from; i < to; i++) {
+                    chunk.add(BatchItemResult.succeeded(i, action.apply(i)));
+                }
+                return chunk;
+            });
+        } catch (RuntimeException e) {
+            log.warn("Batch chunk [{}, {}) failed, retrying its items one by one: [{}]", from, to, e.getMessage());
+        }
+        List<BatchItemResult> chunk = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            int index = i;
+            try {
+                chunk.add(BatchItemResult.succeeded(index, transactionTemplate.execute(status -> action.apply(index))));
+            } catch (RuntimeException e) {
+                log.warn("Batch item [{}] failed: [{}]", index, e.getMessage());
+                chunk.add(BatchItemResult.failed(index, idOf.apply(index), e.getMessage()));
+            }
+        }
+        return chunk;
+    }
+
+    private static long countSucceeded(List<BatchItemResult> results) {
+        return results.stream().filter(BatchItemResult::isSuccess).count();
+    }
+
+    private static String nameFilter(NativeVariableInstanceQuery query, Collection<String> variableNames) {
+        if (variableNames == null || variableNames.isEmpty()) {
+            return "";
+        }
+        return " AND VAR.NAME_ IN (" + inParameters(query, "name", Set.copyOf(variableNames)) + ")";
+    }
+
+    /**
+     * Versions the variables by the ID and revision of each variable row and of its byte array, which is rewritten
+     * without touching the variable row when a byte-array backed value changes. The byte array revision is read into
+     * the otherwise unused long value. The owning execution or task is joined so that a version is only returned while
+     * it exists; the value columns are never read.
+     *
+     * @return the version, or null if the owner does not exist
+     */
+    private static String toVersion(List<VariableInstance> rows) {
+        if (rows.isEmpty()) {
+            return null;
+        }
+        MessageDigest digest = sha256();
+        for (VariableInstance row : rows) {
+            if (row.getId() != null) {
+                int revision = row instanceof HasRevision entity ? entity.getRevision() : 0;
+                digest.update((row.getId() + '\0' + revision + '\0' + row.getLongValue() + '\0').getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest(), 0, 16);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
 }
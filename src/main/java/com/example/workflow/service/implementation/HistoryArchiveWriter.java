@@ -0,0 +1,74 @@
+package com.example.workflow.service.implementation;
+
+import com.example.workflow.dto.FinishedProcessRecord;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.Closeable;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Appends archived process instances to gzip-compressed NDJSON files, starting a new file once the current one
+ * reaches the configured size. Not thread-safe; one writer is used per retention run.
+ */
+class HistoryArchiveWriter implements Closeable {
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneOffset.UTC);
+
+    private final Path directory;
+    private final long maxFileBytes;
+    private final ObjectWriter writer;
+
+    private FileOutputStream file;
+    private OutputStream out;
+    private int sequence;
+
+    HistoryArchiveWriter(Path directory, long maxFileBytes, ObjectWriter writer) {
+        this.directory = directory;
+        this.maxFileBytes = maxFileBytes;
+        this.writer = writer;
+    }
+
+    /**
+     * Writes the records and forces them to disk, so they are durable before the instances are deleted.
+     */
+    void append(List<FinishedProcessRecord> records) throws IOException {
+        if (records.isEmpty()) {
+            return;
+        }
+        if (file == null || file.getChannel().size() >= maxFileBytes) {
+            roll();
+        }
+        for (FinishedProcessRecord record : records) {
+            out.write(writer.writeValueAsBytes(record));
+            out.write('\n');
+        }
+        out.flush();
+        file.getFD().sync();
+    }
+
+    private void roll() throws IOException {
+        close();
+        Files.createDirectories(directory);
+        Path path = directory.resolve("history-" + FILE_TIMESTAMP.format(Instant.now()) + "-" + sequence++ + ".ndjson.gz");
+        file = new FileOutputStream(path.toFile());
+        // syncFlush so every chunk is complete in the file before its instances are deleted
+        out = new GZIPOutputStream(file, 64 * 1024, true);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (out != null) {
+            out.close();
+            out = null;
+            file = null;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.workflow.service.implementation;
+
+import com.example.workflow.cluster.ClusterLock;
+import com.example.workflow.config.WorkflowProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.flowable.engine.ManagementService;
+import org.flowable.engine.impl.persistence.entity.ExecutionEntity;
+import org.flowable.engine.impl.persistence.entity.HistoricProcessInstanceEntity;
+import org.flowable.task.service.impl.persistence.entity.TaskEntity;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Creates the indexes behind the keyset-paginated listings, which order by {@code (time, ID_)} and which the engine's
+ * own schema does not cover:
+ * <pre>
+ * CREATE INDEX WF_IDX_TASK_KEYSET ON ACT_RU_TASK (CREATE_TIME_, ID_);
+ * CREATE INDEX WF_IDX_EXEC_KEYSET ON ACT_RU_EXECUTION (START_TIME_, ID_);
+ * CREATE INDEX WF_IDX_HI_PROCINST_KEYSET ON ACT_HI_PROCINST (END_TIME_, ID_);
+ * </pre>
+ * Missing indexes are created once the engine schema exists; set {@code workflow.pagination.create-keyset-indexes=false}
+ * to manage them with the statements above instead.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class KeysetIndexes {
+    private final DataSource dataSource;
+    private final ManagementService managementService;
+    private final WorkflowProperties workflowProperties;
+    private final ClusterLock clusterLock;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createMissing() {
+        if (!workflowProperties.getPagination().isCreateKeysetIndexes()) {
+            return;
+        }
+        clusterLock.runExclusively("keyset-indexes", () -> {
+            try (Connection connection = dataSource.getConnection()) {
+                create(connection, "WF_IDX_TASK_KEYSET", managementService.getTableName(TaskEntity.class), "CREATE_TIME_");
+                create(connection, "WF_IDX_EXEC_KEYSET", managementService.getTableName(ExecutionEntity.class), "START_TIME_");
+                create(connection, "WF_IDX_HI_PROCINST_KEYSET", managementService.getTableName(HistoricProcessInstanceEntity.class), "END_TIME_");
+            } catch (SQLException e) {
+                log.warn("Could not create the keyset pagination indexes: [{}]", e.getMessage());
+            }
+        });
+    }
+
+    private static void create(Connection connection, String index, String table, String timeColumn) throws SQLException {
+        if (exists(connection, index, table)) {
+            return;
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE INDEX " + index + " ON " + table + " (" + timeColumn + ", ID_)");
+        }
+        log.info("Created index [{}] on [{}] ({}, ID_)", index, table, timeColumn);
+    }
+
+    private static boolean exists(Connection connection, String index, String table) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        // Identifier case differs between databases, so look the table up as created and in upper and lower case
+        for (String name : new String[] {table, table.toUpperCase(), table.toLowerCase()}) {
+            try (ResultSet indexes = metaData.getIndexInfo(connection.getCatalog(), connection.getSchema(), name, false, true)) {
+                while (indexes.next()) {
+                    if (index.equalsIgnoreCase(indexes.getString("INDEX_NAME"))) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.workflow.worker;
+
+import com.example.workflow.analytics.ActivityLatencyRecorder;
+import com.example.workflow.blob.LargeVariables;
+import com.example.workflow.cluster.NodeIdentity;
+import com.example.workflow.config.WorkflowProperties;
+import com.example.workflow.delegates.ServiceRegistryService;
+import com.example.workflow.metrics.ModelCallWorkerMetrics;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.flowable.engine.ManagementService;
+import org.flowable.job.api.AcquiredExternalWorkerJob;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * External worker for the {@value #TOPIC} topic, i.e. the "Send to Gemini Model" step of {@code simpleTextProcessingWorkflow}.
+ * <p>
+ * Jobs are fetched and locked in short engine transactions, the model is called on a virtual thread with no
+ * transaction or DB connection held, and the result is written back in another short transaction. Failed calls are
+ * handed back to the engine with an exponential backoff until the job runs out of retries and is dead-lettered.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "workflow.model-call", name = "worker-enabled", havingValue = "true", matchIfMissing = true)
+public class ModelCallWorker implements SmartLifecycle {
+    public static final String TOPIC = "modelCall";
+    public static final String INPUT_VARIABLE = "text";
+    public static final String OUTPUT_VARIABLE = "result";
+
+    private final ManagementService managementService;
+    private final ServiceRegistryService serviceRegistryService;
+    private final LargeVariables largeVariables;
+    private final ActivityLatencyRecorder activityLatencyRecorder;
+    private final WorkflowProperties workflowProperties;
+    private final NodeIdentity nodeIdentity;
+    private final ModelCallWorkerMetrics metrics;
+
+    private String workerId;
+    private ExecutorService callExecutor;
+    private Semaphore permits;
+    private Thread poller;
+    private volatile boolean running;
+
+    @Override
+    public void start() {
+        WorkflowProperties.ModelCall config = workflowProperties.getModelCall();
+        workerId = "model-call-" + nodeIdentity.getNodeId();
+        callExecutor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("model-call-", 0).factory());
+        permits = new Semaphore(config.getMaxConcurrency());
+        running = true;
+        poller = Thread.ofVirtual().name("model-call-poller").start(this::poll);
+        log.info("Model call worker [{}] started with max concurrency [{}]", workerId, config.getMaxConcurrency());
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        poller.interrupt();
+        callExecutor.shutdown();
+        try {
+            if (!callExecutor.awaitTermination(workflowProperties.getModelCall().getTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                callExecutor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            callExecutor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        // Give unfinished jobs back right away instead of waiting for their locks to expire
+        managementService.unacquireAllExternalWorkerJobsForWorker(workerId);
+        log.info("Model call worker [{}] stopped", workerId);
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void poll() {
+        WorkflowProperties.ModelCall config = workflowProperties.getModelCall();
+        while (running) {
+            try {
+                List<AcquiredExternalWorkerJob> jobs = acquire(reserveSlots(config.getAcquireSize()), config);
+                long acquiredAt = System.nanoTime();
+                metrics.acquired(jobs.size());
+                for (AcquiredExternalWorkerJob job : jobs) {
+                    activityLatencyRecorder.recordQueueWait(job.getProcessDefinitionId(), job.getElementId(), job.getCreateTime());
+                    callExecutor.execute(() -> {
+                        try {
+                            handle(job, config, acquiredAt);
+                        } finally {
+                            permits.release();
+                        }
+                    });
+                }
+                if (jobs.isEmpty()) {
+                    Thread.sleep(config.getPollInterval().toMillis());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Model call worker [{}] failed to acquire jobs", workerId, e);
+            }
+        }
+    }
+
+    /**
+     * Blocks until at least one call slot is free, then takes up to {@code max} free slots,
+     * so the worker never locks more jobs than it can run.
+     */
+    private int reserveSlots(int max) throws InterruptedException {
+        permits.acquire();
+        int taken = 1 + permits.drainPermits();
+        int slots = Math.min(taken, max);
+        permits.release(taken - slots);
+        return slots;
+    }
+
+    /**
+     * Locks up to {@code slots} jobs and gives back the slots that were not filled.
+     */
+    private List<AcquiredExternalWorkerJob> acquire(int slots, WorkflowProperties.ModelCall config) {
+        List<AcquiredExternalWorkerJob> jobs = List.of();
+        try {
+            jobs = managementService.createExternalWorkerJobAcquireBuilder()
+                    .topic(TOPIC, config.getLockDuration())
+                    .acquireAndLock(slots, workerId);
+        } finally {
+            permits.release(slots - jobs.size());
+        }
+        return jobs;
+    }
+
+    private void handle(AcquiredExternalWorkerJob job, WorkflowProperties.ModelCall config, long acquiredAt) {
+        Object text = job.getVariables().get(INPUT_VARIABLE);
+        Future<String> call = callExecutor.submit(() -> serviceRegistryService.call(text));
+        try {
+            String result = call.get(config.getTimeout().toMillis(), TimeUnit.MILLISECONDS);
+            managementService.createExternalWorkerCompletionBuilder(job.getId(), workerId)
+                    .variable(OUTPUT_VARIABLE, largeVariables.externalize(result))
+                    .complete();
+            metrics.completed(acquiredAt);
+        } catch (InterruptedException e) {
+            call.cancel(true);
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            fail(job, config, e.getCause());
+            metrics.failed(acquiredAt);
+        } catch (TimeoutException e) {
+            call.cancel(true);
+            fail(job, config, e);
+            metrics.failed(acquiredAt);
+        } catch (RuntimeException e) {
+            // The lock expired or the instance was deleted meanwhile; the engine owns the job again
+            log.error("Model call job [{}] could not be completed", job.getId(), e);
+            metrics.failed(acquiredAt);
+        }
+    }
+
+    private void fail(AcquiredExternalWorkerJob job, WorkflowProperties.ModelCall config, Throwable cause) {
+        int retriesLeft = Math.max(job.getRetries() - 1, 0);
+        int attempt = Math.max(config.getRetries() - retriesLeft - 1, 0);
+        Duration backoff = config.getInitialBackoff().multipliedBy(1L << Math.min(attempt, 20));
+        if (backoff.compareTo(config.getMaxBackoff()) > 0) {
+            backoff = config.getMaxBackoff();
+        }
+        log.warn("Model call job [{}] failed, [{}] retries left, next attempt in [{}]: [{}]", job.getId(), retriesLeft, backoff, String.valueOf(cause));
+        try {
+            managementService.createExternalWorkerJobFailureBuilder(job.getId(), workerId)
+                    .errorMessage(String.valueOf(cause))
+                    .retries(retriesLeft)
+                    .retryTimeout(backoff)
+                    .fail();
+        } catch (RuntimeException e) {
+            log.error("Model call job [{}] could not be marked as failed", job.getId(), e);
+        }
+    }
+}
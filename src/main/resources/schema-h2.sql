@@ -0,0 +1,9 @@
+-- Durable idempotency keys of process starts; see IdempotencyKey and schema-mysql.sql.
+CREATE TABLE IF NOT EXISTS idempotency_key (
+    idempotency_key        VARCHAR(191) NOT NULL,
+    process_definition_key VARCHAR(255) NOT NULL,
+    process_instance_id    VARCHAR(64),
+    created_at             TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (idempotency_key)
+);
+CREATE INDEX IF NOT EXISTS idempotency_key_created_at ON idempotency_key (created_at);
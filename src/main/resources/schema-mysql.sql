@@ -0,0 +1,11 @@
+-- Durable idempotency keys of process starts; see IdempotencyKey.
+-- The key is the primary key, so a concurrent duplicate start fails on insert.
+-- 191 characters keep the utf8mb4 primary key within the InnoDB index limit.
+CREATE TABLE IF NOT EXISTS idempotency_key (
+    idempotency_key        VARCHAR(191) NOT NULL,
+    process_definition_key VARCHAR(255) NOT NULL,
+    process_instance_id    VARCHAR(64),
+    created_at             DATETIME(6)  NOT NULL,
+    PRIMARY KEY (idempotency_key),
+    INDEX idempotency_key_created_at (created_at)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
@@ -0,0 +1,122 @@
+package com.example.workflow.admission;
+
+import com.example.workflow.config.WorkflowProperties;
+import org.flowable.engine.ManagementService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+class AdaptiveConcurrencyLimiterTests {
+
+	@Autowired
+	private ManagementService managementService;
+
+	private WorkflowProperties properties;
+
+	@BeforeEach
+	void configure() {
+		// Each test gets its own limiter, so the one guarding the application keeps its state
+		properties = new WorkflowProperties();
+		WorkflowProperties.Admission admission = properties.getAdmission();
+		admission.setInitialLimit(4);
+		admission.setMinLimit(2);
+		admission.setMaxLimit(6);
+		admission.setBackoffRatio(0.5);
+		admission.setTargetLatency(Duration.ofMillis(50));
+	}
+
+	@Test
+	void rejectsCallsBeyondTheLimitUntilOneFinishes() {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(managementService, properties);
+		List<AdaptiveConcurrencyLimiter.Permit> permits = acquire(limiter, 4);
+
+		assertThatThrownBy(() -> limiter.acquire(null, true, true))
+				.isInstanceOfSatisfying(AdmissionRejectedException.class, e -> {
+					assertThat(e.getReason()).isEqualTo(AdmissionRejectedException.Reason.CONCURRENCY);
+					assertThat(e.getRetryAfterSeconds()).isEqualTo(1);
+				});
+
+		permits.removeFirst().close();
+		limiter.acquire(null, true, true).close();
+		permits.forEach(AdaptiveConcurrencyLimiter.Permit::close);
+		assertThat(limiter.stats().inFlight()).isZero();
+		assertThat(limiter.stats().rejectedConcurrency()).isEqualTo(1);
+	}
+
+	@Test
+	void enforcesProcessQuotasWithinTheLimit() {
+		properties.getAdmission().getProcessQuotas().put("quoted", 1);
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(managementService, properties);
+
+		try (AdaptiveConcurrencyLimiter.Permit ignored = limiter.acquire("quoted", true, true)) {
+			assertThatThrownBy(() -> limiter.acquire("quoted", true, true))
+					.isInstanceOfSatisfying(AdmissionRejectedException.class,
+							e -> assertThat(e.getReason()).isEqualTo(AdmissionRejectedException.Reason.QUOTA));
+			limiter.acquire("other", true, true).close();
+		}
+		limiter.acquire("quoted", true, true).close();
+	}
+
+	@Test
+	void growsAdditivelyWhileFastCallsUseTheLimit() {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(managementService, properties);
+
+		// Every full round of fast calls adds about one to the limit, up to the maximum
+		for (int round = 0; round < 20; round++) {
+			acquire(limiter, limiter.stats().limit()).forEach(AdaptiveConcurrencyLimiter.Permit::close);
+		}
+
+		assertThat(limiter.stats().limit()).isEqualTo(6);
+	}
+
+	@Test
+	void shrinksMultiplicativelyOncePerTargetLatency() throws InterruptedException {
+		properties.getAdmission().setMinLimit(1);
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(managementService, properties);
+		List<AdaptiveConcurrencyLimiter.Permit> slow = acquire(limiter, 2);
+		Thread.sleep(60);
+
+		// Both calls were slow, but the second finished within a target latency of the first decrease
+		slow.forEach(AdaptiveConcurrencyLimiter.Permit::close);
+		assertThat(limiter.stats().limit()).isEqualTo(2);
+
+		// Later slow calls keep halving it, but never below the minimum
+		for (int i = 0; i < 2; i++) {
+			try (AdaptiveConcurrencyLimiter.Permit permit = limiter.acquire(null, true, true)) {
+				Thread.sleep(60);
+			}
+		}
+		assertThat(limiter.stats().limit()).isEqualTo(1);
+	}
+
+	@Test
+	void ignoresTheLatencyOfUnmeasuredCalls() throws InterruptedException {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(managementService, properties);
+
+		try (AdaptiveConcurrencyLimiter.Permit batch = limiter.acquire(null, true, false)) {
+			Thread.sleep(60);
+		}
+
+		assertThat(limiter.stats().limit()).isEqualTo(4);
+		assertThat(limiter.stats().inFlight()).isZero();
+	}
+
+	private static List<AdaptiveConcurrencyLimiter.Permit> acquire(AdaptiveConcurrencyLimiter limiter, int count) {
+		List<AdaptiveConcurrencyLimiter.Permit> permits = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			permits.add(limiter.acquire(null, true, true));
+		}
+		return permits;
+	}
+}
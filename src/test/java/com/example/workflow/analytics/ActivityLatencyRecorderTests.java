@@ -0,0 +1,112 @@
+package com.example.workflow.analytics;
+
+import com.example.workflow.config.WorkflowProperties;
+import com.example.workflow.dto.ActivityLatency;
+import org.flowable.engine.RepositoryService;
+import org.flowable.engine.RuntimeService;
+import org.flowable.engine.TaskService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+class ActivityLatencyRecorderTests {
+
+	private static final String PROCESS_KEY = "simpleTextProcessingWorkflow";
+	private static final Duration BUCKET = Duration.ofMillis(300);
+
+	@Autowired
+	private ActivityLatencyRecorder activityLatencyRecorder;
+
+	@Autowired
+	private RuntimeService runtimeService;
+
+	@Autowired
+	private RepositoryService repositoryService;
+
+	@Autowired
+	private TaskService taskService;
+
+	private String processDefinitionId;
+
+	@BeforeEach
+	void setUp() {
+		processDefinitionId = repositoryService.createProcessDefinitionQuery().processDefinitionKey(PROCESS_KEY)
+				.latestVersion().singleResult().getId();
+	}
+
+	@Test
+	void windowCoversOnlyTheBucketsItSpans() throws InterruptedException {
+		ActivityLatencyRecorder recorder = recorder(Duration.ofMillis(1500));
+
+		awaitNextBucket();
+		recorder.recordQueueWait(processDefinitionId, "a", new Date(System.currentTimeMillis() - 20));
+		awaitNextBucket();
+		recorder.recordQueueWait(processDefinitionId, "a", new Date(System.currentTimeMillis() - 40));
+
+		assertThat(queueWaits(recorder, BUCKET)).isEqualTo(1);
+		assertThat(queueWaits(recorder, BUCKET.multipliedBy(2))).isEqualTo(2);
+		// Shorter than a bucket still covers the current one, longer than the retention covers only what is kept
+		assertThat(queueWaits(recorder, Duration.ZERO)).isEqualTo(1);
+		assertThat(queueWaits(recorder, Duration.ofHours(1))).isEqualTo(2);
+	}
+
+	@Test
+	void samplesOlderThanTheRetentionAreDropped() throws InterruptedException {
+		ActivityLatencyRecorder recorder = recorder(BUCKET.multipliedBy(2));
+
+		recorder.recordQueueWait(processDefinitionId, "a", new Date());
+		assertThat(recorder.getActivityLatencies(PROCESS_KEY, Duration.ofHours(1))).hasSize(1);
+
+		Thread.sleep(BUCKET.multipliedBy(3).toMillis());
+
+		assertThat(recorder.getActivityLatencies(PROCESS_KEY, Duration.ofHours(1))).isEmpty();
+	}
+
+	@Test
+	void completedUserTasksAreTimedFromEngineEvents() {
+		String processInstanceId = runtimeService.startProcessInstanceByKey(PROCESS_KEY, Map.of("text", "latency")).getId();
+		taskService.complete(taskService.createTaskQuery().processInstanceId(processInstanceId).singleResult().getId());
+
+		ActivityLatency userTask = activityLatencyRecorder.getActivityLatencies(PROCESS_KEY, Duration.ofMinutes(1)).stream()
+				.filter(activity -> activity.activityId().equals("userTask1"))
+				.findFirst().orElseThrow();
+
+		assertThat(userTask.activityType()).isEqualTo("userTask");
+		assertThat(userTask.completed()).isPositive();
+		assertThat(userTask.duration().count()).isPositive();
+	}
+
+	/**
+	 * A recorder of its own, not registered for engine events, fed through {@link ActivityLatencyRecorder#recordQueueWait}.
+	 */
+	private ActivityLatencyRecorder recorder(Duration retention) {
+		WorkflowProperties properties = new WorkflowProperties();
+		properties.getActivityAnalytics().setBucketDuration(BUCKET);
+		properties.getActivityAnalytics().setRetention(retention);
+		return new ActivityLatencyRecorder(runtimeService, repositoryService, properties);
+	}
+
+	private static long queueWaits(ActivityLatencyRecorder recorder, Duration window) {
+		List<ActivityLatency> activities = recorder.getActivityLatencies(PROCESS_KEY, window);
+		return activities.isEmpty() ? 0 : activities.getFirst().queueWait().count();
+	}
+
+	/**
+	 * Sleeps until shortly after the next bucket starts, leaving most of the bucket for the test to run in.
+	 */
+	private static void awaitNextBucket() throws InterruptedException {
+		long bucketMillis = BUCKET.toMillis();
+		Thread.sleep(bucketMillis - System.currentTimeMillis() % bucketMillis + 10);
+	}
+}
@@ -0,0 +1,77 @@
+package com.example.workflow.benchmark;
+
+import com.example.workflow.WorkflowApplication;
+import com.example.workflow.dto.BatchItemResult;
+import com.example.workflow.service.WorkflowService;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Boots the application against an in-memory H2 database and seeds it with {@link #dataSize}
+ * running {@value #PROCESS_KEY} instances, each waiting in its "Input Text" task assigned to {@value #ASSIGNEE}.
+ */
+@State(Scope.Benchmark)
+public class WorkflowEngineState {
+	public static final String PROCESS_KEY = "simpleTextProcessingWorkflow";
+	public static final String ASSIGNEE = "benchmark-user";
+	private static final int SEED_BATCH = 1000;
+
+	@Param({"100", "10000"})
+	public int dataSize;
+
+	ConfigurableApplicationContext context;
+	WorkflowService workflowService;
+	List<String> processInstanceIds;
+
+	@Setup(Level.Trial)
+	public void boot() {
+		context = new SpringApplicationBuilder(WorkflowApplication.class)
+				.profiles("h2")
+				.web(WebApplicationType.NONE)
+				.properties(
+						// Keep the model call step from competing with the measured operations
+						"workflow.model-call.worker-enabled=false",
+						"logging.level.root=WARN")
+				.run();
+		workflowService = context.getBean(WorkflowService.class);
+		processInstanceIds = new ArrayList<>(dataSize);
+		for (int seeded = 0; seeded < dataSize; seeded += SEED_BATCH) {
+			int count = Math.min(SEED_BATCH, dataSize - seeded);
+			List<Map<String, Object>> variables = Collections.nCopies(count, Map.of("text", "benchmark input"));
+			workflowService.startProcesses(PROCESS_KEY, variables).stream()
+					.map(BatchItemResult::id)
+					.forEach(processInstanceIds::add);
+		}
+		List<String> taskIds = processInstanceIds.stream()
+				.flatMap(id -> workflowService.getActiveTasks(id).stream())
+				.toList();
+		for (int from = 0; from < taskIds.size(); from += SEED_BATCH) {
+			workflowService.assignTasks(taskIds.subList(from, Math.min(from + SEED_BATCH, taskIds.size())), ASSIGNEE);
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void shutdown() {
+		context.close();
+	}
+
+	/**
+	 * Starts one more instance and returns the ID of its "Input Text" task.
+	 */
+	String newUserTask() {
+		String processInstanceId = workflowService.startProcesses(PROCESS_KEY, List.of(Map.of("text", "benchmark input"))).getFirst().id();
+		return workflowService.getActiveTasks(processInstanceId).getFirst();
+	}
+}
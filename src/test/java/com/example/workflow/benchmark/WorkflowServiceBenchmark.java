@@ -0,0 +1,93 @@
+package com.example.workflow.benchmark;
+
+import org.flowable.engine.runtime.ProcessInstance;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput and latency of the {@link com.example.workflow.service.WorkflowService} hot paths.
+ * <p>
+ * Run with {@code mvn -Pbenchmark verify}; results are written to {@code target/jmh-result.json}.
+ * A subset can be selected with {@code -Dbenchmark.include=<regex>}.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+public class WorkflowServiceBenchmark {
+
+	@State(Scope.Thread)
+	public static class PendingTask {
+		String taskId;
+
+		@Setup(Level.Invocation)
+		public void create(WorkflowEngineState engine) {
+			taskId = engine.newUserTask();
+		}
+	}
+
+	@Benchmark
+	public void startProcess(WorkflowEngineState engine) {
+		engine.workflowService.startProcess(WorkflowEngineState.PROCESS_KEY, Map.of("text", "benchmark input"));
+	}
+
+	@Benchmark
+	public void completeUserTask(WorkflowEngineState engine, PendingTask task) {
+		engine.workflowService.completeTask(task.taskId, Map.of("text", "benchmark input"));
+	}
+
+	@Benchmark
+	public Object getActiveTasksFirstPage(WorkflowEngineState engine) {
+		return engine.workflowService.getActiveTasksPage(null, 50);
+	}
+
+	@Benchmark
+	public Object getAllActiveTasks(WorkflowEngineState engine) {
+		return engine.workflowService.getAllActiveTasks();
+	}
+
+	@Benchmark
+	public Object getTasksByAssignee(WorkflowEngineState engine) {
+		return engine.workflowService.getTasksByAssignee(WorkflowEngineState.ASSIGNEE);
+	}
+
+	@Benchmark
+	public Object getRunningProcessesFirstPage(WorkflowEngineState engine) {
+		return engine.workflowService.getRunningProcessesPage(null, 50);
+	}
+
+	@Benchmark
+	public Object getProcessVariables(WorkflowEngineState engine) {
+		return engine.workflowService.getProcessVariables(randomInstance(engine));
+	}
+
+	@Benchmark
+	public void setProcessVariable(WorkflowEngineState engine) {
+		engine.workflowService.setProcessVariable(randomInstance(engine), "text", "updated benchmark input");
+	}
+
+	@Benchmark
+	public void getProcessInstance(WorkflowEngineState engine, Blackhole blackhole) {
+		ProcessInstance instance = engine.workflowService.getProcessInstance(randomInstance(engine));
+		blackhole.consume(instance);
+	}
+
+	private static String randomInstance(WorkflowEngineState engine) {
+		return engine.processInstanceIds.get(ThreadLocalRandom.current().nextInt(engine.processInstanceIds.size()));
+	}
+}
@@ -0,0 +1,146 @@
+package com.example.workflow.blob;
+
+import com.example.workflow.cluster.ClusterLock;
+import com.example.workflow.config.WorkflowProperties;
+import com.example.workflow.service.WorkflowService;
+import org.flowable.engine.HistoryService;
+import org.flowable.engine.ManagementService;
+import org.flowable.engine.RuntimeService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+class LargeVariablesTests {
+
+	private static final String PROCESS_KEY = "simpleTextProcessingWorkflow";
+
+	@Autowired
+	private WorkflowService workflowService;
+
+	@Autowired
+	private WorkflowProperties workflowProperties;
+
+	@Autowired
+	private RuntimeService runtimeService;
+
+	@Autowired
+	private HistoryService historyService;
+
+	@Autowired
+	private ManagementService managementService;
+
+	@Autowired
+	private ClusterLock clusterLock;
+
+	@Autowired
+	private WebApplicationContext context;
+
+	@TempDir
+	private Path directory;
+
+	private DataSize threshold;
+
+	@BeforeEach
+	void enable() {
+		WorkflowProperties.LargeVariables largeVariables = workflowProperties.getLargeVariables();
+		threshold = largeVariables.getThreshold();
+		largeVariables.setEnabled(true);
+		largeVariables.setThreshold(DataSize.ofKilobytes(1));
+	}
+
+	@AfterEach
+	void restore() {
+		workflowProperties.getLargeVariables().setEnabled(false);
+		workflowProperties.getLargeVariables().setThreshold(threshold);
+	}
+
+	@Test
+	void variablesAreReadWithTheirContentUnlessReferencesAreAskedFor() throws Exception {
+		String text = largeText();
+		String processInstanceId = workflowService.startProcess(PROCESS_KEY, Map.of("text", text));
+
+		assertThat(runtimeService.getVariable(processInstanceId, "text")).isInstanceOf(BlobReference.class);
+		assertThat(workflowService.getProcessVariables(processInstanceId)).containsEntry("text", text);
+		assertThat(workflowService.getProcessVariables(processInstanceId, List.of("text"))).containsEntry("text", text);
+		assertThat(workflowService.getUnresolvedProcessVariables(processInstanceId, null).get("text"))
+				.isInstanceOfSatisfying(BlobReference.class, reference -> assertThat(reference.length()).isEqualTo(text.length()));
+
+		MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+		mockMvc.perform(get("/workflow/process/{id}/variables", processInstanceId))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.text").value(text));
+		mockMvc.perform(get("/workflow/process/{id}/variables", processInstanceId).param("references", "true"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.text.length").value(text.length()));
+	}
+
+	@Test
+	void identicalContentIsStoredOnce() throws Exception {
+		BlobStore blobStore = new BlobStore(directory);
+		String text = largeText();
+
+		BlobReference first = blobStore.put(text);
+		BlobReference second = blobStore.put(text);
+
+		assertThat(second).isEqualTo(first);
+		assertThat(blobStore.read(first)).isEqualTo(text);
+		try (Stream<Path> files = Files.walk(directory)) {
+			assertThat(files.filter(Files::isRegularFile)).hasSize(1);
+		}
+	}
+
+	@Test
+	void collectionSparesReferencedAndRecentlyStoredBlobs() throws Exception {
+		// Blob IDs are content hashes, so this store holds the blob the started instance refers to
+		BlobStore blobStore = new BlobStore(directory);
+		String referencedText = largeText();
+		workflowService.startProcess(PROCESS_KEY, Map.of("text", referencedText));
+		BlobReference referenced = blobStore.put(referencedText);
+		BlobReference orphan = blobStore.put(largeText());
+		BlobReference recent = blobStore.put(largeText());
+		FileTime beforeGracePeriod = FileTime.from(Instant.now().minus(Duration.ofHours(2)));
+		Files.setLastModifiedTime(fileOf(referenced), beforeGracePeriod);
+		Files.setLastModifiedTime(fileOf(orphan), beforeGracePeriod);
+
+		BlobCollector collector = new BlobCollector(blobStore, runtimeService, historyService, managementService, clusterLock, workflowProperties);
+
+		assertThat(collector.collect()).isEqualTo(1);
+		assertThat(fileOf(orphan)).doesNotExist();
+		assertThat(fileOf(referenced)).exists();
+		// Unreferenced, but young enough that its variable may still be committing
+		assertThat(fileOf(recent)).exists();
+	}
+
+	private Path fileOf(BlobReference reference) {
+		return directory.resolve(reference.id().substring(0, 2)).resolve(reference.id());
+	}
+
+	private static String largeText() {
+		return UUID.randomUUID() + "x".repeat(2048);
+	}
+}
@@ -0,0 +1,194 @@
+package com.example.workflow.cache;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+class TieredModelResultCacheTests {
+
+	private static final Duration TTL = Duration.ofHours(1);
+
+	@TempDir
+	private Path directory;
+
+	private final MutableClock clock = new MutableClock();
+
+	@Test
+	void entriesExpireAfterTheTtl() {
+		TieredModelResultCache cache = new TieredModelResultCache(10, TTL, null, Long.MAX_VALUE, clock);
+		cache.put(key(1), "one");
+
+		clock.advance(TTL.minusSeconds(1));
+		assertThat(cache.get(key(1))).contains("one");
+
+		clock.advance(Duration.ofSeconds(1));
+		assertThat(cache.get(key(1))).isEmpty();
+		assertThat(cache.stats().evictions()).isEqualTo(1);
+	}
+
+	@Test
+	void evictsTheLeastRecentlyUsedEntryInMemory() {
+		TieredModelResultCache cache = new TieredModelResultCache(2, TTL, null, Long.MAX_VALUE, clock);
+		cache.put(key(1), "one");
+		cache.put(key(2), "two");
+		cache.get(key(1));
+
+		cache.put(key(3), "three");
+
+		assertThat(cache.get(key(2))).isEmpty();
+		assertThat(cache.get(key(1))).contains("one");
+		assertThat(cache.get(key(3))).contains("three");
+		assertThat(cache.stats().size()).isEqualTo(2);
+	}
+
+	@Test
+	void diskTierOutlivesTheMemoryTierAndExpiresByAge() {
+		new TieredModelResultCache(10, TTL, directory, Long.MAX_VALUE, clock).put(key(1), "one");
+
+		// A new instance starts with an empty memory tier, as after a restart
+		TieredModelResultCache restarted = new TieredModelResultCache(10, TTL, directory, Long.MAX_VALUE, clock);
+		assertThat(restarted.stats().size()).isZero();
+		assertThat(restarted.get(key(1))).contains("one");
+		assertThat(restarted.stats().size()).isEqualTo(1);
+
+		clock.advance(TTL);
+		restarted.sweepDisk();
+		assertThat(new TieredModelResultCache(10, TTL, directory, Long.MAX_VALUE, clock).get(key(1))).isEmpty();
+	}
+
+	@Test
+	void deletesTheOldestDiskEntriesOnceOverTheLimit() {
+		String value = "x".repeat(100);
+		TieredModelResultCache cache = new TieredModelResultCache(10, TTL, directory, 250, clock);
+		for (int i = 1; i <= 3; i++) {
+			cache.put(key(i), value);
+			clock.advance(Duration.ofSeconds(1));
+		}
+
+		assertThat(cache.diskBytes()).isEqualTo(200);
+		TieredModelResultCache restarted = new TieredModelResultCache(10, TTL, directory, 250, clock);
+		assertThat(restarted.get(key(1))).isEmpty();
+		assertThat(restarted.get(key(2))).contains(value);
+		assertThat(restarted.get(key(3))).contains(value);
+
+		// A smaller limit applies to the entries already on disk
+		TieredModelResultCache smaller = new TieredModelResultCache(10, TTL, directory, 150, clock);
+		assertThat(smaller.diskBytes()).isEqualTo(100);
+		assertThat(smaller.get(key(3))).contains(value);
+	}
+
+	@Test
+	void concurrentMissesOnOneKeyShareASingleCall() throws Exception {
+		TieredModelResultCache cache = new TieredModelResultCache(10, TTL, null, Long.MAX_VALUE, clock);
+		AtomicInteger calls = new AtomicInteger();
+		CountDownLatch release = new CountDownLatch(1);
+		int callers = 8;
+
+		List<Future<String>> results = new ArrayList<>();
+		try (ExecutorService executor = Executors.newFixedThreadPool(callers)) {
+			for (int i = 0; i < callers; i++) {
+				results.add(executor.submit(() -> cache.get(key(1), () -> {
+					calls.incrementAndGet();
+					await(release);
+					return "one";
+				})));
+			}
+			// Give every caller time to miss before the single call returns
+			Thread.sleep(200);
+			release.countDown();
+			for (Future<String> result : results) {
+				assertThat(result.get(10, TimeUnit.SECONDS)).isEqualTo("one");
+			}
+		}
+
+		assertThat(calls).hasValue(1);
+		assertThat(cache.get(key(1))).contains("one");
+	}
+
+	@Test
+	void waitingCallersSeeTheFailureOfTheSharedCall() throws Exception {
+		TieredModelResultCache cache = new TieredModelResultCache(10, TTL, null, Long.MAX_VALUE, clock);
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+
+		try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+			Future<String> leader = executor.submit(() -> cache.get(key(1), () -> {
+				started.countDown();
+				await(release);
+				throw new IllegalStateException("model unavailable");
+			}));
+			started.await();
+			Future<String> waiter = executor.submit(() -> cache.get(key(1), () -> "unused"));
+			Thread.sleep(200);
+			release.countDown();
+
+			for (Future<String> call : List.of(leader, waiter)) {
+				assertThatIllegalStateException().isThrownBy(() -> unwrap(call)).withMessage("model unavailable");
+			}
+		}
+
+		// The failure is not cached, so the next caller tries again
+		assertThat(cache.get(key(1), () -> "one")).isEqualTo("one");
+	}
+
+	private static String key(int i) {
+		return "%064x".formatted(i);
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(10, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static String unwrap(Future<String> future) throws Throwable {
+		try {
+			return future.get(10, TimeUnit.SECONDS);
+		} catch (ExecutionException e) {
+			throw e.getCause();
+		}
+	}
+
+	private static class MutableClock extends Clock {
+		private volatile Instant now = Instant.now();
+
+		void advance(Duration duration) {
+			now = now.plus(duration);
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+
+		@Override
+		public Instant instant() {
+			return now;
+		}
+	}
+}
@@ -0,0 +1,32 @@
+package com.example.workflow.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.assertj.core.api.Assertions.assertThatNoException;
+
+class ScaleOutConfigTests {
+
+	private static final String PROPERTY = "workflow.large-variables.directory";
+
+	@TempDir
+	private Path shared;
+
+	@Test
+	void acceptsAnExistingAbsoluteDirectory() {
+		assertThatNoException().isThrownBy(() -> ScaleOutConfig.requireSharedDirectory(PROPERTY, shared.toString()));
+	}
+
+	@Test
+	void refusesDirectoriesThatCouldBeLocalToTheNode() {
+		assertThatIllegalStateException().isThrownBy(() -> ScaleOutConfig.requireSharedDirectory(PROPERTY, null))
+				.withMessageContaining(PROPERTY);
+		assertThatIllegalStateException().isThrownBy(() -> ScaleOutConfig.requireSharedDirectory(PROPERTY, "./variable-blobs"))
+				.withMessageContaining("absolute");
+		assertThatIllegalStateException().isThrownBy(() -> ScaleOutConfig.requireSharedDirectory(PROPERTY, shared.resolve("missing").toString()))
+				.withMessageContaining("existing");
+	}
+}
@@ -0,0 +1,130 @@
+package com.example.workflow.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.flowable.engine.RuntimeService;
+import org.flowable.engine.TaskService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+class CompactListingTests {
+
+	private static final String PROCESS_KEY = "simpleTextProcessingWorkflow";
+
+	@Autowired
+	private WebApplicationContext context;
+
+	@Autowired
+	private RuntimeService runtimeService;
+
+	@Autowired
+	private TaskService taskService;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	private MockMvc mockMvc;
+
+	private String businessKey;
+
+	private String processInstanceId;
+
+	@BeforeEach
+	void setUp() {
+		mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+		businessKey = "listing-" + UUID.randomUUID();
+		processInstanceId = runtimeService.startProcessInstanceByKey(PROCESS_KEY, businessKey, Map.of("text", "listing")).getId();
+	}
+
+	@Test
+	void runningProcessRowsCarryOnlyTheSelectedFields() throws Exception {
+		JsonNode row = find("/workflow/process/running", processInstanceId, "businessKey,processDefinitionKey");
+
+		assertThat(fieldNames(row)).containsExactlyInAnyOrder("id", "businessKey", "processDefinitionKey");
+		assertThat(row.get("businessKey").asText()).isEqualTo(businessKey);
+		assertThat(row.get("processDefinitionKey").asText()).isEqualTo(PROCESS_KEY);
+	}
+
+	@Test
+	void rowsWithoutASelectionLeaveOutOnlyNullFields() throws Exception {
+		JsonNode row = find("/workflow/process/running", processInstanceId, null);
+
+		assertThat(fieldNames(row)).contains("id", "processDefinitionId", "processDefinitionKey", "businessKey", "startTime")
+				.doesNotContain("name", "startUserId");
+	}
+
+	@Test
+	void taskRowsCarryOnlyTheSelectedFields() throws Exception {
+		String taskId = taskService.createTaskQuery().processInstanceId(processInstanceId).singleResult().getId();
+
+		JsonNode row = find("/workflow/tasks", taskId, "name,processInstanceId");
+
+		assertThat(fieldNames(row)).containsExactlyInAnyOrder("id", "name", "processInstanceId");
+		assertThat(row.get("processInstanceId").asText()).isEqualTo(processInstanceId);
+	}
+
+	@Test
+	void unknownFieldsAreRejected() throws Exception {
+		mockMvc.perform(get("/workflow/tasks").param("fields", "name,secret"))
+				.andExpect(status().isBadRequest());
+	}
+
+	/**
+	 * Pages through the listing until the row with the given ID turns up.
+	 */
+	private JsonNode find(String path, String id, String fields) throws Exception {
+		String cursor = null;
+		do {
+			MockHttpServletResponse response = list(path, cursor, fields);
+			for (JsonNode row : objectMapper.readTree(response.getContentAsString())) {
+				if (row.get("id").asText().equals(id)) {
+					return row;
+				}
+			}
+			cursor = response.getHeader(WorkflowController.NEXT_CURSOR_HEADER);
+		} while (cursor != null);
+		throw new AssertionError("No row " + id + " in " + path);
+	}
+
+	private MockHttpServletResponse list(String path, String cursor, String fields) throws Exception {
+		MvcResult started = mockMvc.perform(get(path)
+						.param("pageSize", "500")
+						.param("cursor", cursor)
+						.param("fields", fields))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		return mockMvc.perform(asyncDispatch(started))
+				.andExpect(status().isOk())
+				.andReturn().getResponse();
+	}
+
+	private static List<String> fieldNames(JsonNode row) {
+		List<String> names = new ArrayList<>();
+		for (Iterator<String> it = row.fieldNames(); it.hasNext(); ) {
+			names.add(it.next());
+		}
+		return names;
+	}
+}
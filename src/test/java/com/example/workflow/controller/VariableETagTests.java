@@ -0,0 +1,122 @@
+package com.example.workflow.controller;
+
+import com.example.workflow.service.WorkflowService;
+import org.flowable.engine.TaskService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+class VariableETagTests {
+
+	@Autowired
+	private WebApplicationContext context;
+
+	@Autowired
+	private WorkflowService workflowService;
+
+	@Autowired
+	private TaskService taskService;
+
+	private MockMvc mockMvc;
+
+	private String processInstanceId;
+
+	@BeforeEach
+	void setUp() {
+		mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+		processInstanceId = workflowService.startProcess("simpleTextProcessingWorkflow", Map.of("text", "etag-" + UUID.randomUUID()));
+	}
+
+	@Test
+	void unchangedProcessVariablesAreAnsweredWithNotModified() throws Exception {
+		String etag = etagOf(get("/workflow/process/{id}/variables", processInstanceId));
+
+		mockMvc.perform(get("/workflow/process/{id}/variables", processInstanceId).header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified());
+
+		workflowService.setProcessVariable(processInstanceId, "text", "changed");
+
+		String changed = mockMvc.perform(get("/workflow/process/{id}/variables", processInstanceId).header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.text").value("changed"))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertThat(changed).isNotNull().isNotEqualTo(etag);
+	}
+
+	@Test
+	void addingAVariableChangesTheETag() throws Exception {
+		String etag = etagOf(get("/workflow/process/{id}/variables", processInstanceId));
+
+		workflowService.setProcessVariable(processInstanceId, "added", "value");
+
+		mockMvc.perform(get("/workflow/process/{id}/variables", processInstanceId).header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.added").value("value"));
+	}
+
+	@Test
+	void projectedVariablesIgnoreChangesToOtherVariables() throws Exception {
+		workflowService.setProcessVariable(processInstanceId, "other", "before");
+		String etag = etagOf(get("/workflow/process/{id}/variables", processInstanceId).param("names", "text"));
+
+		workflowService.setProcessVariable(processInstanceId, "other", "after");
+
+		mockMvc.perform(get("/workflow/process/{id}/variables", processInstanceId).param("names", "text")
+						.header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified());
+		mockMvc.perform(get("/workflow/process/{id}/variables", processInstanceId).param("names", "text"))
+				.andExpect(jsonPath("$.other").doesNotExist());
+	}
+
+	@Test
+	void taskVariablesFollowTheirProcessAndLocalVariables() throws Exception {
+		String taskId = taskService.createTaskQuery().processInstanceId(processInstanceId).singleResult().getId();
+		String etag = etagOf(get("/workflow/task/{id}/variables", taskId));
+
+		mockMvc.perform(get("/workflow/task/{id}/variables", taskId).header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified());
+
+		workflowService.setTaskVariable(taskId, "comment", "local");
+		String afterLocal = mockMvc.perform(get("/workflow/task/{id}/variables", taskId).header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		workflowService.setProcessVariable(processInstanceId, "text", "changed");
+		mockMvc.perform(get("/workflow/task/{id}/variables", taskId).header(HttpHeaders.IF_NONE_MATCH, afterLocal))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.text").value("changed"));
+	}
+
+	@Test
+	void unknownProcessInstanceIsNotFoundWithoutAnETag() throws Exception {
+		mockMvc.perform(get("/workflow/process/{id}/variables", "missing-" + UUID.randomUUID()))
+				.andExpect(status().isNotFound())
+				.andExpect(header().doesNotExist(HttpHeaders.ETAG));
+	}
+
+	private String etagOf(MockHttpServletRequestBuilder request) throws Exception {
+		String etag = mockMvc.perform(request)
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertThat(etag).isNotNull();
+		return etag;
+	}
+}
@@ -0,0 +1,175 @@
+package com.example.workflow.definition;
+
+import com.example.workflow.config.WorkflowProperties;
+import com.example.workflow.service.WorkflowService;
+import com.example.workflow.worker.ModelCallWorker;
+import org.flowable.bpmn.model.BpmnModel;
+import org.flowable.bpmn.model.EndEvent;
+import org.flowable.bpmn.model.ExternalWorkerServiceTask;
+import org.flowable.bpmn.model.FlowElement;
+import org.flowable.bpmn.model.SequenceFlow;
+import org.flowable.bpmn.model.StartEvent;
+import org.flowable.bpmn.model.UserTask;
+import org.flowable.common.engine.api.FlowableException;
+import org.flowable.common.engine.impl.history.HistoryLevel;
+import org.flowable.engine.HistoryService;
+import org.flowable.engine.RepositoryService;
+import org.flowable.engine.RuntimeService;
+import org.flowable.spring.SpringProcessEngineConfiguration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+class ProcessDefinitionSettingsTests {
+
+	@Autowired
+	private WorkflowProperties workflowProperties;
+
+	@Autowired
+	private WorkflowService workflowService;
+
+	@Autowired
+	private TransientVariables transientVariables;
+
+	@Autowired
+	private RepositoryService repositoryService;
+
+	@Autowired
+	private RuntimeService runtimeService;
+
+	@Autowired
+	private HistoryService historyService;
+
+	@Autowired
+	private SpringProcessEngineConfiguration processEngineConfiguration;
+
+	private final List<String> configuredKeys = new ArrayList<>();
+
+	@AfterEach
+	void removeSettings() {
+		configuredKeys.forEach(workflowProperties.getProcessDefinitions()::remove);
+	}
+
+	@Test
+	void historyLevelFromPropertiesAppliesToTheDefinition() {
+		String quiet = uniqueKey();
+		String audited = uniqueKey();
+		configure(quiet).setHistoryLevel(HistoryLevel.NONE);
+		deploy(quiet, endEvent());
+		deploy(audited, endEvent());
+
+		String quietInstance = runtimeService.startProcessInstanceByKey(quiet).getId();
+		String auditedInstance = runtimeService.startProcessInstanceByKey(audited).getId();
+
+		assertThat(historyService.createHistoricProcessInstanceQuery().processInstanceId(quietInstance).count()).isZero();
+		assertThat(historyService.createHistoricProcessInstanceQuery().processInstanceId(auditedInstance).count()).isEqualTo(1);
+	}
+
+	@Test
+	void transientStartVariablesAreNotPersisted() {
+		String processKey = uniqueKey();
+		configure(processKey).setTransientVariables(Set.of("payload"));
+		deploy(processKey, userTask());
+
+		String processInstanceId = workflowService.startProcess(processKey, Map.of("payload", "large", "kept", "small"));
+
+		assertThat(runtimeService.getVariables(processInstanceId)).containsOnlyKeys("kept");
+		assertThat(transientVariables.split(processKey, Map.of("payload", 1, "kept", 2)))
+				.isEqualTo(new TransientVariables.Split(Map.of("kept", 2), Map.of("payload", 1)));
+	}
+
+	@Test
+	void modelCallVariablesCannotBeTransient() {
+		String processKey = uniqueKey();
+		configure(processKey).setTransientVariables(Set.of(ModelCallWorker.OUTPUT_VARIABLE));
+
+		assertThatThrownBy(() -> deploy(processKey, modelCall()))
+				.isInstanceOf(FlowableException.class)
+				.hasMessageContaining(ModelCallWorker.OUTPUT_VARIABLE);
+	}
+
+	@Test
+	void definitionDeployedBeforeTheSettingIsRejectedAtStartup() {
+		String processKey = uniqueKey();
+		deploy(processKey, modelCall());
+		configure(processKey).setTransientVariables(Set.of(ModelCallWorker.INPUT_VARIABLE));
+		// As after a restart, the definition is parsed again when it is first used
+		processEngineConfiguration.getProcessDefinitionCache().clear();
+
+		assertThatThrownBy(transientVariables::checkDeployedDefinitions)
+				.isInstanceOf(FlowableException.class)
+				.hasMessageContaining(ModelCallWorker.INPUT_VARIABLE);
+	}
+
+	private String uniqueKey() {
+		return "definition" + UUID.randomUUID().toString().replace("-", "");
+	}
+
+	private WorkflowProperties.Definition configure(String processKey) {
+		WorkflowProperties.Definition definition = new WorkflowProperties.Definition();
+		workflowProperties.getProcessDefinitions().put(processKey, definition);
+		configuredKeys.add(processKey);
+		return definition;
+	}
+
+	/**
+	 * Deploys a process running from a start event through the given element to an end event, or straight to the end
+	 * if the element is an end event.
+	 */
+	private void deploy(String processKey, FlowElement element) {
+		org.flowable.bpmn.model.Process process = new org.flowable.bpmn.model.Process();
+		process.setId(processKey);
+		StartEvent start = new StartEvent();
+		start.setId("start");
+		process.addFlowElement(start);
+		process.addFlowElement(flow("start", element.getId()));
+		process.addFlowElement(element);
+		if (!(element instanceof EndEvent)) {
+			EndEvent end = endEvent();
+			process.addFlowElement(flow(element.getId(), end.getId()));
+			process.addFlowElement(end);
+		}
+		BpmnModel model = new BpmnModel();
+		model.addProcess(process);
+		repositoryService.createDeployment().addBpmnModel(processKey + ".bpmn20.xml", model).deploy();
+	}
+
+	private static SequenceFlow flow(String from, String to) {
+		SequenceFlow flow = new SequenceFlow(from, to);
+		flow.setId(from + "-" + to);
+		return flow;
+	}
+
+	private static EndEvent endEvent() {
+		EndEvent end = new EndEvent();
+		end.setId("end");
+		return end;
+	}
+
+	private static UserTask userTask() {
+		UserTask task = new UserTask();
+		task.setId("task");
+		return task;
+	}
+
+	private static ExternalWorkerServiceTask modelCall() {
+		ExternalWorkerServiceTask task = new ExternalWorkerServiceTask();
+		task.setId("modelCall");
+		task.setType("external-worker");
+		task.setTopic(ModelCallWorker.TOPIC);
+		return task;
+	}
+}
@@ -0,0 +1,111 @@
+package com.example.workflow.inbox;
+
+import com.example.workflow.config.WorkflowProperties;
+import org.flowable.engine.RuntimeService;
+import org.flowable.engine.TaskService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+class TaskChangeBroadcasterTests {
+
+	@Autowired
+	private WebApplicationContext context;
+
+	@Autowired
+	private RuntimeService runtimeService;
+
+	@Autowired
+	private TaskService taskService;
+
+	@Autowired
+	private WorkflowProperties workflowProperties;
+
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	void setUp() {
+		mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+	}
+
+	@Test
+	void reassignedTaskReachesTheFormerAssigneeAsRemoved() throws Exception {
+		String alice = "alice-" + UUID.randomUUID();
+		String bob = "bob-" + UUID.randomUUID();
+		MockHttpServletResponse aliceStream = subscribe("assignee", alice);
+		MockHttpServletResponse bobStream = subscribe("assignee", bob);
+		String taskId = startTask();
+		String otherTaskId = startTask();
+
+		taskService.setAssignee(taskId, alice);
+		awaitEvent(aliceStream, "ASSIGNED", taskId);
+
+		taskService.setAssignee(taskId, bob);
+		awaitEvent(aliceStream, "REMOVED", taskId);
+		awaitEvent(bobStream, "ASSIGNED", taskId);
+
+		// A task that never matched the filter is not streamed at all
+		taskService.setAssignee(otherTaskId, bob);
+		awaitEvent(bobStream, "ASSIGNED", otherTaskId);
+		assertThat(aliceStream.getContentAsString()).doesNotContain(otherTaskId);
+	}
+
+	@Test
+	void taskLosingACandidateGroupReachesTheGroupAsRemoved() throws Exception {
+		String group = "reviewers-" + UUID.randomUUID();
+		MockHttpServletResponse groupStream = subscribe("group", group);
+		String taskId = startTask();
+
+		taskService.addCandidateGroup(taskId, group);
+		awaitEvent(groupStream, "UPDATED", taskId);
+
+		taskService.deleteCandidateGroup(taskId, group);
+		awaitEvent(groupStream, "REMOVED", taskId);
+	}
+
+	@Test
+	void subscriptionIsRefusedWhileTheInboxIsDisabled() throws Exception {
+		workflowProperties.getTaskInbox().setEnabled(false);
+		try {
+			mockMvc.perform(get("/ui/tasks/events").param("assignee", "anyone"))
+					.andExpect(status().isServiceUnavailable());
+		} finally {
+			workflowProperties.getTaskInbox().setEnabled(true);
+		}
+	}
+
+	private MockHttpServletResponse subscribe(String filter, String value) throws Exception {
+		return mockMvc.perform(get("/ui/tasks/events").param(filter, value))
+				.andExpect(request().asyncStarted())
+				.andReturn()
+				.getResponse();
+	}
+
+	private String startTask() {
+		String processInstanceId = runtimeService.startProcessInstanceByKey("simpleTextProcessingWorkflow", Map.of("text", "events")).getId();
+		return taskService.createTaskQuery().processInstanceId(processInstanceId).singleResult().getId();
+	}
+
+	private static void awaitEvent(MockHttpServletResponse stream, String type, String taskId) {
+		await().atMost(Duration.ofSeconds(10))
+				.until(() -> stream.getContentAsString().contains("event:" + type + "\nid:" + taskId + "\n"));
+	}
+}
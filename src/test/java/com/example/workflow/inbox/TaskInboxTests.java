@@ -0,0 +1,148 @@
+package com.example.workflow.inbox;
+
+import com.example.workflow.config.WorkflowProperties;
+import org.flowable.engine.ManagementService;
+import org.flowable.engine.RuntimeService;
+import org.flowable.engine.TaskService;
+import org.flowable.task.api.NativeTaskQuery;
+import org.flowable.task.api.Task;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+class TaskInboxTests {
+
+	@Autowired
+	private TaskService taskService;
+
+	@Autowired
+	private RuntimeService runtimeService;
+
+	@Autowired
+	private ManagementService managementService;
+
+	private final List<String> created = new ArrayList<>();
+
+	@AfterEach
+	void deleteTasks() {
+		created.stream()
+				.filter(id -> taskService.createTaskQuery().taskId(id).count() > 0)
+				.forEach(id -> taskService.deleteTask(id, true));
+	}
+
+	@Test
+	void tasksCompletedDuringARebuildDoNotHideLaterOnes() {
+		// The IDs sort after every generated one, so these tasks are the last pages of the rebuild
+		String assignee = "inbox-" + UUID.randomUUID();
+		List<String> ids = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			ids.add(createTask("~" + assignee + "-" + i, assignee, null));
+		}
+		Set<String> completedWhileRebuilding = Set.of(ids.get(0), ids.get(2), ids.get(4), ids.get(6), ids.get(8));
+		TaskInbox inbox = new TaskInbox(completingAfterEachPage(completedWhileRebuilding), runtimeService, managementService, properties(2));
+
+		inbox.rebuild();
+
+		// The inbox is not registered for events, so the completed tasks stay until the next reconciliation
+		assertThat(inbox.getTasksByAssignee(assignee)).extracting(Task::getId).containsAll(ids.stream()
+				.filter(id -> !completedWhileRebuilding.contains(id)).toList());
+		assertThat(taskService.createTaskQuery().taskAssignee(assignee).count()).isEqualTo(5);
+	}
+
+	@Test
+	void reconciliationRepairsChangesTheListenerMissed() {
+		String assignee = "inbox-" + UUID.randomUUID();
+		String group = "inbox-group-" + UUID.randomUUID();
+		String assigned = createTask(UUID.randomUUID().toString(), assignee, null);
+		String offered = createTask(UUID.randomUUID().toString(), null, group);
+		TaskInbox inbox = new TaskInbox(taskService, runtimeService, managementService, properties(500));
+
+		assertThat(inbox.isReady()).isFalse();
+		inbox.reconcile();
+		assertThat(inbox.getTasksByAssignee(assignee)).isEmpty();
+
+		inbox.rebuild();
+
+		assertThat(inbox.isReady()).isTrue();
+		assertThat(inbox.getTasksByAssignee(assignee)).extracting(Task::getId).containsExactly(assigned);
+		assertThat(inbox.getTasksByCandidateGroup(group)).extracting(Task::getId).containsExactly(offered);
+
+		taskService.complete(assigned);
+		taskService.setAssignee(offered, assignee);
+		inbox.reconcile();
+
+		assertThat(inbox.getTasksByAssignee(assignee)).extracting(Task::getId).containsExactly(offered);
+		// Like the task query, a candidate group no longer sees a task once it is assigned
+		assertThat(inbox.getTasksByCandidateGroup(group)).isEmpty();
+	}
+
+	private String createTask(String id, String assignee, String group) {
+		Task task = taskService.newTask(id);
+		task.setName("inbox");
+		task.setAssignee(assignee);
+		taskService.saveTask(task);
+		if (group != null) {
+			taskService.addCandidateGroup(id, group);
+		}
+		created.add(id);
+		return id;
+	}
+
+	private static WorkflowProperties properties(int rebuildBatchSize) {
+		WorkflowProperties properties = new WorkflowProperties();
+		properties.getTaskInbox().setRebuildBatchSize(rebuildBatchSize);
+		return properties;
+	}
+
+	/**
+	 * Wraps the task service so that, before each page of the rebuild is read, the given tasks are completed
+	 * if an earlier page already returned them.
+	 */
+	private TaskService completingAfterEachPage(Set<String> taskIds) {
+		Set<String> read = new HashSet<>();
+		return (TaskService) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{TaskService.class}, (proxy, method, args) -> {
+			if (method.getName().equals("createNativeTaskQuery")) {
+				for (String taskId : taskIds) {
+					if (read.remove(taskId)) {
+						taskService.complete(taskId);
+					}
+				}
+				NativeTaskQuery query = taskService.createNativeTaskQuery();
+				return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{NativeTaskQuery.class}, (queryProxy, queryMethod, queryArgs) -> {
+					Object result = invoke(query, queryMethod, queryArgs);
+					if (result == query) {
+						return queryProxy;
+					}
+					if (queryMethod.getName().equals("listPage")) {
+						((List<?>) result).forEach(task -> read.add(((Task) task).getId()));
+					}
+					return result;
+				});
+			}
+			return invoke(taskService, method, args);
+		});
+	}
+
+	private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+		try {
+			return method.invoke(target, args);
+		} catch (InvocationTargetException e) {
+			throw e.getCause();
+		}
+	}
+}
@@ -0,0 +1,62 @@
+package com.example.workflow.loadtest;
+
+import org.flowable.engine.ManagementService;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Samples engine job queue depths once a second while a load test runs.
+ */
+class EngineSampler {
+	private final ManagementService managementService;
+	private Thread thread;
+	private long samples;
+	private long externalJobsTotal;
+	private long externalJobsMax;
+	private long asyncJobsMax;
+	private long deadLetterJobs;
+
+	EngineSampler(ManagementService managementService) {
+		this.managementService = managementService;
+	}
+
+	void start() {
+		thread = Thread.ofVirtual().name("engine-sampler").start(() -> {
+			while (!Thread.currentThread().isInterrupted()) {
+				sample();
+				try {
+					Thread.sleep(1000);
+				} catch (InterruptedException e) {
+					return;
+				}
+			}
+		});
+	}
+
+	void stop() throws InterruptedException {
+		thread.interrupt();
+		thread.join();
+		deadLetterJobs = managementService.createDeadLetterJobQuery().count();
+	}
+
+	private synchronized void sample() {
+		// External worker jobs are the model calls waiting for or held by the worker
+		long externalJobs = managementService.createExternalWorkerJobQuery().count();
+		long asyncJobs = managementService.createJobQuery().count();
+		samples++;
+		externalJobsTotal += externalJobs;
+		externalJobsMax = Math.max(externalJobsMax, externalJobs);
+		asyncJobsMax = Math.max(asyncJobsMax, asyncJobs);
+	}
+
+	synchronized Map<String, Object> report() {
+		Map<String, Object> report = new LinkedHashMap<>();
+		report.put("samples", samples);
+		report.put("modelCallQueueDepthAvg", samples > 0 ? (double) externalJobsTotal / samples : 0);
+		report.put("modelCallQueueDepthMax", externalJobsMax);
+		report.put("asyncJobQueueDepthMax", asyncJobsMax);
+		report.put("deadLetterJobs", deadLetterJobs);
+		return report;
+	}
+}
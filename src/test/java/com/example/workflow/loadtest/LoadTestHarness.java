@@ -0,0 +1,239 @@
+package com.example.workflow.loadtest;
+
+import com.example.workflow.WorkflowApplication;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.flowable.engine.ManagementService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Drives the full {@code simpleTextProcessingWorkflow} lifecycle through the REST API from many concurrent
+ * virtual-thread clients and reports throughput and latency percentiles per step, plus engine job queue depth.
+ * <p>
+ * Each client loops over: start an instance, look up its "Input Text" task, complete it, then poll until the
+ * model call step has ended the instance. Run with {@code mvn -Pload-test verify}; settings are read from
+ * system properties:
+ * <ul>
+ *     <li>{@code loadtest.concurrency} - number of concurrent clients (default 50)</li>
+ *     <li>{@code loadtest.duration} - ISO-8601 run time after warm-up (default PT60S)</li>
+ *     <li>{@code loadtest.warmup} - ISO-8601 warm-up time whose samples are discarded (default PT10S)</li>
+ *     <li>{@code loadtest.baseUrl} - target an already running application instead of booting one on H2</li>
+ *     <li>{@code loadtest.result} - JSON report file (default target/loadtest-result.json)</li>
+ * </ul>
+ */
+public class LoadTestHarness {
+	private static final String PROCESS_KEY = "simpleTextProcessingWorkflow";
+	private static final Duration POLL_INTERVAL = Duration.ofMillis(20);
+	private static final Duration INSTANCE_TIMEOUT = Duration.ofMinutes(2);
+	private static final List<String> STEPS = List.of("start", "taskLookup", "complete", "modelCall", "lifecycle");
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final HttpClient httpClient;
+	private final String baseUrl;
+	private final Map<String, Step> steps = new LinkedHashMap<>();
+	private volatile boolean recording;
+
+	private record Step(Histogram latencies, LongAdder errors) {
+	}
+
+	LoadTestHarness(String baseUrl, ExecutorService clientExecutor) {
+		this.baseUrl = baseUrl;
+		this.httpClient = HttpClient.newBuilder().executor(clientExecutor).connectTimeout(Duration.ofSeconds(10)).build();
+		STEPS.forEach(name -> steps.put(name, new Step(new ConcurrentHistogram(TimeUnit.MINUTES.toMicros(5), 3), new LongAdder())));
+	}
+
+	public static void main(String[] args) throws Exception {
+		int concurrency = Integer.getInteger("loadtest.concurrency", 50);
+		Duration duration = Duration.parse(System.getProperty("loadtest.duration", "PT60S"));
+		Duration warmup = Duration.parse(System.getProperty("loadtest.warmup", "PT10S"));
+		Path result = Path.of(System.getProperty("loadtest.result", "target/loadtest-result.json"));
+		String baseUrl = System.getProperty("loadtest.baseUrl");
+
+		ConfigurableApplicationContext context = null;
+		if (baseUrl == null) {
+			context = new SpringApplicationBuilder(WorkflowApplication.class)
+					.profiles("h2")
+					.properties("server.port=0", "logging.level.root=WARN")
+					.run();
+			baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+		}
+		try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+			LoadTestHarness harness = new LoadTestHarness(baseUrl, clients);
+			EngineSampler sampler = context != null ? new EngineSampler(context.getBean(ManagementService.class)) : null;
+			Map<String, Object> report = harness.run(clients, concurrency, warmup, duration, sampler);
+			harness.objectMapper.writerWithDefaultPrettyPrinter().writeValue(Files.newOutputStream(result), report);
+			System.out.println(harness.objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(report));
+			System.out.println("Report written to " + result.toAbsolutePath());
+		} finally {
+			if (context != null) {
+				context.close();
+			}
+		}
+	}
+
+	Map<String, Object> run(ExecutorService clients, int concurrency, Duration warmup, Duration duration, EngineSampler sampler)
+			throws InterruptedException {
+		long deadline = System.nanoTime() + warmup.plus(duration).toNanos();
+		AtomicLong sequence = new AtomicLong();
+		List<Future<?>> running = new ArrayList<>(concurrency);
+		for (int i = 0; i < concurrency; i++) {
+			running.add(clients.submit(() -> {
+				while (System.nanoTime() < deadline) {
+					runLifecycle(sequence.incrementAndGet());
+				}
+				return null;
+			}));
+		}
+		Thread.sleep(warmup.toMillis());
+		steps.values().forEach(step -> {
+			step.latencies().reset();
+			step.errors().reset();
+		});
+		recording = true;
+		if (sampler != null) {
+			sampler.start();
+		}
+		long measureStart = System.nanoTime();
+		for (Future<?> client : running) {
+			try {
+				client.get();
+			} catch (ExecutionException e) {
+				System.err.println("Client failed: " + e.getCause());
+			}
+		}
+		double seconds = (System.nanoTime() - measureStart) / 1e9;
+		if (sampler != null) {
+			sampler.stop();
+		}
+		return report(concurrency, seconds, sampler);
+	}
+
+	private void runLifecycle(long n) {
+		long lifecycleStart = System.nanoTime();
+		try {
+			String processInstanceId = timed("start", () -> send(HttpRequest.newBuilder(uri("/workflow/start?processKey=" + PROCESS_KEY))
+					.header("Content-Type", "application/json")
+					.POST(HttpRequest.BodyPublishers.ofString("{\"text\":\"load test input " + n + "\"}"))
+					.build()));
+			String taskId = timed("taskLookup", () -> {
+				List<String> taskIds = objectMapper.readValue(send(HttpRequest.newBuilder(uri("/workflow/process/" + processInstanceId + "/tasks")).GET().build()),
+						new TypeReference<>() {
+						});
+				if (taskIds.isEmpty()) {
+					throw new IllegalStateException("No task for process instance " + processInstanceId);
+				}
+				return taskIds.getFirst();
+			});
+			timed("complete", () -> send(HttpRequest.newBuilder(uri("/workflow/task/" + taskId + "/complete"))
+					.header("Content-Type", "application/json")
+					.POST(HttpRequest.BodyPublishers.ofString("{}"))
+					.build()));
+			timed("modelCall", () -> awaitEnd(processInstanceId));
+			record("lifecycle", System.nanoTime() - lifecycleStart);
+		} catch (Exception e) {
+			if (recording) {
+				steps.get("lifecycle").errors().increment();
+			}
+		}
+	}
+
+	/**
+	 * Polls the instance variables until the instance is gone, i.e. the model call step completed and the instance ended.
+	 */
+	private String awaitEnd(String processInstanceId) throws IOException, InterruptedException {
+		long timeout = System.nanoTime() + INSTANCE_TIMEOUT.toNanos();
+		HttpRequest poll = HttpRequest.newBuilder(uri("/workflow/process/" + processInstanceId + "/variables")).GET().build();
+		while (System.nanoTime() < timeout) {
+			HttpResponse<String> response = httpClient.send(poll, HttpResponse.BodyHandlers.ofString());
+			if (response.statusCode() == 404) {
+				return processInstanceId;
+			}
+			Thread.sleep(POLL_INTERVAL.toMillis());
+		}
+		throw new IllegalStateException("Process instance " + processInstanceId + " did not end within " + INSTANCE_TIMEOUT);
+	}
+
+	private String send(HttpRequest request) throws IOException, InterruptedException {
+		HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+		if (response.statusCode() >= 300) {
+			throw new IllegalStateException(request.uri() + " returned " + response.statusCode());
+		}
+		return response.body();
+	}
+
+	private <T> T timed(String step, ThrowingSupplier<T> call) throws Exception {
+		long start = System.nanoTime();
+		try {
+			T value = call.get();
+			record(step, System.nanoTime() - start);
+			return value;
+		} catch (Exception e) {
+			if (recording) {
+				steps.get(step).errors().increment();
+			}
+			throw e;
+		}
+	}
+
+	private void record(String step, long nanos) {
+		if (recording) {
+			steps.get(step).latencies().recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(nanos), TimeUnit.MINUTES.toMicros(5)));
+		}
+	}
+
+	private URI uri(String path) {
+		return URI.create(baseUrl + path);
+	}
+
+	private Map<String, Object> report(int concurrency, double seconds, EngineSampler sampler) {
+		Map<String, Object> report = new LinkedHashMap<>();
+		report.put("concurrency", concurrency);
+		report.put("durationSeconds", seconds);
+		Map<String, Object> stepReports = new LinkedHashMap<>();
+		steps.forEach((name, step) -> {
+			Histogram latencies = step.latencies();
+			Map<String, Object> stepReport = new LinkedHashMap<>();
+			stepReport.put("count", latencies.getTotalCount());
+			stepReport.put("errors", step.errors().sum());
+			stepReport.put("throughputPerSecond", latencies.getTotalCount() / seconds);
+			stepReport.put("p50Millis", latencies.getValueAtPercentile(50) / 1000.0);
+			stepReport.put("p99Millis", latencies.getValueAtPercentile(99) / 1000.0);
+			stepReport.put("p999Millis", latencies.getValueAtPercentile(99.9) / 1000.0);
+			stepReport.put("maxMillis", latencies.getMaxValue() / 1000.0);
+			stepReports.put(name, stepReport);
+		});
+		report.put("steps", stepReports);
+		if (sampler != null) {
+			report.put("engine", sampler.report());
+		}
+		return report;
+	}
+
+	@FunctionalInterface
+	private interface ThrowingSupplier<T> {
+		T get() throws Exception;
+	}
+}
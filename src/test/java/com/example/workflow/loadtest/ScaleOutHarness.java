@@ -0,0 +1,223 @@
+package com.example.workflow.loadtest;
+
+import com.example.workflow.WorkflowApplication;
+import com.example.workflow.cluster.NodeIdentity;
+import com.example.workflow.metrics.ModelCallWorkerMetrics;
+import com.example.workflow.worker.ModelCallWorker;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.flowable.engine.RuntimeService;
+import org.flowable.engine.TaskService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Boots several application contexts in scale-out mode against one shared in-memory H2 database, as separate nodes
+ * would run against one shared database, and measures how model call throughput grows with the number of nodes.
+ * <p>
+ * For 1 to {@code scaleout.nodes} nodes it starts a batch of {@code simpleTextProcessingWorkflow} instances and
+ * completes their "Input Text" task while the model call workers are stopped, then restarts the workers and times how
+ * long the nodes take to end all the instances. Each model call blocks like a remote call would; each node's share and
+ * job latency come from its {@code workflow.model-call.jobs} timer. It then kills one node without releasing its job
+ * locks and times how long the remaining nodes take to finish the locked jobs. Run with
+ * {@code mvn -Pscale-out-test verify}; settings are read from system properties:
+ * <ul>
+ *     <li>{@code scaleout.nodes} - largest number of nodes (default 2)</li>
+ *     <li>{@code scaleout.instances} - process instances per measurement (default 1000)</li>
+ *     <li>{@code scaleout.threads} - concurrent model calls per node (default 8)</li>
+ *     <li>{@code scaleout.acquireSize} - model call jobs locked per acquisition (default threads)</li>
+ *     <li>{@code scaleout.workMillis} - time each model call blocks (default 50)</li>
+ *     <li>{@code scaleout.lockTime} - ISO-8601 model call job lock time, bounds the recovery after a node dies (default PT10S)</li>
+ *     <li>{@code scaleout.result} - JSON report file (default target/scaleout-result.json)</li>
+ * </ul>
+ */
+public class ScaleOutHarness {
+	private static final String PROCESS_KEY = "simpleTextProcessingWorkflow";
+	private static final Duration RUN_TIMEOUT = Duration.ofMinutes(10);
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final List<ConfigurableApplicationContext> nodes = new ArrayList<>();
+	private final int threads;
+	private final Duration lockTime;
+
+	ScaleOutHarness(int threads, Duration lockTime) {
+		this.threads = threads;
+		this.lockTime = lockTime;
+	}
+
+	public static void main(String[] args) throws Exception {
+		int maxNodes = Integer.getInteger("scaleout.nodes", 2);
+		int instances = Integer.getInteger("scaleout.instances", 1000);
+		int threads = Integer.getInteger("scaleout.threads", 8);
+		Duration lockTime = Duration.parse(System.getProperty("scaleout.lockTime", "PT10S"));
+		Path result = Path.of(System.getProperty("scaleout.result", "target/scaleout-result.json"));
+
+		ScaleOutHarness harness = new ScaleOutHarness(threads, lockTime);
+		try {
+			Map<String, Object> report = new LinkedHashMap<>();
+			// Every node shares this JVM's processors; with few of them engine work, not the model calls, bounds throughput
+			report.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+			report.put("instances", instances);
+			report.put("modelCallsPerNode", threads);
+			report.put("workMillis", Long.getLong("scaleout.workMillis", 50));
+			List<Map<String, Object>> runs = new ArrayList<>();
+			for (int n = 1; n <= maxNodes; n++) {
+				harness.addNode(n);
+				runs.add(harness.measure(instances));
+			}
+			double baseline = (double) runs.getFirst().get("jobsPerSecond");
+			runs.forEach(run -> run.put("speedup", (double) run.get("jobsPerSecond") / baseline));
+			report.put("runs", runs);
+			if (maxNodes > 1) {
+				report.put("failover", harness.failover(instances));
+			}
+			harness.objectMapper.writerWithDefaultPrettyPrinter().writeValue(Files.newOutputStream(result), report);
+			System.out.println(harness.objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(report));
+			System.out.println("Report written to " + result.toAbsolutePath());
+		} finally {
+			harness.nodes.forEach(ConfigurableApplicationContext::close);
+		}
+	}
+
+	private void addNode(int number) {
+		ConfigurableApplicationContext node = new SpringApplicationBuilder(WorkflowApplication.class)
+				.profiles("h2")
+				.properties("server.port=0", "logging.level.root=WARN")
+				.initializers(context -> context.getBeanFactory().addBeanPostProcessor(new SimulatedModelLatency()))
+				// Command line arguments, so they take precedence over application.properties
+				.run("--workflow.scale-out.enabled=true",
+						"--workflow.scale-out.node-id=node-" + number,
+						"--workflow.model-call.worker-enabled=true",
+						"--workflow.model-call.max-concurrency=" + threads,
+						"--workflow.model-call.acquire-size=" + Integer.getInteger("scaleout.acquireSize", threads),
+						"--workflow.model-call.poll-interval=PT0.05S",
+						"--workflow.model-call.lock-duration=" + lockTime,
+						"--workflow.model-call.cache.enabled=false",
+						"--spring.datasource.hikari.maximum-pool-size=" + (threads + 10),
+						"--workflow.admission.enabled=false",
+						"--workflow.activity-analytics.enabled=false");
+		nodes.add(node);
+	}
+
+	/**
+	 * Queues the model calls while every worker is stopped, so setting up the instances does not compete with the
+	 * calls for connections, then starts the workers and waits for the nodes to end all the instances.
+	 */
+	private Map<String, Object> measure(int instances) throws Exception {
+		nodes.forEach(node -> node.getBean(ModelCallWorker.class).stop());
+		queueModelCalls(instances);
+		Map<String, Long> countsBefore = new LinkedHashMap<>();
+		Map<String, Double> totalsBefore = new LinkedHashMap<>();
+		jobTimers().forEach((node, timer) -> {
+			countsBefore.put(node, timer.count());
+			totalsBefore.put(node, timer.totalTime(TimeUnit.MILLISECONDS));
+		});
+		long start = System.nanoTime();
+		nodes.forEach(node -> node.getBean(ModelCallWorker.class).start());
+		awaitAllEnded();
+		double seconds = (System.nanoTime() - start) / 1e9;
+
+		Map<String, Object> run = new LinkedHashMap<>();
+		run.put("nodes", nodes.size());
+		run.put("seconds", seconds);
+		run.put("jobsPerSecond", instances / seconds);
+		Map<String, Object> share = new LinkedHashMap<>();
+		Map<String, Object> latency = new LinkedHashMap<>();
+		jobTimers().forEach((node, timer) -> {
+			long jobs = timer.count() - countsBefore.getOrDefault(node, 0L);
+			share.put(node, jobs);
+			latency.put(node, jobs > 0 ? (timer.totalTime(TimeUnit.MILLISECONDS) - totalsBefore.getOrDefault(node, 0.0)) / jobs : 0);
+		});
+		run.put("jobsPerNode", share);
+		run.put("meanJobMillisPerNode", latency);
+		return run;
+	}
+
+	/**
+	 * Kills the last node while it holds job locks and measures how long the other nodes take to finish its jobs.
+	 */
+	private Map<String, Object> failover(int instances) throws Exception {
+		ConfigurableApplicationContext victim = nodes.getLast();
+		String victimId = victim.getBean(NodeIdentity.class).getNodeId();
+		long start = System.nanoTime();
+		queueModelCalls(instances);
+		Thread.sleep(500);
+		crash(victim);
+		nodes.remove(victim);
+		awaitAllEnded();
+
+		Map<String, Object> failover = new LinkedHashMap<>();
+		failover.put("killedNode", victimId);
+		failover.put("lockTimeSeconds", lockTime.toSeconds());
+		failover.put("secondsUntilAllEnded", (System.nanoTime() - start) / 1e9);
+		return failover;
+	}
+
+	/**
+	 * Stops a node the way a dying one would: its connections go first, so calls in flight cannot report their
+	 * results and the worker cannot hand back its locked jobs.
+	 */
+	private static void crash(ConfigurableApplicationContext node) {
+		if (node.getBean(DataSource.class) instanceof HikariDataSource dataSource) {
+			dataSource.close();
+		}
+		node.close();
+	}
+
+	/**
+	 * Starts the instances and completes their "Input Text" task, which leaves each waiting for its model call.
+	 */
+	private void queueModelCalls(int instances) throws Exception {
+		RuntimeService runtimeService = nodes.getFirst().getBean(RuntimeService.class);
+		TaskService taskService = nodes.getFirst().getBean(TaskService.class);
+		try (ExecutorService starters = Executors.newFixedThreadPool(16)) {
+			List<Future<?>> started = new ArrayList<>(instances);
+			for (int i = 0; i < instances; i++) {
+				String text = "scale-out " + i + " " + System.nanoTime();
+				started.add(starters.submit(() -> {
+					String processInstanceId = runtimeService.startProcessInstanceByKey(PROCESS_KEY, Map.of("text", text)).getId();
+					taskService.complete(taskService.createTaskQuery().processInstanceId(processInstanceId).singleResult().getId());
+				}));
+			}
+			for (Future<?> future : started) {
+				future.get();
+			}
+		}
+	}
+
+	private void awaitAllEnded() throws InterruptedException {
+		RuntimeService runtimeService = nodes.getFirst().getBean(RuntimeService.class);
+		long timeout = System.nanoTime() + RUN_TIMEOUT.toNanos();
+		while (runtimeService.createProcessInstanceQuery().processDefinitionKey(PROCESS_KEY).count() > 0) {
+			if (System.nanoTime() > timeout) {
+				throw new IllegalStateException("Instances did not end within " + RUN_TIMEOUT);
+			}
+			Thread.sleep(50);
+		}
+	}
+
+	private Map<String, Timer> jobTimers() {
+		Map<String, Timer> timers = new LinkedHashMap<>();
+		for (ConfigurableApplicationContext node : nodes) {
+			MeterRegistry registry = node.getBean(MeterRegistry.class);
+			timers.put(node.getBean(NodeIdentity.class).getNodeId(),
+					registry.get(ModelCallWorkerMetrics.JOB_TIMER_NAME).tag("outcome", "success").timer());
+		}
+		return timers;
+	}
+}
@@ -0,0 +1,50 @@
+package com.example.workflow.loadtest;
+
+import com.example.workflow.cache.CacheStats;
+import com.example.workflow.cache.ModelResultCache;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import java.util.Optional;
+
+/**
+ * Makes every model call of the scale-out benchmark block for {@code scaleout.workMillis}, like a remote call would.
+ * The benchmark turns the result cache off, so every call looks up the cache and misses; the lookup is where the
+ * delay goes.
+ */
+class SimulatedModelLatency implements BeanPostProcessor {
+	private static final long WORK_MILLIS = Long.getLong("scaleout.workMillis", 50);
+
+	@Override
+	public Object postProcessAfterInitialization(Object bean, String beanName) {
+		if (!(bean instanceof ModelResultCache cache)) {
+			return bean;
+		}
+		return new ModelResultCache() {
+			@Override
+			public Optional<String> get(String key) {
+				try {
+					Thread.sleep(WORK_MILLIS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new IllegalStateException("Interrupted", e);
+				}
+				return cache.get(key);
+			}
+
+			@Override
+			public void put(String key, String result) {
+				cache.put(key, result);
+			}
+
+			@Override
+			public void clear() {
+				cache.clear();
+			}
+
+			@Override
+			public CacheStats stats() {
+				return cache.stats();
+			}
+		};
+	}
+}
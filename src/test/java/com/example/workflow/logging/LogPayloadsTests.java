@@ -0,0 +1,53 @@
+package com.example.workflow.logging;
+
+import com.example.workflow.config.WorkflowProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LogPayloadsTests {
+
+	private final WorkflowProperties properties = new WorkflowProperties();
+
+	private final LogPayloads payloads = new LogPayloads(properties);
+
+	@Test
+	void shortValuesAreWrittenAsIs() {
+		Map<String, Object> variables = new LinkedHashMap<>();
+		variables.put("text", "hello");
+		variables.put("count", 3);
+		variables.put("missing", null);
+
+		assertThat(payloads.describe(variables)).isEqualTo("{text=hello, count=3, missing=null}");
+		assertThat(payloads.describe((Map<String, Object>) null)).isEqualTo("{}");
+	}
+
+	@Test
+	void oversizedValuesAreHashedByDefault() {
+		properties.getLogging().setMaxValueLength(10);
+		String large = "x".repeat(1000);
+
+		String described = payloads.describe(large);
+
+		assertThat(described).startsWith("<1000 chars, sha256:").doesNotContain("xxxxxxxxxxx");
+		assertThat(payloads.describe("x".repeat(1000))).isEqualTo(described);
+		assertThat(payloads.describe("y".repeat(1000))).isNotEqualTo(described);
+	}
+
+	@Test
+	void oversizedValuesCanBeTruncatedInstead() {
+		properties.getLogging().setMaxValueLength(5);
+		properties.getLogging().setOversizedValues(WorkflowProperties.Logging.OversizedValues.TRUNCATE);
+
+		assertThat(payloads.describe("abcdefghij")).isEqualTo("abcde...<10 chars>");
+		assertThat(payloads.describe("abcde")).isEqualTo("abcde");
+	}
+
+	@Test
+	void binaryValuesAreWrittenAsTheirLength() {
+		assertThat(payloads.describe(new byte[42])).isEqualTo("<42 bytes>");
+	}
+}
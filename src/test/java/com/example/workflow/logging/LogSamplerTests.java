@@ -0,0 +1,110 @@
+package com.example.workflow.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.example.workflow.config.WorkflowProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LogSamplerTests {
+
+	private final WorkflowProperties properties = new WorkflowProperties();
+
+	private final LogSampler sampler = new LogSampler(properties);
+
+	private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+
+	private Logger log;
+
+	@BeforeEach
+	void setUp() {
+		log = (Logger) LoggerFactory.getLogger("sampled-" + UUID.randomUUID());
+		log.setLevel(Level.INFO);
+		log.setAdditive(false);
+		log.addAppender(appender);
+		appender.start();
+	}
+
+	@AfterEach
+	void tearDown() {
+		appender.stop();
+		log.detachAppender(appender);
+	}
+
+	@Test
+	void dropsEventsOverTheCapAndReportsThemWithTheNextOne() throws InterruptedException {
+		properties.getLogging().setSampledEventsPerSecond(3);
+
+		awaitNextSecond();
+		for (int i = 0; i < 10; i++) {
+			sampler.atInfo(log, "process.started").addKeyValue("i", i).log("Process started");
+		}
+		assertThat(appender.list).hasSize(3).allSatisfy(event -> assertThat(value(event, "suppressed")).isNull());
+
+		awaitNextSecond();
+		sampler.atInfo(log, "process.started").log("Process started");
+
+		assertThat(appender.list).hasSize(4);
+		assertThat(value(appender.list.getLast(), "event")).isEqualTo("process.started");
+		assertThat(value(appender.list.getLast(), "suppressed")).isEqualTo(7L);
+	}
+
+	@Test
+	void eachKindOfEventHasItsOwnCap() throws InterruptedException {
+		properties.getLogging().setSampledEventsPerSecond(1);
+
+		awaitNextSecond();
+		sampler.atInfo(log, "process.started").log("Process started");
+		sampler.atInfo(log, "process.started").log("Process started");
+		sampler.atInfo(log, "task.completed").log("Task completed");
+
+		assertThat(appender.list).extracting(event -> value(event, "event")).containsExactly("process.started", "task.completed");
+	}
+
+	@Test
+	void zeroLogsEveryEvent() {
+		properties.getLogging().setSampledEventsPerSecond(0);
+
+		for (int i = 0; i < 500; i++) {
+			sampler.atInfo(log, "process.started").log("Process started");
+		}
+
+		assertThat(appender.list).hasSize(500);
+	}
+
+	@Test
+	void disabledLoggerDoesNotCountAgainstTheCap() throws InterruptedException {
+		properties.getLogging().setSampledEventsPerSecond(1);
+
+		awaitNextSecond();
+		log.setLevel(Level.WARN);
+		sampler.atInfo(log, "process.started").log("Process started");
+		log.setLevel(Level.INFO);
+		sampler.atInfo(log, "process.started").log("Process started");
+
+		assertThat(appender.list).hasSize(1);
+		assertThat(value(appender.list.getFirst(), "suppressed")).isNull();
+	}
+
+	private static Object value(ILoggingEvent event, String key) {
+		if (event.getKeyValuePairs() == null) {
+			return null;
+		}
+		return event.getKeyValuePairs().stream().filter(pair -> pair.key.equals(key)).map(pair -> pair.value).findFirst().orElse(null);
+	}
+
+	/**
+	 * Sleeps until a new second starts, so a burst of events falls within one sampling window.
+	 */
+	private static void awaitNextSecond() throws InterruptedException {
+		Thread.sleep(1000 - System.currentTimeMillis() % 1000 + 10);
+	}
+}
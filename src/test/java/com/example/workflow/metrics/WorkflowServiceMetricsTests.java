@@ -0,0 +1,79 @@
+package com.example.workflow.metrics;
+
+import com.example.workflow.service.WorkflowService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.flowable.bpmn.model.BpmnModel;
+import org.flowable.bpmn.model.EndEvent;
+import org.flowable.bpmn.model.SequenceFlow;
+import org.flowable.bpmn.model.StartEvent;
+import org.flowable.engine.RepositoryService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+class WorkflowServiceMetricsTests {
+
+	@Autowired
+	private WorkflowService workflowService;
+
+	@Autowired
+	private RepositoryService repositoryService;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Test
+	void tagsDeployedKeysAndFoldsOthersIntoUnknown() {
+		String unknownKey = "undeployed-" + UUID.randomUUID();
+		long unknownCalls = calls("unknown");
+
+		catchThrowable(() -> workflowService.startProcess(unknownKey, Map.of()));
+		workflowService.startProcess("simpleTextProcessingWorkflow", Map.of("text", "metrics"));
+
+		assertThat(calls("unknown")).isEqualTo(unknownCalls + 1);
+		assertThat(calls("simpleTextProcessingWorkflow")).isPositive();
+		assertThat(meterRegistry.find(WorkflowServiceMetrics.TIMER_NAME).tag("processKey", unknownKey).timer()).isNull();
+	}
+
+	@Test
+	void definitionDeployedOnThisNodeIsTaggedRightAway() {
+		String processKey = "metrics" + UUID.randomUUID().toString().replace("-", "");
+		repositoryService.createDeployment().addBpmnModel(processKey + ".bpmn20.xml", emptyProcess(processKey)).deploy();
+
+		workflowService.startProcess(processKey, Map.of());
+
+		assertThat(calls(processKey)).isEqualTo(1);
+	}
+
+	private long calls(String processKey) {
+		return meterRegistry.find(WorkflowServiceMetrics.TIMER_NAME).tag("method", "startProcess").tag("processKey", processKey)
+				.timers().stream().mapToLong(Timer::count).sum();
+	}
+
+	private static BpmnModel emptyProcess(String processKey) {
+		org.flowable.bpmn.model.Process process = new org.flowable.bpmn.model.Process();
+		process.setId(processKey);
+		StartEvent start = new StartEvent();
+		start.setId("start");
+		EndEvent end = new EndEvent();
+		end.setId("end");
+		SequenceFlow flow = new SequenceFlow("start", "end");
+		flow.setId("flow");
+		process.addFlowElement(start);
+		process.addFlowElement(flow);
+		process.addFlowElement(end);
+		BpmnModel model = new BpmnModel();
+		model.addProcess(process);
+		return model;
+	}
+}
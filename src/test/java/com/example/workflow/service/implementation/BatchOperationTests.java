@@ -0,0 +1,121 @@
+package com.example.workflow.service.implementation;
+
+import com.example.workflow.config.BatchExecutorConfig;
+import com.example.workflow.config.WorkflowProperties;
+import com.example.workflow.dto.BatchItemResult;
+import com.example.workflow.dto.TaskCompletion;
+import com.example.workflow.service.WorkflowService;
+import org.flowable.engine.RuntimeService;
+import org.flowable.engine.TaskService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+class BatchOperationTests {
+
+	private static final String PROCESS_KEY = "simpleTextProcessingWorkflow";
+
+	@Autowired
+	private WorkflowService workflowService;
+
+	@Autowired
+	private RuntimeService runtimeService;
+
+	@Autowired
+	private TaskService taskService;
+
+	@Autowired
+	private WorkflowProperties workflowProperties;
+
+	private int chunkSize;
+
+	@BeforeEach
+	void useSmallChunks() {
+		chunkSize = workflowProperties.getBatch().getChunkSize();
+		workflowProperties.getBatch().setChunkSize(3);
+	}
+
+	@AfterEach
+	void restoreChunkSize() {
+		workflowProperties.getBatch().setChunkSize(chunkSize);
+	}
+
+	@Test
+	void failingItemOnlyFailsItselfAndResultsKeepItemOrder() {
+		List<String> taskIds = new ArrayList<>();
+		for (int i = 0; i < 7; i++) {
+			String processInstanceId = runtimeService.startProcessInstanceByKey(PROCESS_KEY, Map.of("text", "batch " + i)).getId();
+			taskIds.add(taskService.createTaskQuery().processInstanceId(processInstanceId).singleResult().getId());
+		}
+		String missing = "missing-" + UUID.randomUUID();
+		List<TaskCompletion> completions = new ArrayList<>(taskIds.stream().map(id -> new TaskCompletion(id, Map.of())).toList());
+		completions.add(4, new TaskCompletion(missing, Map.of()));
+
+		List<BatchItemResult> results = workflowService.completeTasks(completions);
+
+		assertThat(results).extracting(BatchItemResult::index).containsExactly(0, 1, 2, 3, 4, 5, 6, 7);
+		assertThat(results).filteredOn(result -> !result.isSuccess()).singleElement()
+				.satisfies(result -> {
+					assertThat(result.index()).isEqualTo(4);
+					assertThat(result.id()).isEqualTo(missing);
+				});
+		// The chunk holding the failing item was rolled back and replayed, so its other tasks are completed as well
+		assertThat(taskService.createTaskQuery().taskIds(taskIds).count()).isZero();
+	}
+
+	@Test
+	void batchesAboveTheLimitAreRefusedUpFront() {
+		int maxItems = workflowProperties.getBatch().getMaxItems();
+
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> workflowService.startProcesses(PROCESS_KEY, Collections.nCopies(maxItems + 1, Map.of())));
+	}
+
+	@Test
+	void fullQueueRunsChunksOnTheCallingThread() throws InterruptedException {
+		WorkflowProperties properties = new WorkflowProperties();
+		properties.getBatch().setParallelism(1);
+		properties.getBatch().setQueueCapacity(1);
+		ExecutorService executor = new BatchExecutorConfig().batchExecutor(properties);
+		CountDownLatch release = new CountDownLatch(1);
+		List<String> threads = Collections.synchronizedList(new ArrayList<>());
+		try {
+			executor.execute(() -> {
+				threads.add(Thread.currentThread().getName());
+				awaitQuietly(release);
+			});
+			executor.execute(() -> threads.add(Thread.currentThread().getName()));
+
+			executor.execute(() -> threads.add(Thread.currentThread().getName()));
+
+			assertThat(threads).contains(Thread.currentThread().getName());
+		} finally {
+			release.countDown();
+			executor.shutdown();
+		}
+	}
+
+	private static void awaitQuietly(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
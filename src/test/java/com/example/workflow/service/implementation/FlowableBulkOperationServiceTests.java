@@ -0,0 +1,150 @@
+package com.example.workflow.service.implementation;
+
+import com.example.workflow.config.WorkflowProperties;
+import com.example.workflow.dto.BulkOperationRequest;
+import com.example.workflow.dto.BulkOperationStatus;
+import com.example.workflow.service.BulkOperationService;
+import org.flowable.common.engine.api.FlowableException;
+import org.flowable.common.engine.api.delegate.event.AbstractFlowableEventListener;
+import org.flowable.common.engine.api.delegate.event.FlowableEngineEvent;
+import org.flowable.common.engine.api.delegate.event.FlowableEngineEventType;
+import org.flowable.common.engine.api.delegate.event.FlowableEvent;
+import org.flowable.common.engine.impl.runtime.Clock;
+import org.flowable.engine.ProcessEngine;
+import org.flowable.engine.RuntimeService;
+import org.flowable.engine.runtime.ProcessInstance;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+class FlowableBulkOperationServiceTests {
+
+	private static final String PROCESS_KEY = "simpleTextProcessingWorkflow";
+
+	@Autowired
+	private BulkOperationService bulkOperationService;
+
+	@Autowired
+	private RuntimeService runtimeService;
+
+	@Autowired
+	private ProcessEngine processEngine;
+
+	@Autowired
+	private WorkflowProperties workflowProperties;
+
+	private int chunkSize;
+
+	@BeforeEach
+	void useSmallChunks() {
+		chunkSize = workflowProperties.getBulkOperations().getChunkSize();
+		workflowProperties.getBulkOperations().setChunkSize(3);
+	}
+
+	@AfterEach
+	void restoreChunkSize() {
+		workflowProperties.getBulkOperations().setChunkSize(chunkSize);
+	}
+
+	@Test
+	void visitsEveryInstanceOnceAcrossChunksOfEqualStartTimes() {
+		String batch = UUID.randomUUID().toString();
+		List<String> ids = startAt(new Date(978_307_200_000L), batch, 8);
+
+		BulkOperationStatus status = runToEnd(new BulkOperationRequest(BulkOperationRequest.Action.SUSPEND, PROCESS_KEY, Map.of("batch", batch), null));
+
+		assertThat(status.state()).isEqualTo(BulkOperationStatus.State.COMPLETED);
+		assertThat(status.processed()).isEqualTo(8);
+		assertThat(status.failed()).isZero();
+		assertThat(runtimeService.createProcessInstanceQuery().processInstanceIds(Set.copyOf(ids)).suspended().count()).isEqualTo(8);
+	}
+
+	@Test
+	void skipsFailedInstancesAndPicksThemUpOnResubmission() {
+		String batch = UUID.randomUUID().toString();
+		List<String> ids = startAt(new Date(978_307_200_000L), batch, 7);
+		String failing = ids.get(3);
+		FailingSuspension listener = new FailingSuspension(failing);
+		runtimeService.addEventListener(listener, FlowableEngineEventType.ENTITY_SUSPENDED);
+		BulkOperationRequest request = new BulkOperationRequest(BulkOperationRequest.Action.SUSPEND, PROCESS_KEY, Map.of("batch", batch), null);
+
+		BulkOperationStatus status;
+		try {
+			status = runToEnd(request);
+		} finally {
+			runtimeService.removeEventListener(listener);
+		}
+
+		// The failed instance stays active, so it still matches the filter but must not be retried within the run
+		assertThat(status.state()).isEqualTo(BulkOperationStatus.State.COMPLETED);
+		assertThat(status.processed()).isEqualTo(6);
+		assertThat(status.failed()).isEqualTo(1);
+		assertThat(status.lastError()).startsWith(failing);
+		assertThat(runtimeService.createProcessInstanceQuery().processInstanceIds(Set.copyOf(ids)).active().list())
+				.extracting(ProcessInstance::getId).containsExactly(failing);
+
+		BulkOperationStatus resubmitted = runToEnd(request);
+
+		assertThat(resubmitted.processed()).isEqualTo(1);
+		assertThat(resubmitted.failed()).isZero();
+	}
+
+	private BulkOperationStatus runToEnd(BulkOperationRequest request) {
+		String operationId = bulkOperationService.start(request).id();
+		return await().atMost(Duration.ofSeconds(30))
+				.until(() -> bulkOperationService.getStatus(operationId).orElseThrow(), status -> status.state().isFinished());
+	}
+
+	private List<String> startAt(Date time, String batch, int count) {
+		Clock clock = processEngine.getProcessEngineConfiguration().getClock();
+		clock.setCurrentTime(time);
+		try {
+			List<String> ids = new ArrayList<>();
+			for (int i = 0; i < count; i++) {
+				ids.add(runtimeService.startProcessInstanceByKey(PROCESS_KEY, Map.of("text", "bulk " + i, "batch", batch)).getId());
+			}
+			return ids;
+		} finally {
+			clock.reset();
+		}
+	}
+
+	/**
+	 * Rolls back the suspension of one process instance.
+	 */
+	private static final class FailingSuspension extends AbstractFlowableEventListener {
+		private final String processInstanceId;
+
+		private FailingSuspension(String processInstanceId) {
+			this.processInstanceId = processInstanceId;
+		}
+
+		@Override
+		public void onEvent(FlowableEvent event) {
+			if (event instanceof FlowableEngineEvent engineEvent && processInstanceId.equals(engineEvent.getProcessInstanceId())) {
+				throw new FlowableException("Suspension refused");
+			}
+		}
+
+		@Override
+		public boolean isFailOnException() {
+			return true;
+		}
+	}
+}
@@ -0,0 +1,129 @@
+package com.example.workflow.service.implementation;
+
+import com.example.workflow.config.WorkflowProperties;
+import com.example.workflow.service.WorkflowService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+class HistoryExportTests {
+
+	@Autowired
+	private WorkflowService workflowService;
+
+	@Autowired
+	private WorkflowProperties workflowProperties;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private WebApplicationContext context;
+
+	private MockMvc mockMvc;
+
+	private int batchSize;
+
+	private final Map<String, String> finished = new HashMap<>();
+
+	@BeforeEach
+	void setUp() {
+		mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+		// Small batches, so the export crosses several of them
+		batchSize = workflowProperties.getExport().getBatchSize();
+		workflowProperties.getExport().setBatchSize(2);
+		for (int i = 0; i < 5; i++) {
+			String text = "export-" + UUID.randomUUID();
+			String processInstanceId = workflowService.startProcess("simpleTextProcessingWorkflow", Map.of("text", text));
+			workflowService.deleteProcess(processInstanceId, "export test");
+			finished.put(processInstanceId, text);
+		}
+	}
+
+	@AfterEach
+	void restore() {
+		workflowProperties.getExport().setBatchSize(batchSize);
+	}
+
+	@Test
+	void exportsEveryFinishedProcessOncePerLine() throws Exception {
+		String body = export(false, false).getResponse().getContentAsString();
+
+		List<JsonNode> records = parse(body);
+		assertThat(body).endsWith("\n");
+		assertThat(records).extracting(record -> record.get("id").asText()).doesNotHaveDuplicates();
+		List<JsonNode> ours = records.stream().filter(record -> finished.containsKey(record.get("id").asText())).toList();
+		assertThat(ours).hasSize(finished.size()).allSatisfy(record -> {
+			assertThat(record.get("processDefinitionKey").asText()).isEqualTo("simpleTextProcessingWorkflow");
+			assertThat(record.hasNonNull("endTime")).isTrue();
+			assertThat(record.has("variables")).isFalse();
+		});
+	}
+
+	@Test
+	void gzipExportCarriesTheVariablesWhenAsked() throws Exception {
+		MvcResult result = export(true, true);
+
+		assertThat(result.getResponse().getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+		assertThat(result.getResponse().getContentType()).isEqualTo(MediaType.APPLICATION_NDJSON_VALUE);
+		String body;
+		try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(result.getResponse().getContentAsByteArray()))) {
+			body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+		}
+		Map<String, String> exported = new HashMap<>();
+		for (JsonNode record : parse(body)) {
+			if (finished.containsKey(record.get("id").asText())) {
+				exported.put(record.get("id").asText(), record.get("variables").get("text").asText());
+			}
+		}
+		assertThat(exported).isEqualTo(finished);
+	}
+
+	private MvcResult export(boolean includeVariables, boolean gzip) throws Exception {
+		MvcResult started = mockMvc.perform(get("/workflow/process/finished/export")
+						.param("includeVariables", String.valueOf(includeVariables))
+						.param("gzip", String.valueOf(gzip)))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		return mockMvc.perform(asyncDispatch(started))
+				.andExpect(status().isOk())
+				.andReturn();
+	}
+
+	private List<JsonNode> parse(String body) throws IOException {
+		List<JsonNode> records = new ArrayList<>();
+		for (String line : body.split("\n")) {
+			records.add(objectMapper.readTree(line));
+		}
+		return records;
+	}
+}
@@ -0,0 +1,230 @@
+package com.example.workflow.service.implementation;
+
+import com.example.workflow.cluster.ClusterLock;
+import com.example.workflow.config.WorkflowProperties;
+import com.example.workflow.dto.RetentionStatus;
+import com.example.workflow.service.HistoryExportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.flowable.bpmn.model.BpmnModel;
+import org.flowable.bpmn.model.EndEvent;
+import org.flowable.bpmn.model.SequenceFlow;
+import org.flowable.bpmn.model.StartEvent;
+import org.flowable.engine.HistoryService;
+import org.flowable.engine.RepositoryService;
+import org.flowable.engine.RuntimeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+class HistoryRetentionTests {
+
+	@Autowired
+	private HistoryService historyService;
+
+	@Autowired
+	private RuntimeService runtimeService;
+
+	@Autowired
+	private RepositoryService repositoryService;
+
+	@Autowired
+	private ClusterLock clusterLock;
+
+	@Autowired
+	private HistoryExportService historyExportService;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@TempDir
+	private Path directory;
+
+	private final AtomicLong deleteDelayMillis = new AtomicLong();
+
+	private final List<Boolean> archivedBeforeDelete = new ArrayList<>();
+
+	private WorkflowProperties properties;
+
+	private String processKey;
+
+	@BeforeEach
+	void setUp() {
+		processKey = "retention" + UUID.randomUUID().toString().replace("-", "");
+		deploy(processKey);
+		// Each test gets its own service, so it only deletes the instances of its own definition
+		properties = new WorkflowProperties();
+		WorkflowProperties.HistoryRetention retention = properties.getHistoryRetention();
+		retention.getMaxAge().put(processKey, Duration.ZERO);
+		retention.setMaxChunkSize(20);
+		retention.setPauseBetweenChunks(Duration.ZERO);
+	}
+
+	@Test
+	void chunkSizeHalvesWhileChunksAreSlowAndGrowsBackWhileTheyAreFast() {
+		FlowableHistoryRetentionService retention = retentionService();
+		properties.getHistoryRetention().setTargetChunkDuration(Duration.ofMillis(50));
+		deleteDelayMillis.set(100);
+		finishInstances(50);
+
+		retention.runCleanup();
+
+		// 20, 10 and then never below the minimum of 10
+		RetentionStatus slow = retention.getStatus();
+		assertThat(slow.deletedInRun()).isEqualTo(50);
+		assertThat(slow.chunksInRun()).isEqualTo(4);
+		assertThat(slow.currentChunkSize()).isEqualTo(10);
+
+		properties.getHistoryRetention().setTargetChunkDuration(Duration.ofMinutes(1));
+		deleteDelayMillis.set(0);
+		finishInstances(80);
+
+		retention.runCleanup();
+
+		// Grows by a quarter per fast chunk: 10, 12, 15, 18, 20 and the remaining 5
+		RetentionStatus fast = retention.getStatus();
+		assertThat(fast.deletedInRun()).isEqualTo(80);
+		assertThat(fast.chunksInRun()).isEqualTo(6);
+		assertThat(fast.currentChunkSize()).isEqualTo(20);
+		assertThat(historyService.createHistoricProcessInstanceQuery().processDefinitionKey(processKey).count()).isZero();
+	}
+
+	@Test
+	void everyChunkIsArchivedBeforeItIsDeleted() throws IOException {
+		WorkflowProperties.HistoryRetention.Archive archive = properties.getHistoryRetention().getArchive();
+		archive.setEnabled(true);
+		archive.setDirectory(directory.toString());
+		Set<String> finished = finishInstances(45);
+
+		FlowableHistoryRetentionService retention = retentionService();
+		retention.runCleanup();
+
+		assertThat(retention.getStatus().lastError()).isNull();
+		assertThat(retention.getStatus().archivedInRun()).isEqualTo(45);
+		assertThat(archivedBeforeDelete).hasSize(3).containsOnly(true);
+		assertThat(archivedIds()).isEqualTo(finished);
+		assertThat(historyService.createHistoricProcessInstanceQuery().processDefinitionKey(processKey).count()).isZero();
+	}
+
+	@Test
+	void nothingIsDeletedWhenTheArchiveCannotBeWritten() throws IOException {
+		Path notADirectory = Files.createFile(directory.resolve("archive"));
+		WorkflowProperties.HistoryRetention.Archive archive = properties.getHistoryRetention().getArchive();
+		archive.setEnabled(true);
+		archive.setDirectory(notADirectory.toString());
+		finishInstances(5);
+
+		FlowableHistoryRetentionService retention = retentionService();
+		retention.runCleanup();
+
+		assertThat(retention.getStatus().lastError()).isNotNull();
+		assertThat(retention.getStatus().deletedInRun()).isZero();
+		assertThat(historyService.createHistoricProcessInstanceQuery().processDefinitionKey(processKey).count()).isEqualTo(5);
+	}
+
+	private FlowableHistoryRetentionService retentionService() {
+		return new FlowableHistoryRetentionService(observedHistoryService(), clusterLock, historyExportService, objectMapper, properties);
+	}
+
+	/**
+	 * Wraps the history service so that every bulk delete is delayed by {@link #deleteDelayMillis} and records whether
+	 * the instances it deletes are in the archive already.
+	 */
+	private HistoryService observedHistoryService() {
+		return (HistoryService) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{HistoryService.class}, (proxy, method, args) -> {
+			if (method.getName().equals("bulkDeleteHistoricProcessInstances")) {
+				if (properties.getHistoryRetention().getArchive().isEnabled()) {
+					archivedBeforeDelete.add(archivedIds().containsAll((Collection<?>) args[0]));
+				}
+				Thread.sleep(deleteDelayMillis.get());
+			}
+			try {
+				return method.invoke(historyService, args);
+			} catch (InvocationTargetException e) {
+				throw e.getCause();
+			}
+		});
+	}
+
+	private Set<String> finishInstances(int count) {
+		Set<String> ids = new HashSet<>();
+		for (int i = 0; i < count; i++) {
+			ids.add(runtimeService.startProcessInstanceByKey(processKey).getId());
+		}
+		return ids;
+	}
+
+	/**
+	 * Reads the IDs from the archive files, including the chunks of a file that is still being written.
+	 */
+	private Set<String> archivedIds() throws IOException {
+		Set<String> ids = new HashSet<>();
+		try (Stream<Path> files = Files.list(directory)) {
+			for (Path file : files.toList()) {
+				for (String line : readGzip(file).split("\n")) {
+					if (!line.isBlank()) {
+						ids.add(objectMapper.readTree(line).get("id").asText());
+					}
+				}
+			}
+		}
+		return ids;
+	}
+
+	private static String readGzip(Path file) throws IOException {
+		ByteArrayOutputStream content = new ByteArrayOutputStream();
+		try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+			byte[] buffer = new byte[8192];
+			for (int read; (read = in.read(buffer)) != -1; ) {
+				content.write(buffer, 0, read);
+			}
+		} catch (EOFException e) {
+			// The writer has not finished the file yet
+		}
+		return content.toString(StandardCharsets.UTF_8);
+	}
+
+	private void deploy(String key) {
+		org.flowable.bpmn.model.Process process = new org.flowable.bpmn.model.Process();
+		process.setId(key);
+		StartEvent start = new StartEvent();
+		start.setId("start");
+		EndEvent end = new EndEvent();
+		end.setId("end");
+		SequenceFlow flow = new SequenceFlow("start", "end");
+		flow.setId("start-end");
+		process.addFlowElement(start);
+		process.addFlowElement(flow);
+		process.addFlowElement(end);
+		BpmnModel model = new BpmnModel();
+		model.addProcess(process);
+		repositoryService.createDeployment().addBpmnModel(key + ".bpmn20.xml", model).deploy();
+	}
+}
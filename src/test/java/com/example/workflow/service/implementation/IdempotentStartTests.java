@@ -0,0 +1,91 @@
+package com.example.workflow.service.implementation;
+
+import com.example.workflow.idempotency.IdempotencyKey;
+import com.example.workflow.idempotency.IdempotencyKeyRepository;
+import com.example.workflow.service.WorkflowService;
+import org.flowable.engine.RuntimeService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+class IdempotentStartTests {
+
+	private static final String PROCESS_KEY = "simpleTextProcessingWorkflow";
+
+	@Autowired
+	private WorkflowService workflowService;
+
+	@Autowired
+	private RuntimeService runtimeService;
+
+	@Autowired
+	private IdempotencyKeyRepository idempotencyKeyRepository;
+
+	@Test
+	void concurrentStartsWithOneKeyStartOneInstance() throws Exception {
+		String key = UUID.randomUUID().toString();
+		String marker = UUID.randomUUID().toString();
+		int callers = 8;
+		CountDownLatch ready = new CountDownLatch(callers);
+		CountDownLatch go = new CountDownLatch(1);
+		List<Future<String>> results = new ArrayList<>();
+		try (ExecutorService executor = Executors.newFixedThreadPool(callers)) {
+			for (int i = 0; i < callers; i++) {
+				results.add(executor.submit(() -> {
+					ready.countDown();
+					go.await();
+					return workflowService.startProcess(PROCESS_KEY, Map.of("text", "idempotent", "marker", marker), key);
+				}));
+			}
+			ready.await();
+			go.countDown();
+			List<String> ids = new ArrayList<>();
+			for (Future<String> result : results) {
+				ids.add(result.get());
+			}
+
+			assertThat(ids).containsOnly(ids.getFirst());
+		}
+		assertThat(runtimeService.createProcessInstanceQuery().variableValueEquals("marker", marker).count()).isEqualTo(1);
+		assertThat(idempotencyKeyRepository.findById(key)).get()
+				.extracting(IdempotencyKey::getProcessInstanceId).isEqualTo(results.getFirst().get());
+	}
+
+	@Test
+	void keyRecordedByAnotherNodeReturnsItsInstance() {
+		String key = UUID.randomUUID().toString();
+		String existing = runtimeService.startProcessInstanceByKey(PROCESS_KEY, Map.of("text", "other node")).getId();
+		IdempotencyKey recorded = new IdempotencyKey(key, PROCESS_KEY, Instant.now());
+		recorded.setProcessInstanceId(existing);
+		idempotencyKeyRepository.saveAndFlush(recorded);
+		String marker = UUID.randomUUID().toString();
+
+		assertThat(workflowService.startProcess(PROCESS_KEY, Map.of("text", "retry", "marker", marker), key)).isEqualTo(existing);
+		assertThat(runtimeService.createProcessInstanceQuery().variableValueEquals("marker", marker).count()).isZero();
+	}
+
+	@Test
+	void keyCannotBeReusedForAnotherProcess() {
+		String key = UUID.randomUUID().toString();
+		workflowService.startProcess(PROCESS_KEY, Map.of("text", "first"), key);
+
+		assertThatIllegalArgumentException().isThrownBy(() -> workflowService.startProcess("otherProcess", Map.of(), key));
+		assertThatIllegalArgumentException().isThrownBy(() -> workflowService.startProcess(PROCESS_KEY, Map.of(), " "));
+	}
+}
@@ -0,0 +1,109 @@
+package com.example.workflow.service.implementation;
+
+import com.example.workflow.dto.KeysetPage;
+import com.example.workflow.dto.PageCursor;
+import com.example.workflow.dto.TaskSummary;
+import com.example.workflow.service.WorkflowService;
+import org.flowable.common.engine.impl.runtime.Clock;
+import org.flowable.engine.ProcessEngine;
+import org.flowable.engine.RuntimeService;
+import org.flowable.engine.TaskService;
+import org.flowable.engine.runtime.ProcessInstance;
+import org.flowable.task.api.Task;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+class KeysetPaginationTests {
+
+	private static final String PROCESS_KEY = "simpleTextProcessingWorkflow";
+
+	@Autowired
+	private WorkflowService workflowService;
+
+	@Autowired
+	private RuntimeService runtimeService;
+
+	@Autowired
+	private TaskService taskService;
+
+	@Autowired
+	private ProcessEngine processEngine;
+
+	@Test
+	void cursorSurvivesEncoding() {
+		PageCursor cursor = new PageCursor(new Date(1_700_000_000_123L), "a:b-" + UUID.randomUUID());
+
+		assertThat(PageCursor.decode(cursor.encode())).isEqualTo(cursor);
+		assertThat(PageCursor.decode(null)).isNull();
+		assertThat(PageCursor.decode(" ")).isNull();
+		assertThatIllegalArgumentException().isThrownBy(() -> PageCursor.decode("not a cursor"));
+	}
+
+	@Test
+	void rowsSharingATimestampAreNeitherSkippedNorRepeated() {
+		List<String> started = startAt(new Date(978_307_200_000L), 7);
+		List<String> tasks = started.stream()
+				.map(id -> taskService.createTaskQuery().processInstanceId(id).singleResult().getId())
+				.sorted()
+				.toList();
+
+		List<String> pagedTasks = readAll(cursor -> workflowService.getActiveTasksPage(cursor, 3), Task::getId);
+		List<String> pagedProcesses = readAll(cursor -> workflowService.getRunningProcessesPage(cursor, 3), ProcessInstance::getId);
+
+		// Ties on the timestamp are broken by ID, so ours come out once each, in ID order
+		assertThat(pagedTasks).filteredOn(tasks::contains).containsExactlyElementsOf(tasks);
+		assertThat(pagedProcesses).filteredOn(started::contains).containsExactlyElementsOf(started.stream().sorted().toList());
+		assertThat(pagedTasks).doesNotHaveDuplicates();
+		assertThat(pagedProcesses).doesNotHaveDuplicates();
+	}
+
+	@Test
+	void summariesPageLikeTheFullRows() {
+		startAt(new Date(978_307_200_000L), 4);
+
+		List<String> tasks = readAll(cursor -> workflowService.getActiveTasksPage(cursor, 2), Task::getId);
+		List<String> summaries = readAll(cursor -> workflowService.getActiveTaskSummaries(cursor, 2, List.of("name")), TaskSummary::id);
+
+		assertThat(summaries).isEqualTo(tasks);
+	}
+
+	private List<String> startAt(Date time, int count) {
+		Clock clock = processEngine.getProcessEngineConfiguration().getClock();
+		clock.setCurrentTime(time);
+		try {
+			List<String> ids = new ArrayList<>();
+			for (int i = 0; i < count; i++) {
+				ids.add(runtimeService.startProcessInstanceByKey(PROCESS_KEY, Map.of("text", "keyset " + i)).getId());
+			}
+			return ids;
+		} finally {
+			clock.reset();
+		}
+	}
+
+	private static <T> List<String> readAll(Function<String, KeysetPage<T>> fetch, Function<T, String> idOf) {
+		List<String> ids = new ArrayList<>();
+		String cursor = null;
+		do {
+			KeysetPage<T> page = fetch.apply(cursor);
+			assertThat(page.items()).hasSizeLessThanOrEqualTo(3);
+			page.items().forEach(item -> ids.add(idOf.apply(item)));
+			cursor = page.nextCursor();
+		} while (cursor != null);
+		return ids;
+	}
+}
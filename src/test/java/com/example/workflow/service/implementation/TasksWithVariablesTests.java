@@ -0,0 +1,107 @@
+package com.example.workflow.service.implementation;
+
+import com.example.workflow.config.WorkflowProperties;
+import com.example.workflow.dto.KeysetPage;
+import com.example.workflow.dto.TaskWithVariables;
+import com.example.workflow.service.WorkflowService;
+import org.flowable.engine.TaskService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.util.unit.DataSize;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+class TasksWithVariablesTests {
+
+	private static final String PROCESS_KEY = "simpleTextProcessingWorkflow";
+
+	@Autowired
+	private WorkflowService workflowService;
+
+	@Autowired
+	private TaskService taskService;
+
+	@Autowired
+	private WorkflowProperties workflowProperties;
+
+	private DataSize threshold;
+
+	@BeforeEach
+	void saveSettings() {
+		threshold = workflowProperties.getLargeVariables().getThreshold();
+	}
+
+	@AfterEach
+	void restore() {
+		workflowProperties.getLargeVariables().setEnabled(false);
+		workflowProperties.getLargeVariables().setThreshold(threshold);
+	}
+
+	@Test
+	void eachTaskCarriesTheSelectedVariablesOfItsOwnProcess() {
+		Map<String, String> textByTask = new HashMap<>();
+		for (int i = 0; i < 3; i++) {
+			String text = "prefetch-" + UUID.randomUUID();
+			String taskId = startTask(Map.of("text", text, "other", "unselected"));
+			taskService.setVariableLocal(taskId, "text", "local");
+			textByTask.put(taskId, text);
+		}
+
+		Map<String, TaskWithVariables> found = find(textByTask.keySet(), List.of("text", "absent"));
+
+		assertThat(found).hasSize(3);
+		found.forEach((taskId, task) -> {
+			// Task-local variables are not process variables, even when they shadow one
+			assertThat(task.variables()).containsExactly(Map.entry("text", textByTask.get(taskId)));
+			assertThat(task.processInstanceId()).isNotNull();
+		});
+	}
+
+	@Test
+	void valuesKeptOutsideTheVariableRowAreLoaded() {
+		workflowProperties.getLargeVariables().setEnabled(true);
+		workflowProperties.getLargeVariables().setThreshold(DataSize.ofKilobytes(1));
+		String large = UUID.randomUUID() + "x".repeat(2048);
+		ArrayList<String> serialized = new ArrayList<>(List.of("a", "b"));
+		String taskId = startTask(Map.of("text", large, "items", serialized, "count", 7));
+
+		TaskWithVariables task = find(List.of(taskId), null).get(taskId);
+
+		assertThat(task.variables())
+				.containsEntry("text", large)
+				.containsEntry("items", serialized)
+				.containsEntry("count", 7);
+	}
+
+	private String startTask(Map<String, Object> variables) {
+		String processInstanceId = workflowService.startProcess(PROCESS_KEY, variables);
+		return taskService.createTaskQuery().processInstanceId(processInstanceId).singleResult().getId();
+	}
+
+	/**
+	 * Pages through all active tasks and keeps the given ones.
+	 */
+	private Map<String, TaskWithVariables> find(Collection<String> taskIds, List<String> variableNames) {
+		Map<String, TaskWithVariables> found = new HashMap<>();
+		String cursor = null;
+		do {
+			KeysetPage<TaskWithVariables> page = workflowService.getActiveTasksWithVariables(cursor, 100, variableNames);
+			page.items().stream().filter(task -> taskIds.contains(task.id())).forEach(task -> found.put(task.id(), task));
+			cursor = page.nextCursor();
+		} while (cursor != null);
+		return found;
+	}
+}
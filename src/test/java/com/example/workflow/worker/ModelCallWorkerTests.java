@@ -0,0 +1,53 @@
+package com.example.workflow.worker;
+
+import com.example.workflow.metrics.ModelCallWorkerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.flowable.engine.RuntimeService;
+import org.flowable.engine.TaskService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+class ModelCallWorkerTests {
+
+	@Autowired
+	private RuntimeService runtimeService;
+
+	@Autowired
+	private TaskService taskService;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Test
+	void countsAndTimesTheJobsItCompletes() {
+		double acquired = meterRegistry.get(ModelCallWorkerMetrics.ACQUIRED_COUNTER_NAME).counter().count();
+		long completed = completedJobs();
+		String processInstanceId = runtimeService.startProcessInstanceByKey("simpleTextProcessingWorkflow",
+				Map.of("text", "worker " + UUID.randomUUID())).getId();
+
+		taskService.complete(taskService.createTaskQuery().processInstanceId(processInstanceId).singleResult().getId());
+
+		await().atMost(Duration.ofSeconds(10))
+				.until(() -> runtimeService.createProcessInstanceQuery().processInstanceId(processInstanceId).count() == 0);
+		await().atMost(Duration.ofSeconds(5)).until(() -> completedJobs() > completed);
+		assertThat(meterRegistry.get(ModelCallWorkerMetrics.ACQUIRED_COUNTER_NAME).counter().count()).isGreaterThan(acquired);
+		assertThat(meterRegistry.get(ModelCallWorkerMetrics.JOB_TIMER_NAME).tag("outcome", "success").timer().totalTime(TimeUnit.NANOSECONDS))
+				.isPositive();
+	}
+
+	private long completedJobs() {
+		return meterRegistry.get(ModelCallWorkerMetrics.JOB_TIMER_NAME).tag("outcome", "success").timer().count();
+	}
+}